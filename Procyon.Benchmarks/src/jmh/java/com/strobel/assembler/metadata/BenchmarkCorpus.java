@@ -0,0 +1,177 @@
+/*
+ * BenchmarkCorpus.java
+ *
+ * Copyright (c) 2013 Mike Strobel
+ *
+ * This source code is subject to terms and conditions of the Apache License, Version 2.0.
+ * A copy of the license can be found in the License.html file at the root of this distribution.
+ * By using this source code in any fashion, you are agreeing to be bound by the terms of the
+ * Apache License, Version 2.0.
+ *
+ * You must not remove this notice, or any other, from this software.
+ */
+
+package com.strobel.assembler.metadata;
+
+import com.strobel.core.StringUtilities;
+import com.strobel.core.VerifyArgument;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The fixed set of class files the benchmarks run over, loaded from the {@code corpus} resource
+ * directory.  Corpus classes take precedence over classes of the same name on the class path.
+ *
+ * @author Mike Strobel
+ */
+public final class BenchmarkCorpus implements ITypeLoader {
+    private final static String CORPUS_ROOT = "/corpus/";
+    private final static String INDEX_NAME = CORPUS_ROOT + "index.txt";
+
+    private final Map<String, byte[]> _classes;
+
+    private BenchmarkCorpus(final Map<String, byte[]> classes) {
+        _classes = Collections.unmodifiableMap(classes);
+    }
+
+    public static BenchmarkCorpus load() throws IOException {
+        final Map<String, byte[]> classes = new LinkedHashMap<>();
+
+        for (final String internalName : readIndex()) {
+            classes.put(internalName, readResource(CORPUS_ROOT + internalName + ".class"));
+        }
+
+        return new BenchmarkCorpus(classes);
+    }
+
+    public List<String> getClassNames() {
+        return new ArrayList<>(_classes.keySet());
+    }
+
+    public byte[] getClassBytes(final String internalName) {
+        final byte[] bytes = _classes.get(VerifyArgument.notNull(internalName, "internalName"));
+
+        if (bytes == null) {
+            throw new IllegalArgumentException("Class is not part of the corpus: " + internalName);
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Creates a metadata system which resolves corpus classes from the corpus and everything
+     * else (e.g., JDK classes) from the class path.
+     */
+    public MetadataSystem createMetadataSystem() {
+        return new MetadataSystem(new CompositeTypeLoader(this, new ClasspathTypeLoader()));
+    }
+
+    /**
+     * Resolves every corpus class through {@code metadataSystem}, optionally leaving out nested
+     * and anonymous classes (which are decompiled as part of their outer classes).
+     */
+    public List<TypeDefinition> resolveTypes(final MetadataSystem metadataSystem, final boolean topLevelOnly) {
+        VerifyArgument.notNull(metadataSystem, "metadataSystem");
+
+        final List<TypeDefinition> types = new ArrayList<>();
+
+        for (final String internalName : _classes.keySet()) {
+            final TypeReference reference = metadataSystem.lookupType(internalName);
+            final TypeDefinition type = reference != null ? reference.resolve() : null;
+
+            if (type == null) {
+                throw new IllegalStateException("Could not resolve corpus class: " + internalName);
+            }
+
+            if (!topLevelOnly || !(type.isNested() || type.isAnonymous())) {
+                types.add(type);
+            }
+        }
+
+        return types;
+    }
+
+    /**
+     * Returns the methods of {@code types} which have bytecode.
+     */
+    public static List<MethodDefinition> getMethodsWithBodies(final List<TypeDefinition> types) {
+        final List<MethodDefinition> methods = new ArrayList<>();
+
+        for (final TypeDefinition type : types) {
+            for (final MethodDefinition method : type.getDeclaredMethods()) {
+                if (!method.isAbstract() && !Flags.testAny(method.getFlags(), Flags.NATIVE)) {
+                    methods.add(method);
+                }
+            }
+        }
+
+        return methods;
+    }
+
+    @Override
+    public boolean tryLoadType(final String internalName, final Buffer buffer) {
+        final byte[] bytes = _classes.get(internalName);
+
+        if (bytes == null) {
+            return false;
+        }
+
+        buffer.wrap(ByteBuffer.wrap(bytes).asReadOnlyBuffer());
+        return true;
+    }
+
+    private static List<String> readIndex() throws IOException {
+        final List<String> internalNames = new ArrayList<>();
+
+        try (final BufferedReader reader = new BufferedReader(new InputStreamReader(openResource(INDEX_NAME), StandardCharsets.UTF_8))) {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+
+                if (!StringUtilities.isNullOrWhitespace(line) && !line.startsWith("#")) {
+                    internalNames.add(line);
+                }
+            }
+        }
+
+        return internalNames;
+    }
+
+    private static byte[] readResource(final String name) throws IOException {
+        try (final InputStream input = openResource(name)) {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+
+            int bytesRead;
+
+            while ((bytesRead = input.read(buffer)) > 0) {
+                output.write(buffer, 0, bytesRead);
+            }
+
+            return output.toByteArray();
+        }
+    }
+
+    private static InputStream openResource(final String name) throws IOException {
+        final InputStream input = BenchmarkCorpus.class.getResourceAsStream(name);
+
+        if (input == null) {
+            throw new FileNotFoundException("Benchmark corpus resource not found: " + name);
+        }
+
+        return input;
+    }
+}
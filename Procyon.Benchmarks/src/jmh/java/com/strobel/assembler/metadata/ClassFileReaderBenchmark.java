@@ -0,0 +1,67 @@
+/*
+ * ClassFileReaderBenchmark.java
+ *
+ * Copyright (c) 2013 Mike Strobel
+ *
+ * This source code is subject to terms and conditions of the Apache License, Version 2.0.
+ * A copy of the license can be found in the License.html file at the root of this distribution.
+ * By using this source code in any fashion, you are agreeing to be bound by the terms of the
+ * Apache License, Version 2.0.
+ *
+ * You must not remove this notice, or any other, from this software.
+ */
+
+package com.strobel.assembler.metadata;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ClassFileReader#readClass}: parsing every corpus class file into a type
+ * definition, without loading method bodies.
+ *
+ * @author Mike Strobel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ClassFileReaderBenchmark {
+    private MetadataSystem _metadataSystem;
+    private List<byte[]> _classFiles;
+
+    @Setup
+    public void setup() throws IOException {
+        final BenchmarkCorpus corpus = BenchmarkCorpus.load();
+
+        _metadataSystem = corpus.createMetadataSystem();
+        _classFiles = new ArrayList<>();
+
+        for (final String internalName : corpus.getClassNames()) {
+            _classFiles.add(corpus.getClassBytes(internalName));
+        }
+
+        //
+        // Resolve the corpus once up front, so the types it refers to are already cached and
+        // only the reading of the corpus itself is measured.
+        //
+        corpus.resolveTypes(_metadataSystem, false);
+    }
+
+    @Benchmark
+    public void readClass(final Blackhole blackhole) {
+        for (final byte[] classFile : _classFiles) {
+            blackhole.consume(ClassFileReader.readClass(_metadataSystem, new Buffer(classFile)));
+        }
+    }
+}
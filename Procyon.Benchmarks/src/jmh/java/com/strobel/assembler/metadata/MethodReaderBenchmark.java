@@ -0,0 +1,109 @@
+/*
+ * MethodReaderBenchmark.java
+ *
+ * Copyright (c) 2013 Mike Strobel
+ *
+ * This source code is subject to terms and conditions of the Apache License, Version 2.0.
+ * A copy of the license can be found in the License.html file at the root of this distribution.
+ * By using this source code in any fashion, you are agreeing to be bound by the terms of the
+ * Apache License, Version 2.0.
+ *
+ * You must not remove this notice, or any other, from this software.
+ */
+
+package com.strobel.assembler.metadata;
+
+import com.strobel.assembler.ir.attributes.AttributeNames;
+import com.strobel.assembler.ir.attributes.CodeAttribute;
+import com.strobel.assembler.ir.attributes.ExceptionTableEntry;
+import com.strobel.assembler.ir.attributes.SourceAttribute;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link MethodReader#readBody()}: decoding the bytecode of every corpus method.  Bodies
+ * are read the same way {@link MethodDefinition#getBody()} reads them, but are never cached.
+ *
+ * @author Mike Strobel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MethodReaderBenchmark {
+    private List<MethodInput> _methods;
+
+    @Setup
+    public void setup() throws IOException {
+        final BenchmarkCorpus corpus = BenchmarkCorpus.load();
+        final MetadataSystem metadataSystem = corpus.createMetadataSystem();
+
+        _methods = new ArrayList<>();
+
+        for (final MethodDefinition method : BenchmarkCorpus.getMethodsWithBodies(corpus.resolveTypes(metadataSystem, false))) {
+            final TypeDefinition declaringType = method.getDeclaringType();
+            final CodeAttribute code = SourceAttribute.find(AttributeNames.Code, method.getSourceAttributes());
+
+            if (code == null) {
+                continue;
+            }
+
+            final IMetadataScope scope = new ClassFileReader.Scope(
+                new MetadataParser(declaringType),
+                declaringType,
+                declaringType.getConstantPool()
+            );
+
+            _methods.add(new MethodInput(method, loadCode(corpus, declaringType, code), scope));
+        }
+    }
+
+    @Benchmark
+    public void readBody(final Blackhole blackhole) {
+        for (final MethodInput input : _methods) {
+            blackhole.consume(new MethodReader(input.method, input.code, input.scope).readBody());
+        }
+    }
+
+    private static CodeAttribute loadCode(final BenchmarkCorpus corpus, final TypeDefinition declaringType, final CodeAttribute code) {
+        if (code.hasCode()) {
+            return code;
+        }
+
+        final List<ExceptionTableEntry> exceptionTableEntries = code.getExceptionTableEntries();
+        final List<SourceAttribute> attributes = code.getAttributes();
+
+        return new CodeAttribute(
+            code.getLength(),
+            code.getMaxStack(),
+            code.getMaxLocals(),
+            code.getCodeOffset(),
+            code.getCodeSize(),
+            new Buffer(corpus.getClassBytes(declaringType.getInternalName())),
+            exceptionTableEntries.toArray(new ExceptionTableEntry[exceptionTableEntries.size()]),
+            attributes.toArray(new SourceAttribute[attributes.size()])
+        );
+    }
+
+    private final static class MethodInput {
+        final MethodDefinition method;
+        final CodeAttribute code;
+        final IMetadataScope scope;
+
+        MethodInput(final MethodDefinition method, final CodeAttribute code, final IMetadataScope scope) {
+            this.method = method;
+            this.code = code;
+            this.scope = scope;
+        }
+    }
+}
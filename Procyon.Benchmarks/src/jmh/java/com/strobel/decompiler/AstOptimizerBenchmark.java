@@ -0,0 +1,93 @@
+/*
+ * AstOptimizerBenchmark.java
+ *
+ * Copyright (c) 2013 Mike Strobel
+ *
+ * This source code is subject to terms and conditions of the Apache License, Version 2.0.
+ * A copy of the license can be found in the License.html file at the root of this distribution.
+ * By using this source code in any fashion, you are agreeing to be bound by the terms of the
+ * Apache License, Version 2.0.
+ *
+ * You must not remove this notice, or any other, from this software.
+ */
+
+package com.strobel.decompiler;
+
+import com.strobel.assembler.metadata.BenchmarkCorpus;
+import com.strobel.assembler.metadata.MetadataSystem;
+import com.strobel.assembler.metadata.MethodBody;
+import com.strobel.assembler.metadata.MethodDefinition;
+import com.strobel.decompiler.ast.AstBuilder;
+import com.strobel.decompiler.ast.AstOptimizer;
+import com.strobel.decompiler.ast.Block;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link AstOptimizer#optimize}: running every optimization step over the bytecode AST
+ * of every corpus method.  The optimizer rewrites its input, so fresh ASTs are built before each
+ * invocation (outside of the measurement).
+ *
+ * @author Mike Strobel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AstOptimizerBenchmark {
+    private List<MethodBody> _bodies;
+    private List<DecompilerContext> _contexts;
+    private List<Block> _blocks;
+
+    @Setup
+    public void setup() throws IOException {
+        final BenchmarkCorpus corpus = BenchmarkCorpus.load();
+        final MetadataSystem metadataSystem = corpus.createMetadataSystem();
+        final DecompilerSettings settings = DecompilerSettings.javaDefaults();
+
+        _bodies = new ArrayList<>();
+        _contexts = new ArrayList<>();
+
+        for (final MethodDefinition method : BenchmarkCorpus.getMethodsWithBodies(corpus.resolveTypes(metadataSystem, false))) {
+            final MethodBody body = method.getBody();
+
+            if (body != null) {
+                _bodies.add(body);
+                _contexts.add(BytecodeAstBenchmark.createContext(settings, method));
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void buildBlocks() {
+        _blocks = new ArrayList<>(_bodies.size());
+
+        for (int i = 0; i < _bodies.size(); i++) {
+            final Block block = new Block();
+
+            block.getBody().addAll(AstBuilder.build(_bodies.get(i), true, _contexts.get(i)));
+            _blocks.add(block);
+        }
+    }
+
+    @Benchmark
+    public void optimize(final Blackhole blackhole) {
+        for (int i = 0; i < _blocks.size(); i++) {
+            final Block block = _blocks.get(i);
+
+            AstOptimizer.optimize(_contexts.get(i), block);
+            blackhole.consume(block);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * JavaOutputBenchmark.java
+ *
+ * Copyright (c) 2013 Mike Strobel
+ *
+ * This source code is subject to terms and conditions of the Apache License, Version 2.0.
+ * A copy of the license can be found in the License.html file at the root of this distribution.
+ * By using this source code in any fashion, you are agreeing to be bound by the terms of the
+ * Apache License, Version 2.0.
+ *
+ * You must not remove this notice, or any other, from this software.
+ */
+
+package com.strobel.decompiler;
+
+import com.strobel.assembler.metadata.BenchmarkCorpus;
+import com.strobel.assembler.metadata.MetadataSystem;
+import com.strobel.decompiler.languages.java.JavaOutputVisitor;
+import com.strobel.decompiler.languages.java.ast.AstBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link JavaOutputVisitor}: writing the fully transformed Java AST of every
+ * top-level corpus class as source text.
+ *
+ * @author Mike Strobel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JavaOutputBenchmark {
+    private List<AstBuilder> _builders;
+
+    @Setup
+    public void setup() throws IOException {
+        final BenchmarkCorpus corpus = BenchmarkCorpus.load();
+        final MetadataSystem metadataSystem = corpus.createMetadataSystem();
+
+        _builders = TransformationPipelineBenchmark.createBuilders(
+            corpus.resolveTypes(metadataSystem, true),
+            DecompilerSettings.javaDefaults()
+        );
+
+        for (final AstBuilder builder : _builders) {
+            builder.runTransformations();
+        }
+    }
+
+    @Benchmark
+    public void generateCode(final Blackhole blackhole) {
+        for (final AstBuilder builder : _builders) {
+            final PlainTextOutput output = new PlainTextOutput();
+
+            blackhole.consume(builder.generateCode(output));
+            blackhole.consume(output.toString());
+        }
+    }
+}
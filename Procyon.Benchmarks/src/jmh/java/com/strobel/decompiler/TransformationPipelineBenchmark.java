@@ -0,0 +1,89 @@
+/*
+ * TransformationPipelineBenchmark.java
+ *
+ * Copyright (c) 2013 Mike Strobel
+ *
+ * This source code is subject to terms and conditions of the Apache License, Version 2.0.
+ * A copy of the license can be found in the License.html file at the root of this distribution.
+ * By using this source code in any fashion, you are agreeing to be bound by the terms of the
+ * Apache License, Version 2.0.
+ *
+ * You must not remove this notice, or any other, from this software.
+ */
+
+package com.strobel.decompiler;
+
+import com.strobel.assembler.metadata.BenchmarkCorpus;
+import com.strobel.assembler.metadata.MetadataSystem;
+import com.strobel.assembler.metadata.TypeDefinition;
+import com.strobel.decompiler.languages.java.ast.AstBuilder;
+import com.strobel.decompiler.languages.java.ast.transforms.TransformationPipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link TransformationPipeline}: running every Java AST transform over the
+ * untransformed Java AST of every top-level corpus class.  The transforms rewrite their input,
+ * so fresh ASTs are built before each invocation (outside of the measurement).
+ *
+ * @author Mike Strobel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TransformationPipelineBenchmark {
+    private List<TypeDefinition> _types;
+    private DecompilerSettings _settings;
+    private List<AstBuilder> _builders;
+
+    @Setup
+    public void setup() throws IOException {
+        final BenchmarkCorpus corpus = BenchmarkCorpus.load();
+        final MetadataSystem metadataSystem = corpus.createMetadataSystem();
+
+        _types = corpus.resolveTypes(metadataSystem, true);
+        _settings = DecompilerSettings.javaDefaults();
+    }
+
+    @Setup(Level.Invocation)
+    public void buildAsts() {
+        _builders = createBuilders(_types, _settings);
+    }
+
+    @Benchmark
+    public void runTransformations(final Blackhole blackhole) {
+        for (final AstBuilder builder : _builders) {
+            builder.runTransformations();
+            blackhole.consume(builder.getCompilationUnit());
+        }
+    }
+
+    static List<AstBuilder> createBuilders(final List<TypeDefinition> types, final DecompilerSettings settings) {
+        final List<AstBuilder> builders = new ArrayList<>(types.size());
+
+        for (final TypeDefinition type : types) {
+            final DecompilerContext context = new DecompilerContext(settings);
+
+            context.setCurrentType(type);
+
+            final AstBuilder builder = new AstBuilder(context);
+
+            builder.addType(type);
+            builders.add(builder);
+        }
+
+        return builders;
+    }
+}
@@ -21,16 +21,27 @@ import com.strobel.core.VerifyArgument;
 
 import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * @author Mike Strobel
  */
 public class Collection<E> extends AbstractList<E> implements IFreezable {
-    private final ArrayList<E> _items;
+    private final List<E> _items;
     private boolean _isFrozen;
 
     public Collection() {
-        _items = new ArrayList<>();
+        this(false);
+    }
+
+    /**
+     * @param concurrentReads If {@code true}, items are kept in a copy-on-write list, so other
+     *                        threads may read the collection while it is being added to.  Only
+     *                        suitable for small collections which rarely change once published.
+     */
+    public Collection(final boolean concurrentReads) {
+        _items = concurrentReads ? new CopyOnWriteArrayList<E>() : new ArrayList<E>();
     }
 
     @Override
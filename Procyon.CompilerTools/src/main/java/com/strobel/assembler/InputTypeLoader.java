@@ -31,6 +31,7 @@ import java.io.IOException;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -48,7 +49,7 @@ public class InputTypeLoader implements ITypeLoader {
     public InputTypeLoader(final ITypeLoader defaultTypeLoader) {
         _defaultTypeLoader = VerifyArgument.notNull(defaultTypeLoader, "defaultTypeLoader");
         _packageLocations = new LinkedHashMap<>();
-        _knownFiles = new LinkedHashMap<>();
+        _knownFiles = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -157,7 +158,14 @@ public class InputTypeLoader implements ITypeLoader {
         }
 
         while (true) {
-            final LinkedHashSet<File> directories = _packageLocations.get(head);
+            final File[] directories;
+
+            synchronized (_packageLocations) {
+                final LinkedHashSet<File> knownDirectories = _packageLocations.get(head);
+
+                directories = knownDirectories != null ? knownDirectories.toArray(new File[knownDirectories.size()])
+                                                       : null;
+            }
 
             if (directories != null) {
                 for (final File directory : directories) {
@@ -268,6 +276,12 @@ public class InputTypeLoader implements ITypeLoader {
             return;
         }
 
+        synchronized (_packageLocations) {
+            registerKnownPathCore(packageName, directory, recursive);
+        }
+    }
+
+    private void registerKnownPathCore(final String packageName, final File directory, final boolean recursive) {
         LinkedHashSet<File> directories = _packageLocations.get(packageName);
 
         if (directories == null) {
@@ -29,26 +29,45 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 
 @SuppressWarnings({ "PublicField", "ProtectedField" })
 public final class ConstantPool extends Freezable implements Iterable<ConstantPool.Entry> {
     private final ArrayList<Entry> _pool = new ArrayList<>();
-    private final HashMap<Key, Entry> _entryMap = new HashMap<>();
     private final Key _lookupKey = new Key();
     private final Key _newKey = new Key();
 
     private int _size;
 
+    //
+    // The reverse map is only needed to find existing entries when adding to the pool, so it is
+    // built on first use.
+    //
+    private HashMap<Key, Entry> _entryMap;
+
+    //
+    // Pools read from a class file start out with only the offset of each entry; entries are
+    // decoded from a copy of the pool's bytes on first use.  An offset of -1 marks the unused
+    // slot following a long or double constant.
+    //
+    private int[] _offsets;
+    private Buffer _data;
+    private int _pendingIndex;
+    private volatile boolean _isFullyDecoded = true;
+
     @Override
     public Iterator<Entry> iterator() {
+        decodeAll();
         return _pool.iterator();
     }
 
     public void accept(final Visitor visitor) {
         VerifyArgument.notNull(visitor, "visitor");
 
+        decodeAll();
+
         for (final Entry entry : _pool) {
             if (entry != null) {
                 visitor.visit(entry);
@@ -63,21 +82,17 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
 
     @SuppressWarnings("unchecked")
     public <T extends Entry> T getEntry(final int index) {
-        VerifyArgument.inRange(0, _size + 1, index, "index");
-
-        final Entry info = _pool.get(index - 1);
-
-        if (info == null) {
-            throw new IndexOutOfBoundsException();
-        }
-
-        return (T) info;
+        return (T) get(index);
     }
 
     public Entry get(final int index) {
         VerifyArgument.inRange(0, _size + 1, index, "index");
 
-        final Entry info = _pool.get(index - 1);
+        Entry info = _pool.get(index - 1);
+
+        if (info == null && !_isFullyDecoded) {
+            info = decode(index);
+        }
 
         if (info == null) {
             throw new IndexOutOfBoundsException();
@@ -143,7 +158,7 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
 
     public Utf8StringConstantEntry getUtf8StringConstant(final String value) {
         _lookupKey.set(value);
-        Entry entry = _entryMap.get(_lookupKey);
+        Entry entry = getEntryMap().get(_lookupKey);
         if (entry == null) {
             if (isFrozen()) {
                 return null;
@@ -157,7 +172,7 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
     public StringConstantEntry getStringConstant(final String value) {
         final Utf8StringConstantEntry utf8Constant = getUtf8StringConstant(value);
         _lookupKey.set(Tag.StringConstant, utf8Constant.index);
-        Entry entry = _entryMap.get(_lookupKey);
+        Entry entry = getEntryMap().get(_lookupKey);
         if (entry == null) {
             if (isFrozen()) {
                 return null;
@@ -170,7 +185,7 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
 
     public IntegerConstantEntry getIntegerConstant(final int value) {
         _lookupKey.set(value);
-        Entry entry = _entryMap.get(_lookupKey);
+        Entry entry = getEntryMap().get(_lookupKey);
         if (entry == null) {
             if (isFrozen()) {
                 return null;
@@ -183,7 +198,7 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
 
     public FloatConstantEntry getFloatConstant(final float value) {
         _lookupKey.set(value);
-        Entry entry = _entryMap.get(_lookupKey);
+        Entry entry = getEntryMap().get(_lookupKey);
         if (entry == null) {
             if (isFrozen()) {
                 return null;
@@ -196,7 +211,7 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
 
     public LongConstantEntry getLongConstant(final long value) {
         _lookupKey.set(value);
-        Entry entry = _entryMap.get(_lookupKey);
+        Entry entry = getEntryMap().get(_lookupKey);
         if (entry == null) {
             if (isFrozen()) {
                 return null;
@@ -209,7 +224,7 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
 
     public DoubleConstantEntry getDoubleConstant(final double value) {
         _lookupKey.set(value);
-        Entry entry = _entryMap.get(_lookupKey);
+        Entry entry = getEntryMap().get(_lookupKey);
         if (entry == null) {
             if (isFrozen()) {
                 return null;
@@ -223,7 +238,7 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
     public TypeInfoEntry getTypeInfo(final TypeReference type) {
         final Utf8StringConstantEntry name = getUtf8StringConstant(type.getInternalName());
         _lookupKey.set(Tag.TypeInfo, name.index);
-        Entry entry = _entryMap.get(_lookupKey);
+        Entry entry = getEntryMap().get(_lookupKey);
         if (entry == null) {
             if (isFrozen()) {
                 return null;
@@ -241,7 +256,7 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
             field.getErasedSignature()
         );
         _lookupKey.set(Tag.FieldReference, typeInfo.index, nameAndDescriptor.index);
-        Entry entry = _entryMap.get(_lookupKey);
+        Entry entry = getEntryMap().get(_lookupKey);
         if (entry == null) {
             if (isFrozen()) {
                 return null;
@@ -259,7 +274,7 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
             method.getErasedSignature()
         );
         _lookupKey.set(Tag.MethodReference, typeInfo.index, nameAndDescriptor.index);
-        Entry entry = _entryMap.get(_lookupKey);
+        Entry entry = getEntryMap().get(_lookupKey);
         if (entry == null) {
             if (isFrozen()) {
                 return null;
@@ -277,7 +292,7 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
             method.getErasedSignature()
         );
         _lookupKey.set(Tag.InterfaceMethodReference, typeInfo.index, nameAndDescriptor.index);
-        Entry entry = _entryMap.get(_lookupKey);
+        Entry entry = getEntryMap().get(_lookupKey);
         if (entry == null) {
             if (isFrozen()) {
                 return null;
@@ -292,7 +307,7 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
         final Utf8StringConstantEntry utf8Name = getUtf8StringConstant(name);
         final Utf8StringConstantEntry utf8Descriptor = getUtf8StringConstant(typeDescriptor);
         _lookupKey.set(Tag.NameAndTypeDescriptor, utf8Name.index, utf8Descriptor.index);
-        Entry entry = _entryMap.get(_lookupKey);
+        Entry entry = getEntryMap().get(_lookupKey);
         if (entry == null) {
             if (isFrozen()) {
                 return null;
@@ -305,7 +320,7 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
 
     MethodHandleEntry getMethodHandle(final ReferenceKind referenceKind, final int referenceIndex) {
         _lookupKey.set(Tag.MethodHandle, referenceIndex, referenceKind);
-        Entry entry = _entryMap.get(_lookupKey);
+        Entry entry = getEntryMap().get(_lookupKey);
         if (entry == null) {
             if (isFrozen()) {
                 return null;
@@ -318,7 +333,7 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
 
     MethodTypeEntry getMethodType(final int descriptorIndex) {
         _lookupKey.set(Tag.MethodType, descriptorIndex);
-        Entry entry = _entryMap.get(_lookupKey);
+        Entry entry = getEntryMap().get(_lookupKey);
         if (entry == null) {
             if (isFrozen()) {
                 return null;
@@ -333,7 +348,7 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
         final int bootstrapMethodAttributeIndex,
         final int nameAndTypeDescriptorIndex) {
         _lookupKey.set(Tag.InvokeDynamicInfo, bootstrapMethodAttributeIndex, nameAndTypeDescriptorIndex);
-        Entry entry = _entryMap.get(_lookupKey);
+        Entry entry = getEntryMap().get(_lookupKey);
         if (entry == null) {
             if (isFrozen()) {
                 return null;
@@ -344,74 +359,173 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
         return (InvokeDynamicInfoEntry) entry;
     }
 
+    private HashMap<Key, Entry> getEntryMap() {
+        if (_entryMap == null) {
+            final HashMap<Key, Entry> entryMap = new HashMap<>();
+
+            for (final Entry entry : this) {
+                if (entry != null) {
+                    entry.fixupKey(_newKey);
+                    entryMap.put(_newKey.clone(), entry);
+                    _newKey.clear();
+                }
+            }
+
+            _entryMap = entryMap;
+        }
+
+        return _entryMap;
+    }
+
+    private void addToEntryMap(final Entry entry) {
+        if (_entryMap != null) {
+            entry.fixupKey(_newKey);
+            _entryMap.put(_newKey.clone(), entry);
+            _newKey.clear();
+        }
+    }
+
+    private void decodeAll() {
+        if (_isFullyDecoded) {
+            return;
+        }
+
+        for (int i = 1; i <= _size; i++) {
+            if (_offsets[i - 1] >= 0 && _pool.get(i - 1) == null) {
+                decode(i);
+            }
+        }
+
+        _isFullyDecoded = true;
+    }
+
+    private Entry decode(final int index) {
+        //
+        // A pool may be shared by several threads.  Entries are only published once they are
+        // fully constructed, and all of their fields are final, so readers may safely see them
+        // without taking the lock.
+        //
+        synchronized (_pool) {
+            final Entry existing = _pool.get(index - 1);
+
+            if (existing != null || _offsets[index - 1] < 0) {
+                return existing;
+            }
+
+            _data.position(_offsets[index - 1]);
+            _pendingIndex = index;
+
+            final Entry entry;
+
+            try {
+                entry = readEntry(this, _data, Tag.fromValue(_data.readUnsignedByte()));
+            }
+            finally {
+                _pendingIndex = 0;
+            }
+
+            _pool.set(index - 1, entry);
+
+            return entry;
+        }
+    }
+
+    /**
+     * Reads a constant pool, recording only where each entry starts.  Entries are decoded the
+     * first time they are looked up, so reading a class header to find out its name (or to
+     * resolve a referenced type) only decodes the handful of entries it actually uses.
+     */
     public static ConstantPool read(final Buffer b) {
         boolean skipOne = false;
 
         final ConstantPool pool = new ConstantPool();
         final int size = b.readUnsignedShort();
-        final Key key = new Key();
+        final int start = b.position();
+        final int[] offsets = new int[Math.max(size - 1, 0)];
 
         for (int i = 1; i < size; i++) {
             if (skipOne) {
                 skipOne = false;
+                offsets[i - 1] = -1;
                 continue;
             }
 
-            key.clear();
+            offsets[i - 1] = b.position() - start;
 
             final Tag tag = Tag.fromValue(b.readUnsignedByte());
 
             switch (tag) {
                 case Utf8StringConstant:
-                    new Utf8StringConstantEntry(pool, b.readUtf8());
-                    break;
-                case IntegerConstant:
-                    new IntegerConstantEntry(pool, b.readInt());
-                    break;
-                case FloatConstant:
-                    new FloatConstantEntry(pool, b.readFloat());
+                    b.advance(b.readUnsignedShort());
                     break;
                 case LongConstant:
-                    new LongConstantEntry(pool, b.readLong());
-                    skipOne = true;
-                    break;
                 case DoubleConstant:
-                    new DoubleConstantEntry(pool, b.readDouble());
+                    b.advance(8);
                     skipOne = true;
                     break;
-                case TypeInfo:
-                    new TypeInfoEntry(pool, b.readUnsignedShort());
-                    break;
-                case StringConstant:
-                    new StringConstantEntry(pool, b.readUnsignedShort());
-                    break;
-                case FieldReference:
-                    new FieldReferenceEntry(pool, b.readUnsignedShort(), b.readUnsignedShort());
-                    break;
-                case MethodReference:
-                    new MethodReferenceEntry(pool, b.readUnsignedShort(), b.readUnsignedShort());
-                    break;
-                case InterfaceMethodReference:
-                    new InterfaceMethodReferenceEntry(pool, b.readUnsignedShort(), b.readUnsignedShort());
-                    break;
-                case NameAndTypeDescriptor:
-                    new NameAndTypeDescriptorEntry(pool, b.readUnsignedShort(), b.readUnsignedShort());
-                    break;
                 case MethodHandle:
-                    new MethodHandleEntry(pool, ReferenceKind.fromTag(b.readUnsignedByte()), b.readUnsignedShort());
+                    b.advance(3);
                     break;
+                case TypeInfo:
+                case StringConstant:
                 case MethodType:
-                    new MethodTypeEntry(pool, b.readUnsignedShort());
+                    b.advance(2);
                     break;
-                case InvokeDynamicInfo:
-                    new InvokeDynamicInfoEntry(pool, b.readUnsignedShort(), b.readUnsignedShort());
+                default:
+                    b.advance(4);
                     break;
             }
         }
 
+        final int length = b.position() - start;
+        final byte[] data = new byte[length];
+
+        b.copyTo(start, data, 0, length);
+
+        pool._size = offsets.length;
+        pool._offsets = offsets;
+        pool._data = new Buffer(data);
+        pool._isFullyDecoded = offsets.length == 0;
+        pool._pool.addAll(Collections.<Entry>nCopies(offsets.length, null));
+
         return pool;
     }
 
+    private static Entry readEntry(final ConstantPool pool, final Buffer b, final Tag tag) {
+        switch (tag) {
+            case Utf8StringConstant:
+                return new Utf8StringConstantEntry(pool, b.readUtf8());
+            case IntegerConstant:
+                return new IntegerConstantEntry(pool, b.readInt());
+            case FloatConstant:
+                return new FloatConstantEntry(pool, b.readFloat());
+            case LongConstant:
+                return new LongConstantEntry(pool, b.readLong());
+            case DoubleConstant:
+                return new DoubleConstantEntry(pool, b.readDouble());
+            case TypeInfo:
+                return new TypeInfoEntry(pool, b.readUnsignedShort());
+            case StringConstant:
+                return new StringConstantEntry(pool, b.readUnsignedShort());
+            case FieldReference:
+                return new FieldReferenceEntry(pool, b.readUnsignedShort(), b.readUnsignedShort());
+            case MethodReference:
+                return new MethodReferenceEntry(pool, b.readUnsignedShort(), b.readUnsignedShort());
+            case InterfaceMethodReference:
+                return new InterfaceMethodReferenceEntry(pool, b.readUnsignedShort(), b.readUnsignedShort());
+            case NameAndTypeDescriptor:
+                return new NameAndTypeDescriptorEntry(pool, b.readUnsignedShort(), b.readUnsignedShort());
+            case MethodHandle:
+                return new MethodHandleEntry(pool, ReferenceKind.fromTag(b.readUnsignedByte()), b.readUnsignedShort());
+            case MethodType:
+                return new MethodTypeEntry(pool, b.readUnsignedShort());
+            case InvokeDynamicInfo:
+                return new InvokeDynamicInfoEntry(pool, b.readUnsignedShort(), b.readUnsignedShort());
+            default:
+                throw new IllegalStateException("Unexpected constant pool tag: " + tag);
+        }
+    }
+
     // <editor-fold defaultstate="collapsed" desc="Entry Base Class">
 
     public static abstract class Entry {
@@ -421,6 +535,17 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
 
         Entry(final ConstantPool owner) {
             this.owner = owner;
+
+            if (owner._pendingIndex != 0) {
+                //
+                // Decoding an entry of a pool read from a class file; its slots already exist.
+                //
+                this.index = owner._pendingIndex;
+                return;
+            }
+
+            owner.decodeAll();
+
             this.index = owner._size + 1;
             owner._pool.add(this);
             owner._size += size();
@@ -760,9 +885,7 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
         public TypeInfoEntry(final ConstantPool owner, final int nameIndex) {
             super(owner);
             this.nameIndex = nameIndex;
-            owner._newKey.set(getTag(), nameIndex);
-            owner._entryMap.put(owner._newKey.clone(), this);
-            owner._newKey.clear();
+            owner.addToEntryMap(this);
         }
 
         public String getName() {
@@ -801,9 +924,7 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
         public MethodTypeEntry(final ConstantPool owner, final int descriptorIndex) {
             super(owner);
             this.descriptorIndex = descriptorIndex;
-            owner._newKey.set(getTag(), descriptorIndex);
-            owner._entryMap.put(owner._newKey.clone(), this);
-            owner._newKey.clear();
+            owner.addToEntryMap(this);
         }
 
         public String getType() {
@@ -846,9 +967,7 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
             this.tag = tag;
             this.typeInfoIndex = typeInfoIndex;
             this.nameAndTypeDescriptorIndex = nameAndTypeDescriptorIndex;
-            owner._newKey.set(tag, typeInfoIndex, nameAndTypeDescriptorIndex);
-            owner._entryMap.put(owner._newKey.clone(), this);
-            owner._newKey.clear();
+            owner.addToEntryMap(this);
         }
 
         public Tag getTag() {
@@ -939,9 +1058,7 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
             super(owner);
             this.referenceKind = referenceKind;
             this.referenceIndex = referenceIndex;
-            owner._newKey.set(getTag(), referenceIndex, referenceKind);
-            owner._entryMap.put(owner._newKey.clone(), this);
-            owner._newKey.clear();
+            owner.addToEntryMap(this);
         }
 
         public ReferenceEntry getReference() {
@@ -988,9 +1105,7 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
             super(owner);
             this.nameIndex = nameIndex;
             this.typeDescriptorIndex = typeDescriptorIndex;
-            owner._newKey.set(getTag(), nameIndex, typeDescriptorIndex);
-            owner._entryMap.put(owner._newKey.clone(), this);
-            owner._newKey.clear();
+            owner.addToEntryMap(this);
         }
 
         @Override
@@ -1037,9 +1152,7 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
             super(owner);
             this.bootstrapMethodAttributeIndex = bootstrapMethodAttributeIndex;
             this.nameAndTypeDescriptorIndex = nameAndTypeDescriptorIndex;
-            owner._newKey.set(getTag(), bootstrapMethodAttributeIndex, nameAndTypeDescriptorIndex);
-            owner._entryMap.put(owner._newKey.clone(), this);
-            owner._newKey.clear();
+            owner.addToEntryMap(this);
         }
 
         @Override
@@ -1079,9 +1192,7 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
         public DoubleConstantEntry(final ConstantPool owner, final double value) {
             super(owner);
             this.value = value;
-            owner._newKey.set(value);
-            owner._entryMap.put(owner._newKey.clone(), this);
-            owner._newKey.clear();
+            owner.addToEntryMap(this);
         }
 
         @Override
@@ -1126,9 +1237,7 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
         public FloatConstantEntry(final ConstantPool owner, final float value) {
             super(owner);
             this.value = value;
-            owner._newKey.set(value);
-            owner._entryMap.put(owner._newKey.clone(), this);
-            owner._newKey.clear();
+            owner.addToEntryMap(this);
         }
 
         @Override
@@ -1168,9 +1277,7 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
         public IntegerConstantEntry(final ConstantPool owner, final int value) {
             super(owner);
             this.value = value;
-            owner._newKey.set(value);
-            owner._entryMap.put(owner._newKey.clone(), this);
-            owner._newKey.clear();
+            owner.addToEntryMap(this);
         }
 
         @Override
@@ -1210,9 +1317,7 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
         public LongConstantEntry(final ConstantPool owner, final long value) {
             super(owner);
             this.value = value;
-            owner._newKey.set(value);
-            owner._entryMap.put(owner._newKey.clone(), this);
-            owner._newKey.clear();
+            owner.addToEntryMap(this);
         }
 
         @Override
@@ -1257,9 +1362,7 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
         public StringConstantEntry(final ConstantPool owner, final int stringIndex) {
             super(owner);
             this.stringIndex = stringIndex;
-            owner._newKey.set(getTag(), stringIndex);
-            owner._entryMap.put(owner._newKey.clone(), this);
-            owner._newKey.clear();
+            owner.addToEntryMap(this);
         }
 
         public String getValue() {
@@ -1303,9 +1406,7 @@ public final class ConstantPool extends Freezable implements Iterable<ConstantPo
         public Utf8StringConstantEntry(final ConstantPool owner, final String value) {
             super(owner);
             this.value = value;
-            owner._newKey.set(getTag(), value);
-            owner._entryMap.put(owner._newKey.clone(), this);
-            owner._newKey.clear();
+            owner.addToEntryMap(this);
         }
 
         @Override
@@ -23,6 +23,7 @@ public final class AnonymousLocalTypeCollection extends Collection<TypeDefinitio
     private final MethodDefinition _owner;
 
     public AnonymousLocalTypeCollection(final MethodDefinition owner) {
+        super(true);
         _owner = VerifyArgument.notNull(owner, "owner");
     }
 
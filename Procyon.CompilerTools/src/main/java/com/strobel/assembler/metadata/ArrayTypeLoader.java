@@ -22,11 +22,12 @@ import com.strobel.core.ExceptionUtilities;
 import com.strobel.core.StringUtilities;
 import com.strobel.core.VerifyArgument;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-public final class ArrayTypeLoader implements ITypeLoader {
+public final class ArrayTypeLoader implements IIndexedTypeLoader {
     private final static Logger LOG = Logger.getLogger(ArrayTypeLoader.class.getSimpleName());
 
     private final Buffer _buffer;
@@ -44,14 +45,21 @@ public final class ArrayTypeLoader implements ITypeLoader {
         return _className;
     }
 
+    @Override
+    public boolean mayContainType(final String internalName) {
+        ensureParsed(false);
+        return StringUtilities.equals(internalName, _className);
+    }
+
     @Override
     public boolean tryLoadType(final String internalName, final Buffer buffer) {
         ensureParsed(false);
 
         if (StringUtilities.equals(internalName, _className)) {
-            buffer.reset(_buffer.size());
-            buffer.putByteArray(_buffer.array(), 0, _buffer.size());
-            buffer.position(0);
+            //
+            // Our copy of the class bytes is never modified, so it can be shared without copying.
+            //
+            buffer.wrap(ByteBuffer.wrap(_buffer.array(), 0, _buffer.size()).asReadOnlyBuffer());
             return true;
         }
 
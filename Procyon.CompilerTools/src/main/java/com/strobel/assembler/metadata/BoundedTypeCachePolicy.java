@@ -0,0 +1,89 @@
+/*
+ * BoundedTypeCachePolicy.java
+ *
+ * Copyright (c) 2013 Mike Strobel
+ *
+ * This source code is subject to terms and conditions of the Apache License, Version 2.0.
+ * A copy of the license can be found in the License.html file at the root of this distribution.
+ * By using this source code in any fashion, you are agreeing to be bound by the terms of the
+ * Apache License, Version 2.0.
+ *
+ * You must not remove this notice, or any other, from this software.
+ */
+
+package com.strobel.assembler.metadata;
+
+import com.strobel.core.VerifyArgument;
+
+/**
+ * A {@link ITypeCachePolicy} which asks for the cache to be trimmed once the total class file size
+ * of the unpinned types exceeds a limit.  Types in pinned packages (by default, the JDK and
+ * bootstrap packages) are never released and do not count against the limit.
+ *
+ * @author Mike Strobel
+ */
+public final class BoundedTypeCachePolicy implements ITypeCachePolicy {
+    private final static String[] PLATFORM_PREFIXES = { "java/", "javax/", "jdk/", "sun/", "com/sun/" };
+
+    private final int _maximumWeight;
+    private final String[] _pinnedPrefixes;
+
+    private long _totalWeight;
+
+    public BoundedTypeCachePolicy(final int maximumWeight) {
+        this(maximumWeight, PLATFORM_PREFIXES);
+    }
+
+    public BoundedTypeCachePolicy(final int maximumWeight, final String... pinnedPrefixes) {
+        _maximumWeight = VerifyArgument.isPositive(maximumWeight, "maximumWeight");
+        _pinnedPrefixes = VerifyArgument.noNullElements(pinnedPrefixes, "pinnedPrefixes").clone();
+    }
+
+    public final int getMaximumWeight() {
+        return _maximumWeight;
+    }
+
+    public final synchronized long getTotalWeight() {
+        return _totalWeight;
+    }
+
+    /**
+     * Returns whether the type with the given internal name is in one of the JDK and bootstrap
+     * packages, which this policy pins by default.
+     */
+    public static boolean isPlatformType(final String internalName) {
+        VerifyArgument.notNull(internalName, "internalName");
+        return startsWithAny(internalName, PLATFORM_PREFIXES);
+    }
+
+    @Override
+    public final boolean isPinned(final String descriptor) {
+        VerifyArgument.notNull(descriptor, "descriptor");
+        return startsWithAny(descriptor, _pinnedPrefixes);
+    }
+
+    private static boolean startsWithAny(final String name, final String[] prefixes) {
+        for (final String prefix : prefixes) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public synchronized void typeAdded(final String descriptor, final int weight) {
+        _totalWeight += weight;
+    }
+
+    @Override
+    public synchronized boolean isTrimNeeded() {
+        return _totalWeight > _maximumWeight;
+    }
+
+    @Override
+    public synchronized void cacheTrimmed() {
+        _totalWeight = 0;
+    }
+}
@@ -20,15 +20,24 @@ import com.strobel.core.VerifyArgument;
 import com.strobel.util.EmptyArrayCache;
 
 import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
+ * A growable, big-endian byte buffer used for reading and writing class files.
+ * <p>
+ * A buffer normally owns a {@code byte[]}, but it may also {@linkplain #wrap(ByteBuffer) wrap}
+ * a heap, direct, or memory-mapped {@link ByteBuffer} without copying it.  A wrapped buffer is
+ * read in place; it is copied into an owned array only if it is written to, or if
+ * {@link #array()} is called.
+ *
  * @author Mike Strobel
  */
 public class Buffer {
     private final static int DEFAULT_SIZE = 64;
 
     private byte[] _data;
+    private ByteBuffer _source;
     private int _length;
     private int _position;
 
@@ -47,6 +56,11 @@ public class Buffer {
         _length = initialSize;
     }
 
+    public Buffer(final ByteBuffer source) {
+        _data = EmptyArrayCache.EMPTY_BYTE_ARRAY;
+        wrap(source);
+    }
+
     public int size() {
         return _length;
     }
@@ -80,6 +94,8 @@ public class Buffer {
     }
 
     public void reset(final int initialSize) {
+        _source = null;
+
         if (VerifyArgument.isNonNegative(initialSize, "initialSize") == 0) {
             _data = EmptyArrayCache.EMPTY_BYTE_ARRAY;
         }
@@ -90,10 +106,68 @@ public class Buffer {
         _position = 0;
     }
 
+    /**
+     * Makes this buffer a read-only view of the remaining bytes in {@code source}, without
+     * copying them.  The position of {@code source} is not changed, and its contents must not
+     * change while this buffer is in use.
+     */
+    public void wrap(final ByteBuffer source) {
+        VerifyArgument.notNull(source, "source");
+
+        _source = source.slice();
+        _length = _source.remaining();
+        _position = 0;
+    }
+
+    public boolean isWrapped() {
+        return _source != null;
+    }
+
+    /**
+     * Returns the array backing this buffer.  If the buffer wraps a {@link ByteBuffer}, its
+     * contents are first copied into a new array, which then backs this buffer.
+     */
     public byte[] array() {
+        if (_source != null) {
+            detach(_length);
+        }
         return _data;
     }
 
+    /**
+     * Returns a read-only view of this buffer's contents, from the start of the buffer up to its
+     * size.  The view shares storage with this buffer, so it only remains valid as long as this
+     * buffer is not written to.
+     */
+    public ByteBuffer asByteBuffer() {
+        if (_source != null) {
+            final ByteBuffer view = _source.duplicate();
+            seek(view, 0);
+            return view.slice().asReadOnlyBuffer();
+        }
+        return ByteBuffer.wrap(_data, 0, _length).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Copies {@code length} bytes starting at {@code position} into {@code destination}, without
+     * changing the position of this buffer.
+     */
+    public void copyTo(final int position, final byte[] destination, final int offset, final int length) {
+        VerifyArgument.notNull(destination, "destination");
+
+        if (position < 0 || length < 0 || position + length > _length) {
+            throw new BufferUnderflowException();
+        }
+
+        if (_source != null) {
+            seek(_source, position);
+            _source.get(destination, offset, length);
+        }
+        else {
+            System.arraycopy(_data, position, destination, offset, length);
+        }
+    }
+
     public int read(final byte[] buffer, final int offset, final int length) {
         if (buffer == null) {
             throw new NullPointerException();
@@ -114,7 +188,13 @@ public class Buffer {
             return 0;
         }
 
-        System.arraycopy(_data, _position, buffer, offset, actualLength);
+        if (_source != null) {
+            seek(_source, _position);
+            _source.get(buffer, offset, actualLength);
+        }
+        else {
+            System.arraycopy(_data, _position, buffer, offset, actualLength);
+        }
 
         _position += actualLength;
 
@@ -207,11 +287,21 @@ public class Buffer {
 
     public byte readByte() {
         verifyReadableBytes(1);
+
+        if (_source != null) {
+            return _source.get(_position++);
+        }
+
         return _data[_position++];
     }
 
     public int readUnsignedByte() {
         verifyReadableBytes(1);
+
+        if (_source != null) {
+            return _source.get(_position++) & 0xFF;
+        }
+
         return _data[_position++] & 0xFF;
     }
 
@@ -391,6 +481,10 @@ public class Buffer {
     protected void ensureWriteableBytes(final int size) {
         final int minLength = _position + size;
 
+        if (_source != null) {
+            detach(Math.max(minLength, _length));
+        }
+
         if (minLength > _data.length) {
             final int length1 = 2 * _data.length;
             final int length2 = _position + size;
@@ -400,4 +494,22 @@ public class Buffer {
 
         _length = Math.max(minLength, _length);
     }
+
+    private void detach(final int capacity) {
+        final byte[] data = new byte[capacity];
+
+        seek(_source, 0);
+        _source.get(data, 0, _length);
+
+        _data = data;
+        _source = null;
+    }
+
+    private static void seek(final ByteBuffer buffer, final int position) {
+        //
+        // Call through java.nio.Buffer; ByteBuffer.position(int) is covariant as of Java 9,
+        // and binding to that overload would break on older runtimes.
+        //
+        ((java.nio.Buffer) buffer).position(position);
+    }
 }
@@ -0,0 +1,91 @@
+/*
+ * ClassBytesCache.java
+ *
+ * Copyright (c) 2013 Mike Strobel
+ *
+ * This source code is subject to terms and conditions of the Apache License, Version 2.0.
+ * A copy of the license can be found in the License.html file at the root of this distribution.
+ * By using this source code in any fashion, you are agreeing to be bound by the terms of the
+ * Apache License, Version 2.0.
+ *
+ * You must not remove this notice, or any other, from this software.
+ */
+
+package com.strobel.assembler.metadata;
+
+import com.strobel.core.VerifyArgument;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the class files of recently loaded types, up to a total size, so method bodies can be
+ * read again without going back to the underlying {@link ITypeLoader}.  Cached class files are
+ * shared as read-only views; types which are not cached are loaded from the underlying loader.
+ * The least recently used class files are dropped first.
+ *
+ * @author Mike Strobel
+ */
+final class ClassBytesCache implements ITypeLoader {
+    private final ITypeLoader _typeLoader;
+    private final int _maximumSize;
+    private final LinkedHashMap<String, ByteBuffer> _classFiles;
+
+    private long _totalSize;
+
+    ClassBytesCache(final ITypeLoader typeLoader, final int maximumSize) {
+        _typeLoader = VerifyArgument.notNull(typeLoader, "typeLoader");
+        _maximumSize = VerifyArgument.isPositive(maximumSize, "maximumSize");
+        _classFiles = new LinkedHashMap<>(256, 0.75f, true);
+    }
+
+    final int getMaximumSize() {
+        return _maximumSize;
+    }
+
+    void add(final String internalName, final Buffer buffer) {
+        final ByteBuffer classFile = buffer.asByteBuffer();
+
+        synchronized (_classFiles) {
+            final ByteBuffer oldClassFile = _classFiles.put(internalName, classFile);
+
+            if (oldClassFile != null) {
+                _totalSize -= oldClassFile.remaining();
+            }
+
+            _totalSize += classFile.remaining();
+
+            //
+            // Always keep the most recently added class file, even if it exceeds the limit on its
+            // own; its method bodies are the ones most likely to be read next.
+            //
+            final Iterator<Map.Entry<String, ByteBuffer>> iterator = _classFiles.entrySet().iterator();
+
+            while (_totalSize > _maximumSize && _classFiles.size() > 1) {
+                _totalSize -= iterator.next().getValue().remaining();
+                iterator.remove();
+            }
+        }
+    }
+
+    @Override
+    public boolean tryLoadType(final String internalName, final Buffer buffer) {
+        final ByteBuffer classFile;
+
+        synchronized (_classFiles) {
+            //
+            // The map is in access order, so a lookup moves the entry to the end.
+            //
+            classFile = _classFiles.get(internalName);
+        }
+
+        if (classFile != null) {
+            buffer.wrap(classFile);
+            return true;
+        }
+
+        return _typeLoader.tryLoadType(internalName, buffer);
+    }
+}
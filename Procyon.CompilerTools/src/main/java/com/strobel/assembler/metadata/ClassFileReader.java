@@ -41,6 +41,15 @@ public final class ClassFileReader extends MetadataReader {
     public final static int OPTION_PROCESS_ANNOTATIONS = 1 << 0;
     public final static int OPTION_PROCESS_CODE = 1 << 1;
 
+    /**
+     * Leaves the annotations of a type and its members unread until they are first requested via
+     * {@code getAnnotations()} or {@code getSourceAttributes()}.  Parsing annotations and their
+     * element values is wasted effort for most of the dependency types loaded while decompiling,
+     * which are only needed for their signatures.  Only meaningful together with
+     * {@link #OPTION_PROCESS_ANNOTATIONS}.
+     */
+    public final static int OPTION_DEFER_ANNOTATIONS = 1 << 2;
+
     public final static int OPTIONS_DEFAULT = OPTION_PROCESS_ANNOTATIONS;
 
     final static long MAGIC = 0xCAFEBABEL;
@@ -60,6 +69,7 @@ public final class ClassFileReader extends MetadataReader {
     private final MetadataParser _parser;
     private final ResolverFrame _resolverFrame;
     private final Scope _scope;
+    private final AnnotationInflater _annotationInflater;
 
     private ClassFileReader(
         final int options,
@@ -120,12 +130,19 @@ public final class ClassFileReader extends MetadataReader {
 
         _constantPool.freezeIfUnfrozen();
         _typeDefinition.setConstantPool(_constantPool);
+
+        _annotationInflater = shouldDeferAnnotations() ? new AnnotationInflater(_typeDefinition, _constantPool)
+                                                       : null;
     }
 
     protected boolean shouldProcessAnnotations() {
         return (_options & OPTION_PROCESS_ANNOTATIONS) == OPTION_PROCESS_ANNOTATIONS;
     }
 
+    protected boolean shouldDeferAnnotations() {
+        return shouldProcessAnnotations() && (_options & OPTION_DEFER_ANNOTATIONS) == OPTION_DEFER_ANNOTATIONS;
+    }
+
     protected boolean shouldProcessCode() {
         return (_options & OPTION_PROCESS_CODE) == OPTION_PROCESS_CODE;
     }
@@ -256,6 +273,21 @@ public final class ClassFileReader extends MetadataReader {
 
                 return new InnerClassesAttribute(length, ArrayUtilities.asUnmodifiableList(entries));
             }
+
+            case AttributeNames.RuntimeVisibleAnnotations:
+            case AttributeNames.RuntimeInvisibleAnnotations:
+            case AttributeNames.RuntimeVisibleParameterAnnotations:
+            case AttributeNames.RuntimeInvisibleParameterAnnotations: {
+                if (shouldDeferAnnotations()) {
+                    //
+                    // Keep the raw attribute; it is inflated by DeferredAnnotations on first use.
+                    //
+                    final byte[] blob = new byte[length];
+                    buffer.read(blob, 0, length);
+                    return new BlobAttribute(name, blob, originalOffset);
+                }
+                break;
+            }
         }
 
         return super.readAttributeCore(name, buffer, originalOffset, length);
@@ -487,7 +519,7 @@ public final class ClassFileReader extends MetadataReader {
 
                 final SourceAttribute rawEnclosingMethodAttribute = SourceAttribute.find(
                     AttributeNames.EnclosingMethod,
-                    resolvedInnerType.getSourceAttributes()
+                    resolvedInnerType.getSourceAttributesInternal()
                 );
 
                 if (rawEnclosingMethodAttribute instanceof EnclosingMethodAttribute) {
@@ -851,26 +883,18 @@ public final class ClassFileReader extends MetadataReader {
                 fieldDefinition.getSourceAttributesInternal().add(attribute);
             }
 
-            if (shouldProcessAnnotations()) {
-                final Collection<CustomAnnotation> annotations = fieldDefinition.getAnnotationsInternal();
-
-                final AnnotationsAttribute visibleAnnotations = SourceAttribute.find(
-                    AttributeNames.RuntimeVisibleAnnotations,
-                    field.attributes
+            if (shouldDeferAnnotations()) {
+                fieldDefinition.setDeferredAnnotations(
+                    new DeferredAnnotations(
+                        _annotationInflater,
+                        fieldDefinition.getSourceAttributesInternal(),
+                        fieldDefinition.getAnnotationsInternal(),
+                        null
+                    )
                 );
-
-                final AnnotationsAttribute invisibleAnnotations = SourceAttribute.find(
-                    AttributeNames.RuntimeInvisibleAnnotations,
-                    field.attributes
-                );
-
-                if (visibleAnnotations != null) {
-                    Collections.addAll(annotations, visibleAnnotations.getAnnotations());
-                }
-
-                if (invisibleAnnotations != null) {
-                    Collections.addAll(annotations, invisibleAnnotations.getAnnotations());
-                }
+            }
+            else if (shouldProcessAnnotations()) {
+                populateAnnotations(fieldDefinition.getSourceAttributesInternal(), fieldDefinition.getAnnotationsInternal(), null);
             }
         }
     }
@@ -1017,54 +1041,18 @@ public final class ClassFileReader extends MetadataReader {
                         methodDefinition.setFlags(methodDefinition.getFlags() | Flags.DEPRECATED);
                     }
 
-                    if (shouldProcessAnnotations()) {
-                        final AnnotationsAttribute visibleAnnotations = SourceAttribute.find(
-                            AttributeNames.RuntimeVisibleAnnotations,
-                            method.attributes
-                        );
-
-                        final AnnotationsAttribute invisibleAnnotations = SourceAttribute.find(
-                            AttributeNames.RuntimeInvisibleAnnotations,
-                            method.attributes
-                        );
-
-                        final Collection<CustomAnnotation> annotations = methodDefinition.getAnnotationsInternal();
-
-                        if (visibleAnnotations != null) {
-                            Collections.addAll(annotations, visibleAnnotations.getAnnotations());
-                        }
-
-                        if (invisibleAnnotations != null) {
-                            Collections.addAll(annotations, invisibleAnnotations.getAnnotations());
-                        }
-
-                        final ParameterAnnotationsAttribute visibleParameterAnnotations = SourceAttribute.find(
-                            AttributeNames.RuntimeVisibleParameterAnnotations,
-                            method.attributes
+                    if (shouldDeferAnnotations()) {
+                        methodDefinition.setDeferredAnnotations(
+                            new DeferredAnnotations(
+                                _annotationInflater,
+                                methodDefinition.getSourceAttributesInternal(),
+                                methodDefinition.getAnnotationsInternal(),
+                                parameters
+                            )
                         );
-
-                        final ParameterAnnotationsAttribute invisibleParameterAnnotations = SourceAttribute.find(
-                            AttributeNames.RuntimeInvisibleParameterAnnotations,
-                            method.attributes
-                        );
-
-                        if (visibleParameterAnnotations != null) {
-                            for (int i = 0; i < visibleParameterAnnotations.getAnnotations().length && i < parameters.size(); i++) {
-                                Collections.addAll(
-                                    parameters.get(i).getAnnotationsInternal(),
-                                    visibleParameterAnnotations.getAnnotations()[i]
-                                );
-                            }
-                        }
-
-                        if (invisibleParameterAnnotations != null) {
-                            for (int i = 0; i < invisibleParameterAnnotations.getAnnotations().length && i < parameters.size(); i++) {
-                                Collections.addAll(
-                                    parameters.get(i).getAnnotationsInternal(),
-                                    invisibleParameterAnnotations.getAnnotations()[i]
-                                );
-                            }
-                        }
+                    }
+                    else if (shouldProcessAnnotations()) {
+                        populateAnnotations(methodDefinition.getSourceAttributesInternal(), methodDefinition.getAnnotationsInternal(), parameters);
                     }
                 }
                 finally {
@@ -1133,29 +1121,89 @@ public final class ClassFileReader extends MetadataReader {
     private void visitAttributes() {
         inflateAttributes(_attributes);
 
-        if (shouldProcessAnnotations()) {
-            final AnnotationsAttribute visibleAnnotations = SourceAttribute.find(
-                AttributeNames.RuntimeVisibleAnnotations,
-                _attributes
+        if (shouldDeferAnnotations()) {
+            _typeDefinition.setDeferredAnnotations(
+                new DeferredAnnotations(
+                    _annotationInflater,
+                    _attributes,
+                    _typeDefinition.getAnnotationsInternal(),
+                    null
+                )
             );
+        }
+        else if (shouldProcessAnnotations()) {
+            populateAnnotations(_attributes, _typeDefinition.getAnnotationsInternal(), null);
+        }
+    }
 
-            final AnnotationsAttribute invisibleAnnotations = SourceAttribute.find(
-                AttributeNames.RuntimeInvisibleAnnotations,
-                _attributes
-            );
+    private static void populateAnnotations(
+        final List<SourceAttribute> attributes,
+        final Collection<CustomAnnotation> annotations,
+        final List<ParameterDefinition> parameters) {
+
+        final AnnotationsAttribute visibleAnnotations = SourceAttribute.find(
+            AttributeNames.RuntimeVisibleAnnotations,
+            attributes
+        );
+
+        final AnnotationsAttribute invisibleAnnotations = SourceAttribute.find(
+            AttributeNames.RuntimeInvisibleAnnotations,
+            attributes
+        );
+
+        if (visibleAnnotations != null) {
+            Collections.addAll(annotations, visibleAnnotations.getAnnotations());
+        }
 
-            final Collection<CustomAnnotation> annotations = _typeDefinition.getAnnotationsInternal();
+        if (invisibleAnnotations != null) {
+            Collections.addAll(annotations, invisibleAnnotations.getAnnotations());
+        }
+
+        if (parameters == null) {
+            return;
+        }
 
-            if (visibleAnnotations != null) {
-                Collections.addAll(annotations, visibleAnnotations.getAnnotations());
+        final ParameterAnnotationsAttribute visibleParameterAnnotations = SourceAttribute.find(
+            AttributeNames.RuntimeVisibleParameterAnnotations,
+            attributes
+        );
+
+        final ParameterAnnotationsAttribute invisibleParameterAnnotations = SourceAttribute.find(
+            AttributeNames.RuntimeInvisibleParameterAnnotations,
+            attributes
+        );
+
+        if (visibleParameterAnnotations != null) {
+            for (int i = 0; i < visibleParameterAnnotations.getAnnotations().length && i < parameters.size(); i++) {
+                Collections.addAll(
+                    parameters.get(i).getAnnotationsInternal(),
+                    visibleParameterAnnotations.getAnnotations()[i]
+                );
             }
+        }
 
-            if (invisibleAnnotations != null) {
-                Collections.addAll(annotations, invisibleAnnotations.getAnnotations());
+        if (invisibleParameterAnnotations != null) {
+            for (int i = 0; i < invisibleParameterAnnotations.getAnnotations().length && i < parameters.size(); i++) {
+                Collections.addAll(
+                    parameters.get(i).getAnnotationsInternal(),
+                    invisibleParameterAnnotations.getAnnotations()[i]
+                );
             }
         }
     }
 
+    private static boolean isAnnotationAttribute(final String name) {
+        switch (name) {
+            case AttributeNames.RuntimeVisibleAnnotations:
+            case AttributeNames.RuntimeInvisibleAnnotations:
+            case AttributeNames.RuntimeVisibleParameterAnnotations:
+            case AttributeNames.RuntimeInvisibleParameterAnnotations:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     // </editor-fold>
 
     // <editor-fold defaultstate="collapsed" desc="FieldInfo Class">
@@ -1197,6 +1245,89 @@ public final class ClassFileReader extends MetadataReader {
 
     // </editor-fold>
 
+    // <editor-fold defaultstate="collapsed" desc="Deferred Annotations">
+
+    /**
+     * Inflates the annotation attributes of a type read with {@link #OPTION_DEFER_ANNOTATIONS}.
+     * One instance is shared by the type and all of its members; it also serves as the lock for
+     * loading their annotations, as its parser is not thread safe.
+     */
+    private final static class AnnotationInflater extends MetadataReader {
+        private final MetadataParser _parser;
+        private final Scope _scope;
+
+        AnnotationInflater(final TypeDefinition typeDefinition, final ConstantPool constantPool) {
+            _parser = new MetadataParser(typeDefinition);
+            _scope = new Scope(_parser, typeDefinition, constantPool);
+        }
+
+        @Override
+        protected IMetadataScope getScope() {
+            return _scope;
+        }
+
+        @Override
+        protected MetadataParser getParser() {
+            return _parser;
+        }
+
+        void inflateAnnotationAttributes(final List<SourceAttribute> attributes) {
+            for (int i = 0; i < attributes.size(); i++) {
+                final SourceAttribute attribute = attributes.get(i);
+
+                if (attribute instanceof BlobAttribute && isAnnotationAttribute(attribute.getName())) {
+                    attributes.set(i, inflateAttribute(attribute));
+                }
+            }
+        }
+    }
+
+    /**
+     * The unread annotations of a type, field, or method (and its parameters).  Loading them
+     * inflates the annotation attributes in place, so {@code getSourceAttributes()} returns the
+     * same attributes as it would had the annotations been read up front.
+     */
+    static final class DeferredAnnotations {
+        private final AnnotationInflater _inflater;
+        private final List<SourceAttribute> _attributes;
+        private final Collection<CustomAnnotation> _annotations;
+        private final List<ParameterDefinition> _parameters;
+
+        private boolean _isLoaded;
+
+        DeferredAnnotations(
+            final AnnotationInflater inflater,
+            final List<SourceAttribute> attributes,
+            final Collection<CustomAnnotation> annotations,
+            final List<ParameterDefinition> parameters) {
+
+            _inflater = inflater;
+            _attributes = attributes;
+            _annotations = annotations;
+            _parameters = parameters;
+        }
+
+        void load() {
+            synchronized (_inflater) {
+                if (_isLoaded) {
+                    return;
+                }
+
+                //
+                // Resolving the annotation types may come back around to the owner's source
+                // attributes (e.g., to look for an InnerClasses entry), so mark the annotations
+                // as loaded up front rather than recursing.
+                //
+                _isLoaded = true;
+
+                _inflater.inflateAnnotationAttributes(_attributes);
+                populateAnnotations(_attributes, _annotations, _parameters);
+            }
+        }
+    }
+
+    // </editor-fold>
+
     // <editor-fold defaultstate="collapsed" desc="Metadata Scope">
 
     private final static MethodHandleType[] METHOD_HANDLE_TYPES = MethodHandleType.values();
@@ -1269,7 +1400,7 @@ public final class ClassFileReader extends MetadataReader {
         @Override
         public DynamicCallSite lookupDynamicCallSite(final int token) {
             final ConstantPool.InvokeDynamicInfoEntry entry = _constantPool.getEntry(token);
-            final BootstrapMethodsAttribute attribute = SourceAttribute.find(AttributeNames.BootstrapMethods, _typeDefinition.getSourceAttributes());
+            final BootstrapMethodsAttribute attribute = SourceAttribute.find(AttributeNames.BootstrapMethods, _typeDefinition.getSourceAttributesInternal());
 
             final BootstrapMethodsTableEntry bootstrapMethod = attribute.getBootstrapMethods()
                                                                         .get(entry.bootstrapMethodAttributeIndex);
@@ -19,6 +19,9 @@ package com.strobel.assembler.metadata;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -30,6 +33,13 @@ public final class ClasspathTypeLoader implements ITypeLoader {
 
     private final ClassLoader _loader;
 
+    //
+    // The system class path does not change while we run, so a type which is missing now will
+    // always be missing.  Lookups for missing types are common (e.g., probing for nested classes),
+    // and each one would otherwise search every class path entry again.
+    //
+    private final Set<String> _missingTypes = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
     public ClasspathTypeLoader() {
         _loader = ClassLoader.getSystemClassLoader();
     }
@@ -49,14 +59,19 @@ public final class ClasspathTypeLoader implements ITypeLoader {
             LOG.fine("Attempting to load type: " + internalName + "...");
         }
 
+        if (_missingTypes.contains(internalName)) {
+            return false;
+        }
+
         final String path = internalName.concat(".class");
         final URL resource = _loader.getResource(path);
 
         if (resource == null) {
+            _missingTypes.add(internalName);
             return false;
         }
 
-        try (final InputStream stream = _loader.getResourceAsStream(path)) {
+        try (final InputStream stream = resource.openStream()) {
             final byte[] temp = new byte[4096];
 
             int bytesRead;
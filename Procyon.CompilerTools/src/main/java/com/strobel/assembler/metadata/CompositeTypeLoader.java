@@ -18,16 +18,37 @@ package com.strobel.assembler.metadata;
 
 import com.strobel.core.VerifyArgument;
 
-public final class CompositeTypeLoader implements ITypeLoader {
+/**
+ * Loads types from the first of several type loaders able to provide them.  Loaders which keep an
+ * index of their types ({@link IIndexedTypeLoader}) are only asked for types they may contain.
+ *
+ * @author Mike Strobel
+ */
+public final class CompositeTypeLoader implements IIndexedTypeLoader {
     private final ITypeLoader[] _typeLoaders;
 
     public CompositeTypeLoader(final ITypeLoader... typeLoaders) {
         _typeLoaders = VerifyArgument.noNullElementsAndNotEmpty(typeLoaders, "typeLoaders").clone();
     }
 
+    @Override
+    public boolean mayContainType(final String internalName) {
+        for (final ITypeLoader typeLoader : _typeLoaders) {
+            if (mayContainType(typeLoader, internalName)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     @Override
     public boolean tryLoadType(final String internalName, final Buffer buffer) {
         for (final ITypeLoader typeLoader : _typeLoaders) {
+            if (!mayContainType(typeLoader, internalName)) {
+                continue;
+            }
+
             if (typeLoader.tryLoadType(internalName, buffer)) {
                 return true;
             }
@@ -37,4 +58,9 @@ public final class CompositeTypeLoader implements ITypeLoader {
 
         return false;
     }
+
+    private static boolean mayContainType(final ITypeLoader typeLoader, final String internalName) {
+        return !(typeLoader instanceof IIndexedTypeLoader) ||
+               ((IIndexedTypeLoader) typeLoader).mayContainType(internalName);
+    }
 }
@@ -182,7 +182,7 @@ public class CoreMetadataFactory implements MetadataFactory {
         }
 
         final String internalName = name.replace('.', '/');
-        final SourceAttribute attribute = SourceAttribute.find(AttributeNames.InnerClasses, _owner.getSourceAttributes());
+        final SourceAttribute attribute = SourceAttribute.find(AttributeNames.InnerClasses, _owner.getSourceAttributesInternal());
 
         if (attribute instanceof InnerClassesAttribute) {
             final List<InnerClassEntry> entries = ((InnerClassesAttribute) attribute).getEntries();
@@ -477,7 +477,7 @@ public class CoreMetadataFactory implements MetadataFactory {
         }
     }
 
-    private final class UnresolvedType extends TypeReference {
+    private final class UnresolvedType extends TypeReference implements IUnresolvedType {
         private final String _name;
         private final String _shortName;
         private final String _packageName;
@@ -532,6 +532,11 @@ public class CoreMetadataFactory implements MetadataFactory {
             }
         }
 
+        @Override
+        public IMetadataResolver getResolver() {
+            return _resolver;
+        }
+
         @Override
         public String getName() {
             return _name;
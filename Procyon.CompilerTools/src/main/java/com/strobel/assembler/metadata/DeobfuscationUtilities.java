@@ -22,16 +22,25 @@ import com.strobel.assembler.ir.OpCode;
 import com.strobel.core.VerifyArgument;
 
 public class DeobfuscationUtilities {
+    private final static Object PROCESS_LOCK = new Object();
+
     public static void processType(@NotNull final TypeDefinition type) {
         VerifyArgument.notNull(type, "type");
 
-        if (Flags.testAny(type.getFlags(), Flags.DEOBFUSCATED)) {
-            return;
-        }
+        //
+        // Processing mutates definitions which may be shared with other decompiler threads, so
+        // make sure any concurrent callers wait until we have finished.  This must not be the
+        // type's own monitor, which guards its lazily created array and raw types.
+        //
+        synchronized (PROCESS_LOCK) {
+            if (Flags.testAny(type.getFlags(), Flags.DEOBFUSCATED)) {
+                return;
+            }
 
-        type.setFlags(type.getFlags() | Flags.DEOBFUSCATED);
+            type.setFlags(type.getFlags() | Flags.DEOBFUSCATED);
 
-        flagAnonymousEnumDefinitions(type);
+            flagAnonymousEnumDefinitions(type);
+        }
     }
 
     private static void flagAnonymousEnumDefinitions(final TypeDefinition type) {
@@ -37,6 +37,7 @@ public class FieldDefinition extends FieldReference implements IMemberDefinition
     private TypeDefinition _declaringType;
     private Object _constantValue;
     private long _flags;
+    private volatile ClassFileReader.DeferredAnnotations _deferredAnnotations;
 
     protected FieldDefinition(final TypeReference fieldType) {
         _fieldType = fieldType;
@@ -48,6 +49,7 @@ public class FieldDefinition extends FieldReference implements IMemberDefinition
 
     @Override
     public final List<CustomAnnotation> getAnnotations() {
+        loadDeferredAnnotations();
         return _customAnnotationsView;
     }
 
@@ -56,9 +58,23 @@ public class FieldDefinition extends FieldReference implements IMemberDefinition
     }
 
     public final List<SourceAttribute> getSourceAttributes() {
+        loadDeferredAnnotations();
         return _sourceAttributesView;
     }
 
+    final void setDeferredAnnotations(final ClassFileReader.DeferredAnnotations deferredAnnotations) {
+        _deferredAnnotations = deferredAnnotations;
+    }
+
+    final void loadDeferredAnnotations() {
+        final ClassFileReader.DeferredAnnotations deferredAnnotations = _deferredAnnotations;
+
+        if (deferredAnnotations != null) {
+            deferredAnnotations.load();
+            _deferredAnnotations = null;
+        }
+    }
+
     protected final Collection<SourceAttribute> getSourceAttributesInternal() {
         return _sourceAttributes;
     }
@@ -40,6 +40,7 @@ public final class GenericParameter extends TypeDefinition {
 
     protected final void setPosition(final int position) {
         _position = position;
+        invalidateHashCode();
     }
 
     protected final void setOwner(final IGenericParameterProvider owner) {
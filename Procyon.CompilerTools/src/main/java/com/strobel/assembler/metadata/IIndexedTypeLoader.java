@@ -0,0 +1,30 @@
+/*
+ * IIndexedTypeLoader.java
+ *
+ * Copyright (c) 2013 Mike Strobel
+ *
+ * This source code is subject to terms and conditions of the Apache License, Version 2.0.
+ * A copy of the license can be found in the License.html file at the root of this distribution.
+ * By using this source code in any fashion, you are agreeing to be bound by the terms of the
+ * Apache License, Version 2.0.
+ *
+ * You must not remove this notice, or any other, from this software.
+ */
+
+package com.strobel.assembler.metadata;
+
+/**
+ * A type loader which keeps an in-memory index of the types it can load, e.g., the directory of
+ * a jar file.  {@link CompositeTypeLoader} consults the index to skip loaders which cannot
+ * provide a type, rather than probing each of them in turn.
+ *
+ * @author Mike Strobel
+ */
+public interface IIndexedTypeLoader extends ITypeLoader {
+    /**
+     * Returns {@code false} if this loader definitely cannot load {@code internalName}.  A result
+     * of {@code true} does not guarantee that {@link #tryLoadType} succeeds.  This check performs
+     * no I/O.
+     */
+    public boolean mayContainType(final String internalName);
+}
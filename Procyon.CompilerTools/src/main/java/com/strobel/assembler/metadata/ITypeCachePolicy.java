@@ -0,0 +1,52 @@
+/*
+ * ITypeCachePolicy.java
+ *
+ * Copyright (c) 2013 Mike Strobel
+ *
+ * This source code is subject to terms and conditions of the Apache License, Version 2.0.
+ * A copy of the license can be found in the License.html file at the root of this distribution.
+ * By using this source code in any fashion, you are agreeing to be bound by the terms of the
+ * Apache License, Version 2.0.
+ *
+ * You must not remove this notice, or any other, from this software.
+ */
+
+package com.strobel.assembler.metadata;
+
+/**
+ * Decides which type definitions a {@link MetadataSystem} keeps for its whole lifetime, and when
+ * it should release the rest; see {@link MetadataSystem#trimCache()}.
+ * <p>
+ * Types are always released together, never one at a time: a cached type refers directly to the
+ * definitions of the types it uses, so releasing only some of them would leave two definitions of
+ * the same class in use.  For the same reason, pinned types should only refer to other pinned
+ * types, as the JDK's own types do.
+ * <p>
+ * All methods are called while the metadata system holds its loader lock; cache hits are not
+ * reported to the policy.
+ *
+ * @author Mike Strobel
+ */
+public interface ITypeCachePolicy {
+    /**
+     * Returns whether the type with the given descriptor is kept when the cache is trimmed.
+     */
+    public boolean isPinned(final String descriptor);
+
+    /**
+     * Called after an unpinned type has been read and added to the cache.  The {@code weight} is
+     * the size of the class file from which the type was read.
+     */
+    public void typeAdded(final String descriptor, final int weight);
+
+    /**
+     * Returns whether the unpinned types have outgrown the cache, and should be released the
+     * next time the cache is trimmed.
+     */
+    public boolean isTrimNeeded();
+
+    /**
+     * Called after every unpinned type has been released.
+     */
+    public void cacheTrimmed();
+}
@@ -0,0 +1,24 @@
+/*
+ * IUnresolvedType.java
+ *
+ * Copyright (c) 2013 Mike Strobel
+ *
+ * This source code is subject to terms and conditions of the Apache License, Version 2.0.
+ * A copy of the license can be found in the License.html file at the root of this distribution.
+ * By using this source code in any fashion, you are agreeing to be bound by the terms of the
+ * Apache License, Version 2.0.
+ *
+ * You must not remove this notice, or any other, from this software.
+ */
+
+package com.strobel.assembler.metadata;
+
+/**
+ * A reference to a type which has not been resolved yet, made while reading the metadata of
+ * another type.  The reference keeps the resolver which made it alive.
+ *
+ * @author Mike Strobel
+ */
+interface IUnresolvedType {
+    IMetadataResolver getResolver();
+}
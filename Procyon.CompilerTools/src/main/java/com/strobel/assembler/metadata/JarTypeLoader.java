@@ -22,14 +22,14 @@ import com.strobel.core.VerifyArgument;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-public class JarTypeLoader implements ITypeLoader {
+public class JarTypeLoader implements IIndexedTypeLoader {
     private final static Logger LOG = Logger.getLogger(JarTypeLoader.class.getSimpleName());
 
     private final JarFile _jarFile;
@@ -37,7 +37,15 @@ public class JarTypeLoader implements ITypeLoader {
 
     public JarTypeLoader(final JarFile jarFile) {
         _jarFile = VerifyArgument.notNull(jarFile, "jarFile");
-        _knownMappings = new HashMap<>();
+        _knownMappings = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public boolean mayContainType(final String internalName) {
+        //
+        // The jar's directory is read when it is opened, so looking up an entry does no I/O.
+        //
+        return _jarFile.getJarEntry(internalName + ".class") != null || _knownMappings.containsKey(internalName);
     }
 
     @Override
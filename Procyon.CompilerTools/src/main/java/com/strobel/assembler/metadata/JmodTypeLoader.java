@@ -0,0 +1,219 @@
+/*
+ * JmodTypeLoader.java
+ *
+ * Copyright (c) 2013 Mike Strobel
+ *
+ * This source code is subject to terms and conditions of the Apache License, Version 2.0.
+ * A copy of the license can be found in the License.html file at the root of this distribution.
+ * By using this source code in any fashion, you are agreeing to be bound by the terms of the
+ * Apache License, Version 2.0.
+ *
+ * You must not remove this notice, or any other, from this software.
+ */
+
+package com.strobel.assembler.metadata;
+
+import com.strobel.core.ExceptionUtilities;
+import com.strobel.core.VerifyArgument;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * An {@link ITypeLoader} which reads classes from JDK module files ({@code .jmod}), e.g., the
+ * {@code jmods} directory of a JDK whose run-time image is not available.
+ * <p>
+ * Each module's package list is read when the loader is created, so a lookup only ever opens the
+ * one module which can contain the type.  A single instance may be shared by many threads.
+ *
+ * @author Mike Strobel
+ * @see JrtTypeLoader
+ */
+public class JmodTypeLoader implements IIndexedTypeLoader, Closeable {
+    private final static Logger LOG = Logger.getLogger(JmodTypeLoader.class.getSimpleName());
+
+    private final static String JMOD_EXTENSION = ".jmod";
+    private final static String CLASSES_PREFIX = "classes/";
+    private final static String CLASS_EXTENSION = ".class";
+
+    private final List<ZipFile> _modules;
+    private final Map<String, ZipFile> _packageModules;
+
+    /**
+     * Creates a loader for the given {@code .jmod} files.  Any directory is replaced by the
+     * {@code .jmod} files it contains.
+     */
+    public JmodTypeLoader(final File... files) throws IOException {
+        VerifyArgument.noNullElementsAndNotEmpty(files, "files");
+
+        final List<ZipFile> modules = new ArrayList<>();
+        final Map<String, ZipFile> packageModules = new HashMap<>();
+
+        try {
+            for (final File file : files) {
+                for (final File moduleFile : listModuleFiles(file)) {
+                    //
+                    // A module file is a zip archive behind a short header, which ZipFile skips.
+                    //
+                    final ZipFile module = new ZipFile(moduleFile);
+
+                    modules.add(module);
+                    indexPackages(module, packageModules);
+                }
+            }
+        }
+        catch (final IOException | RuntimeException e) {
+            closeAll(modules);
+            throw e;
+        }
+
+        _modules = Collections.unmodifiableList(modules);
+        _packageModules = Collections.unmodifiableMap(packageModules);
+    }
+
+    /**
+     * Returns whether {@code javaHome} contains a {@code jmods} directory this loader can read.
+     */
+    public static boolean hasModuleFiles(final File javaHome) {
+        return new File(javaHome, "jmods").isDirectory();
+    }
+
+    @Override
+    public boolean mayContainType(final String internalName) {
+        return _packageModules.containsKey(JrtTypeLoader.getPackageName(internalName));
+    }
+
+    @Override
+    public boolean tryLoadType(final String internalName, final Buffer buffer) {
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Attempting to load type: " + internalName + "...");
+        }
+
+        final ZipFile module = _packageModules.get(JrtTypeLoader.getPackageName(internalName));
+
+        if (module == null) {
+            return false;
+        }
+
+        final ZipEntry entry = module.getEntry(CLASSES_PREFIX + internalName + CLASS_EXTENSION);
+
+        if (entry == null) {
+            return false;
+        }
+
+        try (final InputStream inputStream = module.getInputStream(entry)) {
+            int remainingBytes = (int) entry.getSize();
+
+            buffer.reset(remainingBytes);
+
+            while (remainingBytes > 0) {
+                final int bytesRead = inputStream.read(buffer.array(), buffer.position(), remainingBytes);
+
+                if (bytesRead < 0) {
+                    break;
+                }
+
+                buffer.position(buffer.position() + bytesRead);
+                remainingBytes -= bytesRead;
+            }
+
+            buffer.position(0);
+        }
+        catch (final IOException e) {
+            throw ExceptionUtilities.asRuntimeException(e);
+        }
+
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Type loaded from " + module.getName() + "!" + entry.getName() + ".");
+        }
+
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeAll(_modules);
+    }
+
+    private static List<File> listModuleFiles(final File file) throws IOException {
+        if (!file.isDirectory()) {
+            if (!file.isFile()) {
+                throw new IOException("Module file not found: " + file.getPath());
+            }
+            return Collections.singletonList(file);
+        }
+
+        final File[] children = file.listFiles();
+        final List<File> moduleFiles = new ArrayList<>();
+
+        if (children != null) {
+            //
+            // Sort the files so that the first module to declare a package does not depend on
+            // the order in which the file system lists them.
+            //
+            Arrays.sort(children);
+
+            for (final File child : children) {
+                if (child.isFile() && child.getName().endsWith(JMOD_EXTENSION)) {
+                    moduleFiles.add(child);
+                }
+            }
+        }
+
+        return moduleFiles;
+    }
+
+    private static void indexPackages(final ZipFile module, final Map<String, ZipFile> packageModules) {
+        final Enumeration<? extends ZipEntry> entries = module.entries();
+
+        while (entries.hasMoreElements()) {
+            final String name = entries.nextElement().getName();
+
+            if (!name.startsWith(CLASSES_PREFIX) || !name.endsWith(CLASS_EXTENSION)) {
+                continue;
+            }
+
+            final String internalName = name.substring(CLASSES_PREFIX.length(), name.length() - CLASS_EXTENSION.length());
+            final String packageName = JrtTypeLoader.getPackageName(internalName);
+
+            //
+            // Packages are never split across modules; module-info lives in the unnamed package.
+            //
+            if (!packageName.isEmpty() && !packageModules.containsKey(packageName)) {
+                packageModules.put(packageName, module);
+            }
+        }
+    }
+
+    private static void closeAll(final List<ZipFile> modules) throws IOException {
+        IOException error = null;
+
+        for (final ZipFile module : modules) {
+            try {
+                module.close();
+            }
+            catch (final IOException e) {
+                if (error == null) {
+                    error = e;
+                }
+            }
+        }
+
+        if (error != null) {
+            throw error;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * JrtTypeLoader.java
+ *
+ * Copyright (c) 2013 Mike Strobel
+ *
+ * This source code is subject to terms and conditions of the Apache License, Version 2.0.
+ * A copy of the license can be found in the License.html file at the root of this distribution.
+ * By using this source code in any fashion, you are agreeing to be bound by the terms of the
+ * Apache License, Version 2.0.
+ *
+ * You must not remove this notice, or any other, from this software.
+ */
+
+package com.strobel.assembler.metadata;
+
+import com.strobel.core.ExceptionUtilities;
+import com.strobel.core.StringUtilities;
+import com.strobel.core.VerifyArgument;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.ProviderNotFoundException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An {@link ITypeLoader} which reads the platform classes of a JDK (9 or later) from its run-time
+ * image ({@code lib/modules}) through the {@code jrt:/} file system.
+ * <p>
+ * The image may belong to the JDK running the decompiler or to any other JDK, so types can be
+ * resolved against the platform they were compiled for.  Which modules hold which packages is
+ * read once, up front, so each lookup reads a single file.  A single instance may be shared by
+ * many threads.
+ *
+ * @author Mike Strobel
+ * @see JmodTypeLoader
+ */
+public class JrtTypeLoader implements IIndexedTypeLoader, Closeable {
+    private final static Logger LOG = Logger.getLogger(JrtTypeLoader.class.getSimpleName());
+
+    private final static URI JRT_URI = URI.create("jrt:/");
+
+    private final String _name;
+    private final FileSystem _fileSystem;
+    private final Closeable _owner;
+    private final Map<String, String[]> _packageModules;
+
+    /**
+     * Creates a loader for the run-time image of the JDK running the decompiler.
+     */
+    public JrtTypeLoader() throws IOException {
+        this("jrt:/", getSystemFileSystem(), null);
+    }
+
+    /**
+     * Creates a loader for the run-time image of the JDK installed at {@code javaHome}.
+     */
+    public JrtTypeLoader(final File javaHome) throws IOException {
+        this(javaHome, openFileSystem(VerifyArgument.notNull(javaHome, "javaHome")));
+    }
+
+    private JrtTypeLoader(final File javaHome, final FileSystem fileSystem) throws IOException {
+        this(javaHome.getPath(), fileSystem, fileSystem);
+    }
+
+    private JrtTypeLoader(final String name, final FileSystem fileSystem, final Closeable owner) throws IOException {
+        _name = name;
+        _fileSystem = fileSystem;
+        _owner = owner;
+
+        try {
+            _packageModules = Collections.unmodifiableMap(readPackageIndex(fileSystem));
+        }
+        catch (final IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    public final String getName() {
+        return _name;
+    }
+
+    /**
+     * Returns whether {@code javaHome} contains a run-time image this loader can read.
+     */
+    public static boolean hasRuntimeImage(final File javaHome) {
+        return new File(new File(javaHome, "lib"), "modules").isFile();
+    }
+
+    @Override
+    public boolean mayContainType(final String internalName) {
+        return _packageModules.containsKey(getPackageName(internalName));
+    }
+
+    @Override
+    public boolean tryLoadType(final String internalName, final Buffer buffer) {
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Attempting to load type: " + internalName + "...");
+        }
+
+        final String[] modules = _packageModules.get(getPackageName(internalName));
+
+        if (modules == null) {
+            return false;
+        }
+
+        for (final String module : modules) {
+            final byte[] contents;
+
+            try {
+                contents = Files.readAllBytes(_fileSystem.getPath("/modules", module, internalName + ".class"));
+            }
+            catch (final NoSuchFileException ignored) {
+                continue;
+            }
+            catch (final IOException e) {
+                throw ExceptionUtilities.asRuntimeException(e);
+            }
+
+            buffer.reset(contents.length);
+            System.arraycopy(contents, 0, buffer.array(), 0, contents.length);
+            buffer.position(0);
+
+            if (LOG.isLoggable(Level.FINE)) {
+                LOG.fine("Type loaded from " + _name + "!/modules/" + module + "/" + internalName + ".class.");
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (_owner != null) {
+            _owner.close();
+        }
+    }
+
+    static String getPackageName(final String internalName) {
+        final int packageEnd = internalName.lastIndexOf('/');
+
+        return packageEnd < 0 ? StringUtilities.EMPTY
+                              : internalName.substring(0, packageEnd);
+    }
+
+    private static FileSystem getSystemFileSystem() throws IOException {
+        try {
+            return FileSystems.getFileSystem(JRT_URI);
+        }
+        catch (final ProviderNotFoundException e) {
+            throw new IOException("The running JDK has no run-time image.", e);
+        }
+    }
+
+    private static FileSystem openFileSystem(final File javaHome) throws IOException {
+        if (!hasRuntimeImage(javaHome)) {
+            throw new IOException("No run-time image found in " + javaHome.getPath() + ".");
+        }
+
+        final Map<String, String> environment = Collections.singletonMap("java.home", javaHome.getAbsolutePath());
+
+        try {
+            return FileSystems.newFileSystem(JRT_URI, environment);
+        }
+        catch (final ProviderNotFoundException ignored) {
+        }
+
+        //
+        // Before Java 9, the jrt:/ file system is not built in, but each modular JDK ships its own
+        // provider in lib/jrt-fs.jar.
+        //
+        final File providerJar = new File(new File(javaHome, "lib"), "jrt-fs.jar");
+
+        if (!providerJar.isFile()) {
+            throw new IOException("No jrt:/ file system provider found in " + javaHome.getPath() + ".");
+        }
+
+        final URLClassLoader providerLoader = new URLClassLoader(new URL[] { providerJar.toURI().toURL() });
+
+        try {
+            return FileSystems.newFileSystem(JRT_URI, environment, providerLoader);
+        }
+        catch (final IOException | RuntimeException e) {
+            providerLoader.close();
+            throw e;
+        }
+    }
+
+    private static Map<String, String[]> readPackageIndex(final FileSystem fileSystem) throws IOException {
+        //
+        // The image lists every package under /packages, with one entry per module containing it.
+        //
+        final Map<String, String[]> packageModules = new HashMap<>();
+
+        try (final DirectoryStream<Path> packages = Files.newDirectoryStream(fileSystem.getPath("/packages"))) {
+            for (final Path packagePath : packages) {
+                final List<String> modules = new ArrayList<>(1);
+
+                try (final DirectoryStream<Path> moduleLinks = Files.newDirectoryStream(packagePath)) {
+                    for (final Path moduleLink : moduleLinks) {
+                        modules.add(getFileName(moduleLink));
+                    }
+                }
+
+                if (!modules.isEmpty()) {
+                    packageModules.put(
+                        getFileName(packagePath).replace('.', '/'),
+                        modules.toArray(new String[modules.size()])
+                    );
+                }
+            }
+        }
+
+        return packageModules;
+    }
+
+    private static String getFileName(final Path path) {
+        return StringUtilities.removeRight(path.getFileName().toString(), "/");
+    }
+}
@@ -0,0 +1,372 @@
+/*
+ * MappedJarTypeLoader.java
+ *
+ * Copyright (c) 2013 Mike Strobel
+ *
+ * This source code is subject to terms and conditions of the Apache License, Version 2.0.
+ * A copy of the license can be found in the License.html file at the root of this distribution.
+ * By using this source code in any fashion, you are agreeing to be bound by the terms of the
+ * Apache License, Version 2.0.
+ *
+ * You must not remove this notice, or any other, from this software.
+ */
+
+package com.strobel.assembler.metadata;
+
+import com.strobel.assembler.ir.ConstantPool;
+import com.strobel.core.ExceptionUtilities;
+import com.strobel.core.VerifyArgument;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * An {@link ITypeLoader} which memory maps a jar or zip archive and reads class files directly
+ * from the mapping.
+ * <p>
+ * The central directory is read once, up front, into an immutable index.  Stored entries are
+ * handed out as read-only slices of the mapping, without copying, and deflated entries are
+ * decompressed with inflaters taken from a shared pool.  A single instance may be shared by
+ * many threads.
+ *
+ * @author Mike Strobel
+ */
+public class MappedJarTypeLoader implements IIndexedTypeLoader, Closeable {
+    private final static Logger LOG = Logger.getLogger(MappedJarTypeLoader.class.getSimpleName());
+
+    private final static int END_HEADER_SIGNATURE = 0x06054B50;
+    private final static int END_HEADER_SIZE = 22;
+    private final static int CENTRAL_HEADER_SIGNATURE = 0x02014B50;
+    private final static int CENTRAL_HEADER_SIZE = 46;
+    private final static int LOCAL_HEADER_SIGNATURE = 0x04034B50;
+    private final static int LOCAL_HEADER_SIZE = 30;
+    private final static int MAX_COMMENT_LENGTH = 0xFFFF;
+
+    private final static int METHOD_STORED = 0;
+    private final static int METHOD_DEFLATED = 8;
+
+    private final static int FLAG_ENCRYPTED = 0x1;
+
+    private final String _name;
+    private final ByteBuffer _data;
+    private final Map<String, Entry> _entries;
+    private final Map<String, String> _knownMappings;
+    private final ConcurrentLinkedQueue<Inflater> _inflaters;
+
+    private volatile boolean _closed;
+
+    public MappedJarTypeLoader(final File file) throws IOException {
+        VerifyArgument.notNull(file, "file");
+
+        try (final RandomAccessFile input = new RandomAccessFile(file, "r")) {
+            final FileChannel channel = input.getChannel();
+            final long size = channel.size();
+
+            if (size > Integer.MAX_VALUE) {
+                throw new ZipException("Archive is too large to be mapped: " + file.getPath());
+            }
+
+            //
+            // The mapping remains valid after the channel is closed.
+            //
+            _data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        _data.order(ByteOrder.LITTLE_ENDIAN);
+
+        _name = file.getPath();
+        _entries = Collections.unmodifiableMap(readCentralDirectory(_data, _name));
+        _knownMappings = new ConcurrentHashMap<>();
+        _inflaters = new ConcurrentLinkedQueue<>();
+    }
+
+    public final String getName() {
+        return _name;
+    }
+
+    @Override
+    public boolean mayContainType(final String internalName) {
+        return _entries.containsKey(internalName) || _knownMappings.containsKey(internalName);
+    }
+
+    @Override
+    public boolean tryLoadType(final String internalName, final Buffer buffer) {
+        if (_closed) {
+            throw new IllegalStateException("Type loader has been closed: " + _name);
+        }
+
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Attempting to load type: " + internalName + "...");
+        }
+
+        final Entry entry = _entries.get(internalName);
+
+        if (entry == null) {
+            final String mappedName = _knownMappings.get(internalName);
+
+            return mappedName != null &&
+                   !mappedName.equals(internalName) && tryLoadType(mappedName, buffer);
+        }
+
+        try {
+            readEntry(entry, buffer);
+        }
+        catch (final IOException e) {
+            throw ExceptionUtilities.asRuntimeException(e);
+        }
+
+        final String actualName = getInternalNameFromClassFile(buffer);
+
+        if (actualName != null && !actualName.equals(internalName)) {
+            _knownMappings.put(actualName, internalName);
+        }
+
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Type loaded from " + _name + "!" + internalName + ".class.");
+        }
+
+        return true;
+    }
+
+    @Override
+    public void close() {
+        _closed = true;
+
+        Inflater inflater;
+
+        while ((inflater = _inflaters.poll()) != null) {
+            inflater.end();
+        }
+    }
+
+    private void readEntry(final Entry entry, final Buffer buffer) throws IOException {
+        //
+        // Each read works on its own view of the mapping, so concurrent readers never share
+        // a position or limit.
+        //
+        final ByteBuffer data = _data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        final int headerOffset = entry.localHeaderOffset;
+
+        if (data.getInt(headerOffset) != LOCAL_HEADER_SIGNATURE) {
+            throw new ZipException("Invalid local header for entry '" + entry.name + "' in " + _name + ".");
+        }
+
+        final int dataOffset = headerOffset +
+                               LOCAL_HEADER_SIZE +
+                               (data.getShort(headerOffset + 26) & 0xFFFF) +
+                               (data.getShort(headerOffset + 28) & 0xFFFF);
+
+        if (dataOffset + entry.compressedSize > data.limit()) {
+            throw new ZipException("Truncated entry '" + entry.name + "' in " + _name + ".");
+        }
+
+        if (entry.method == METHOD_STORED) {
+            buffer.wrap(slice(data, dataOffset, entry.size));
+            return;
+        }
+
+        buffer.reset(entry.size);
+
+        //
+        // As with ZipFile, follow the compressed data with a dummy byte; without the zlib
+        // header, some versions of zlib need it to detect the end of the stream.
+        //
+        final byte[] compressed = new byte[entry.compressedSize + 1];
+
+        slice(data, dataOffset, entry.compressedSize).get(compressed, 0, entry.compressedSize);
+
+        Inflater inflater = _inflaters.poll();
+
+        if (inflater == null) {
+            inflater = new Inflater(true);
+        }
+
+        try {
+            inflater.setInput(compressed);
+
+            int position = 0;
+
+            while (position < entry.size) {
+                final int bytesInflated = inflater.inflate(buffer.array(), position, entry.size - position);
+
+                if (bytesInflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+
+                position += bytesInflated;
+            }
+
+            if (position != entry.size) {
+                throw new ZipException("Invalid compressed data for entry '" + entry.name + "' in " + _name + ".");
+            }
+        }
+        catch (final DataFormatException e) {
+            final ZipException zipException = new ZipException("Invalid compressed data for entry '" + entry.name + "' in " + _name + ".");
+            zipException.initCause(e);
+            throw zipException;
+        }
+        finally {
+            inflater.reset();
+
+            if (_closed) {
+                inflater.end();
+            }
+            else {
+                _inflaters.offer(inflater);
+            }
+        }
+    }
+
+    private static Map<String, Entry> readCentralDirectory(final ByteBuffer data, final String name) throws IOException {
+        final int endOffset = findEndHeader(data);
+
+        if (endOffset < 0) {
+            throw new ZipException("Could not find the central directory in " + name + ".");
+        }
+
+        final int entryCount = data.getShort(endOffset + 10) & 0xFFFF;
+        final long directoryOffset = data.getInt(endOffset + 16) & 0xFFFFFFFFL;
+
+        if (entryCount == 0xFFFF || directoryOffset == 0xFFFFFFFFL) {
+            throw new ZipException("Zip64 archives are not supported: " + name + ".");
+        }
+
+        final Map<String, Entry> entries = new HashMap<>(entryCount * 2);
+
+        int offset = (int) directoryOffset;
+
+        for (int i = 0; i < entryCount; i++) {
+            if (offset + CENTRAL_HEADER_SIZE > endOffset || data.getInt(offset) != CENTRAL_HEADER_SIGNATURE) {
+                throw new ZipException("Invalid central directory in " + name + ".");
+            }
+
+            final int flags = data.getShort(offset + 8) & 0xFFFF;
+            final int method = data.getShort(offset + 10) & 0xFFFF;
+            final long compressedSize = data.getInt(offset + 20) & 0xFFFFFFFFL;
+            final long size = data.getInt(offset + 24) & 0xFFFFFFFFL;
+            final int nameLength = data.getShort(offset + 28) & 0xFFFF;
+            final int extraLength = data.getShort(offset + 30) & 0xFFFF;
+            final int commentLength = data.getShort(offset + 32) & 0xFFFF;
+            final long localHeaderOffset = data.getInt(offset + 42) & 0xFFFFFFFFL;
+
+            final String entryName = readName(data, offset + CENTRAL_HEADER_SIZE, nameLength);
+
+            offset += CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+
+            if (!entryName.endsWith(".class") ||
+                (flags & FLAG_ENCRYPTED) != 0 ||
+                (method != METHOD_STORED && method != METHOD_DEFLATED) ||
+                (method == METHOD_STORED && compressedSize != size) ||
+                compressedSize > Integer.MAX_VALUE ||
+                size > Integer.MAX_VALUE ||
+                localHeaderOffset >= endOffset) {
+
+                continue;
+            }
+
+            final String internalName = entryName.substring(0, entryName.length() - ".class".length());
+
+            //
+            // Like JarFile, the first entry wins if an archive contains duplicate names.
+            //
+            if (!entries.containsKey(internalName)) {
+                entries.put(
+                    internalName,
+                    new Entry(entryName, method, (int) compressedSize, (int) size, (int) localHeaderOffset)
+                );
+            }
+        }
+
+        return entries;
+    }
+
+    private static int findEndHeader(final ByteBuffer data) {
+        final int limit = data.limit();
+        final int minimumOffset = Math.max(0, limit - END_HEADER_SIZE - MAX_COMMENT_LENGTH);
+
+        for (int offset = limit - END_HEADER_SIZE; offset >= minimumOffset; offset--) {
+            if (data.getInt(offset) == END_HEADER_SIGNATURE &&
+                offset + END_HEADER_SIZE + (data.getShort(offset + 20) & 0xFFFF) == limit) {
+
+                return offset;
+            }
+        }
+
+        return -1;
+    }
+
+    private static String readName(final ByteBuffer data, final int offset, final int length) {
+        final byte[] bytes = new byte[length];
+
+        slice(data, offset, length).get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer slice(final ByteBuffer data, final int offset, final int length) {
+        final ByteBuffer view = data.duplicate();
+
+        //
+        // Call through java.nio.Buffer; the ByteBuffer overloads are covariant as of Java 9,
+        // and binding to them would break on older runtimes.
+        //
+        ((java.nio.Buffer) view).position(offset);
+        ((java.nio.Buffer) view).limit(offset + length);
+
+        return view.slice();
+    }
+
+    private static String getInternalNameFromClassFile(final Buffer b) {
+        final long magic = b.readInt() & 0xFFFFFFFFL;
+
+        if (magic != ClassFileReader.MAGIC) {
+            b.position(0);
+            return null;
+        }
+
+        b.readUnsignedShort(); // minor version
+        b.readUnsignedShort(); // major version
+
+        final ConstantPool constantPool = ConstantPool.read(b);
+
+        b.readUnsignedShort(); // access flags
+
+        final ConstantPool.TypeInfoEntry thisClass = constantPool.getEntry(b.readUnsignedShort());
+
+        b.position(0);
+
+        return thisClass.getName();
+    }
+
+    private final static class Entry {
+        final String name;
+        final int method;
+        final int compressedSize;
+        final int size;
+        final int localHeaderOffset;
+
+        Entry(final String name, final int method, final int compressedSize, final int size, final int localHeaderOffset) {
+            this.name = name;
+            this.method = method;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+    }
+}
@@ -18,6 +18,8 @@ package com.strobel.assembler.metadata;
 
 import com.strobel.annotations.NotNull;
 import com.strobel.annotations.Nullable;
+import com.strobel.assembler.metadata.TypeRelationCache.Query;
+import com.strobel.assembler.metadata.TypeRelationCache.Relation;
 import com.strobel.collections.ListBuffer;
 import com.strobel.core.ArrayUtilities;
 import com.strobel.core.Pair;
@@ -517,7 +519,23 @@ public final class MetadataHelper {
     }
 
     private static boolean isSubTypeUnchecked(final TypeReference t, final TypeReference s) {
-        return isSubtypeUncheckedInternal(t, s);
+        final TypeRelationCache cache = getRelationCache(t, s);
+
+        if (cache == null) {
+            return isSubtypeUncheckedInternal(t, s);
+        }
+
+        final Query query = TypeRelationCache.query(Relation.SUBTYPE_UNCHECKED, t, s);
+        final Object cachedResult = cache.get(query);
+
+        if (cachedResult != TypeRelationCache.MISSING) {
+            return (Boolean) cachedResult;
+        }
+
+        final boolean result = isSubtypeUncheckedInternal(t, s);
+
+        cache.put(query, result);
+        return result;
     }
 
     private static boolean isSubtypeUncheckedInternal(final TypeReference t, final TypeReference s) {
@@ -724,14 +742,50 @@ public final class MetadataHelper {
         VerifyArgument.notNull(subType, "t");
         VerifyArgument.notNull(type, "s");
 
-        return AS_SUPER_VISITOR.visit(subType, type);
+        final TypeRelationCache cache = getRelationCache(subType, type);
+
+        if (cache == null) {
+            return AS_SUPER_VISITOR.visit(subType, type);
+        }
+
+        final Query query = TypeRelationCache.query(Relation.AS_SUPER, subType, type);
+        final Object cachedResult = cache.get(query);
+
+        if (cachedResult != TypeRelationCache.MISSING) {
+            return (TypeReference) cachedResult;
+        }
+
+        final TypeReference result = AS_SUPER_VISITOR.visit(subType, type);
+
+        cache.put(query, result);
+        return result;
     }
 
-    @SuppressWarnings("ConstantConditions")
     public static Map<TypeReference, TypeReference> getGenericSubTypeMappings(final TypeReference type, final TypeReference baseType) {
         VerifyArgument.notNull(type, "type");
         VerifyArgument.notNull(baseType, "baseType");
 
+        final TypeRelationCache cache = getRelationCache(type, baseType);
+
+        if (cache == null) {
+            return getGenericSubTypeMappingsCore(type, baseType);
+        }
+
+        final Query query = TypeRelationCache.query(Relation.GENERIC_SUBTYPE_MAPPINGS, type, baseType);
+        final Object cachedResult = cache.get(query);
+
+        if (cachedResult != TypeRelationCache.MISSING) {
+            return copyMappings(cachedResult);
+        }
+
+        final Map<TypeReference, TypeReference> result = getGenericSubTypeMappingsCore(type, baseType);
+
+        cache.put(query, copyMappings(result));
+        return result;
+    }
+
+    @SuppressWarnings("ConstantConditions")
+    private static Map<TypeReference, TypeReference> getGenericSubTypeMappingsCore(final TypeReference type, final TypeReference baseType) {
         if (type.isArray() && baseType.isArray()) {
             TypeReference elementType = type.getElementType();
             TypeReference baseElementType = baseType.getElementType();
@@ -1277,6 +1331,26 @@ public final class MetadataHelper {
             return false;
         }
 
+        final TypeRelationCache cache = getRelationCache(type, baseType);
+
+        if (cache == null) {
+            return isSubTypeCore(type, baseType, capture);
+        }
+
+        final Query query = TypeRelationCache.query(capture ? Relation.SUBTYPE : Relation.SUBTYPE_NO_CAPTURE, type, baseType);
+        final Object cachedResult = cache.get(query);
+
+        if (cachedResult != TypeRelationCache.MISSING) {
+            return (Boolean) cachedResult;
+        }
+
+        final boolean result = isSubTypeCore(type, baseType, capture);
+
+        cache.put(query, result);
+        return result;
+    }
+
+    private static boolean isSubTypeCore(final TypeReference type, final TypeReference baseType, final boolean capture) {
         if (baseType instanceof CompoundTypeReference) {
             final CompoundTypeReference c = (CompoundTypeReference) baseType;
 
@@ -1308,11 +1382,90 @@ public final class MetadataHelper {
     }
 
     public static Map<TypeReference, TypeReference> adapt(final TypeReference source, final TypeReference target) {
+        final TypeRelationCache cache = source != null && target != null ? getRelationCache(source, target) : null;
+
+        if (cache == null) {
+            return adaptCore(source, target);
+        }
+
+        final Query query = TypeRelationCache.query(Relation.ADAPT, source, target);
+        final Object cachedResult = cache.get(query);
+
+        if (cachedResult != TypeRelationCache.MISSING) {
+            return copyMappings(cachedResult);
+        }
+
+        final Map<TypeReference, TypeReference> result = adaptCore(source, target);
+
+        cache.put(query, copyMappings(result));
+        return result;
+    }
+
+    private static Map<TypeReference, TypeReference> adaptCore(final TypeReference source, final TypeReference target) {
         final Adapter adapter = new Adapter();
         adapter.visit(source, target);
         return adapter.mapping;
     }
 
+    /**
+     * Returns the cache for relations between {@code t} and {@code s}, or {@code null} if the
+     * result of a relation between them should not be cached.
+     */
+    private static TypeRelationCache getRelationCache(final TypeReference t, final TypeReference s) {
+        //
+        // While type arguments are being compared or adapted, cycles are cut short by assuming
+        // the pairs already being visited are related, so results computed along the way are only
+        // valid within the outermost query.  Only cache (and reuse) the results of outermost queries.
+        //
+        if (!CONTAINS_TYPE_CACHE.get().isEmpty() || !ADAPT_CACHE.get().isEmpty()) {
+            return null;
+        }
+
+        //
+        // A cache keeps the types of its queries alive, so a metadata system's cache is only used
+        // for its own types, and for those of the shared metadata system (e.g., the builtin types),
+        // which stay alive anyway.  Every type a query refers to counts, including type arguments
+        // and bounds.  Queries mixing the types of two other metadata systems are not cached, and
+        // neither are those involving a type of unknown origin, unless the other side belongs to
+        // the shared metadata system.
+        //
+        final MetadataSystem sharedSystem = MetadataSystem.instance();
+        final TypeOrigin tOrigin = new TypeOrigin(sharedSystem);
+        final TypeOrigin sOrigin = new TypeOrigin(sharedSystem);
+
+        tOrigin.visit(t);
+        sOrigin.visit(s);
+
+        if (tOrigin.isMixed || sOrigin.isMixed) {
+            return null;
+        }
+
+        if (tOrigin.isUnknown && !sOrigin.isShared() ||
+            sOrigin.isUnknown && !tOrigin.isShared()) {
+
+            return null;
+        }
+
+        final MetadataSystem system;
+
+        if (tOrigin.system == null) {
+            system = sOrigin.system != null ? sOrigin.system : sharedSystem;
+        }
+        else if (sOrigin.system == null || sOrigin.system == tOrigin.system) {
+            system = tOrigin.system;
+        }
+        else {
+            return null;
+        }
+
+        return system.getTypeRelationCache();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<TypeReference, TypeReference> copyMappings(final Object mappings) {
+        return new HashMap<>((Map<TypeReference, TypeReference>) mappings);
+    }
+
     private static Map<TypeReference, TypeReference> adaptSelf(final TypeReference t) {
         final TypeDefinition r = t.resolve();
 
@@ -2218,6 +2371,107 @@ public final class MetadataHelper {
         return newParameters;
     }
 
+    /**
+     * Finds the metadata systems which the types referred to by a type belong to.
+     */
+    private final static class TypeOrigin {
+        private final MetadataSystem _sharedSystem;
+
+        /**
+         * The metadata system other than the shared one which the types belong to, if any.
+         */
+        MetadataSystem system;
+
+        /**
+         * Whether the types belong to more than one metadata system other than the shared one.
+         */
+        boolean isMixed;
+
+        /**
+         * Whether some of the types belong to no known metadata system.
+         */
+        boolean isUnknown;
+
+        TypeOrigin(final MetadataSystem sharedSystem) {
+            _sharedSystem = sharedSystem;
+        }
+
+        boolean isShared() {
+            return system == null && !isMixed && !isUnknown;
+        }
+
+        void visit(final TypeReference type) {
+            if (type == null || isMixed) {
+                return;
+            }
+
+            if (type instanceof GenericParameter) {
+                final IGenericParameterProvider owner = ((GenericParameter) type).getOwner();
+
+                if (owner instanceof TypeReference) {
+                    visit((TypeReference) owner);
+                }
+                else if (owner instanceof MethodReference) {
+                    visit(((MethodReference) owner).getDeclaringType());
+                }
+                else {
+                    visitResolver(((GenericParameter) type).getResolver());
+                }
+            }
+            else if (type instanceof TypeDefinition) {
+                if (!type.isPrimitive()) {
+                    visitResolver(((TypeDefinition) type).getResolver());
+                }
+            }
+            else if (type instanceof IUnresolvedType) {
+                visitResolver(((IUnresolvedType) type).getResolver());
+            }
+            else if (type instanceof IGenericInstance) {
+                visit((TypeReference) ((IGenericInstance) type).getGenericDefinition());
+
+                for (final TypeReference typeArgument : ((IGenericInstance) type).getTypeArguments()) {
+                    visit(typeArgument);
+                }
+            }
+            else if (type.isArray()) {
+                visit(type.getElementType());
+            }
+            else if (type.isWildcardType()) {
+                visit(type.getExtendsBound());
+                visit(type.getSuperBound());
+            }
+            else if (type instanceof RawType) {
+                visit(type.getUnderlyingType());
+            }
+            else if (type instanceof CompoundTypeReference) {
+                final CompoundTypeReference compoundType = (CompoundTypeReference) type;
+
+                visit(compoundType.getBaseType());
+
+                for (final TypeReference interfaceType : compoundType.getInterfaces()) {
+                    visit(interfaceType);
+                }
+            }
+            else {
+                isUnknown = true;
+            }
+        }
+
+        private void visitResolver(final IMetadataResolver resolver) {
+            if (!(resolver instanceof MetadataSystem)) {
+                isUnknown = true;
+            }
+            else if (resolver != _sharedSystem) {
+                if (system == null) {
+                    system = (MetadataSystem) resolver;
+                }
+                else if (system != resolver) {
+                    isMixed = true;
+                }
+            }
+        }
+    }
+
     private final static class Adapter extends DefaultTypeVisitor<TypeReference, Void> {
         final ListBuffer<TypeReference> from = ListBuffer.lb();
         final ListBuffer<TypeReference> to = ListBuffer.lb();
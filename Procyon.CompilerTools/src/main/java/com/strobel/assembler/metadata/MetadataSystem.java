@@ -20,18 +20,52 @@ import com.strobel.compilerservices.RuntimeHelpers;
 import com.strobel.core.Fences;
 import com.strobel.core.VerifyArgument;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
+ * A {@link MetadataResolver} which loads type definitions on demand from an {@link ITypeLoader}
+ * and caches them by descriptor.
+ * <p>
+ * A single instance may be shared by many threads.  Cached types are returned without locking;
+ * a type which has not been loaded yet is read under a loader lock, so each descriptor is read
+ * at most once, and the new definition is fully populated before other threads can see it.
+ * <p>
+ * By default, every type which is loaded stays cached for the lifetime of the metadata system.
+ * An {@link ITypeCachePolicy} may be supplied to bound the cache, in which case the owner calls
+ * {@link #trimCache()} whenever no types are in use, e.g., between two decompiled classes; the
+ * types which the policy does not pin are then released together, and read again the next time
+ * they are requested.  Trimming only drops the metadata system's own references: a released
+ * definition stays alive for as long as anything else refers to it.
+ * <p>
+ * The class files of recently loaded types may also be kept, up to a total size, so that method
+ * bodies which were not read up front (or which have been garbage collected) can be read again
+ * without reloading the class from the type loader; see {@link #setClassFileCacheSize(int)}.
+ * <p>
+ * The results of relational queries between loaded types, e.g., whether one is a subtype of
+ * another, are cached as well; see {@link #getTypeRelationCache()}.
+ * <p>
+ * Annotations are not parsed when a type is loaded, but the first time the annotations (or source
+ * attributes) of the type or one of its members are requested; most loaded types are only needed
+ * for their signatures.  See {@link ClassFileReader#OPTION_DEFER_ANNOTATIONS}.
+ *
  * @author Mike Strobel
  */
 public class MetadataSystem extends MetadataResolver {
+    private final static int DEFAULT_TYPE_RELATION_CACHE_SIZE = 16384;
+
     private static MetadataSystem _instance;
 
     private final ConcurrentHashMap<String, TypeDefinition> _types;
     private final ITypeLoader _typeLoader;
+    private final ITypeCachePolicy _cachePolicy;
+    private final Object _loadLock;
+    private final List<String> _unpinnedTypes;
 
-    private boolean _isEagerMethodLoadingEnabled;
+    private volatile boolean _isEagerMethodLoadingEnabled;
+    private volatile ClassBytesCache _classFileCache;
+    private volatile TypeRelationCache _typeRelationCache = new TypeRelationCache(DEFAULT_TYPE_RELATION_CACHE_SIZE);
 
     public static MetadataSystem instance() {
         if (_instance == null) {
@@ -58,8 +92,15 @@ public class MetadataSystem extends MetadataResolver {
 //    }
 
     public MetadataSystem(final ITypeLoader typeLoader) {
+        this(typeLoader, null);
+    }
+
+    public MetadataSystem(final ITypeLoader typeLoader, final ITypeCachePolicy cachePolicy) {
         _typeLoader = VerifyArgument.notNull(typeLoader, "typeLoader");
+        _cachePolicy = cachePolicy;
         _types = new ConcurrentHashMap<>();
+        _loadLock = new Object();
+        _unpinnedTypes = new ArrayList<>();
     }
 
     public final boolean isEagerMethodLoadingEnabled() {
@@ -70,6 +111,100 @@ public class MetadataSystem extends MetadataResolver {
         _isEagerMethodLoadingEnabled = value;
     }
 
+    public final ITypeCachePolicy getCachePolicy() {
+        return _cachePolicy;
+    }
+
+    public final int getClassFileCacheSize() {
+        final ClassBytesCache classFileCache = _classFileCache;
+        return classFileCache != null ? classFileCache.getMaximumSize() : 0;
+    }
+
+    /**
+     * Sets the total size, in bytes, of the class files to keep for reloading method bodies.
+     * A size of zero disables the cache, which is the default.  Only types loaded after the
+     * size has been set are affected.
+     */
+    public final void setClassFileCacheSize(final int size) {
+        VerifyArgument.isNonNegative(size, "size");
+
+        synchronized (_loadLock) {
+            _classFileCache = size > 0 ? new ClassBytesCache(_typeLoader, size) : null;
+        }
+    }
+
+    /**
+     * Returns the cache of relational queries between the types of this metadata system, or
+     * {@code null} if the cache is disabled.
+     */
+    public final TypeRelationCache getTypeRelationCache() {
+        return _typeRelationCache;
+    }
+
+    public final int getTypeRelationCacheSize() {
+        final TypeRelationCache typeRelationCache = _typeRelationCache;
+        return typeRelationCache != null ? typeRelationCache.getMaximumSize() : 0;
+    }
+
+    /**
+     * Sets the number of relational query results to keep.  A size of zero disables the cache;
+     * the default is 16,384.  Setting the size discards any results cached so far.
+     */
+    public final void setTypeRelationCacheSize(final int size) {
+        VerifyArgument.isNonNegative(size, "size");
+        _typeRelationCache = size > 0 ? new TypeRelationCache(size) : null;
+    }
+
+    /**
+     * Returns whether the cache policy wants the cache to be trimmed.  Always {@code false} if this
+     * metadata system has no cache policy.
+     */
+    public final boolean isTrimNeeded() {
+        if (_cachePolicy == null) {
+            return false;
+        }
+
+        synchronized (_loadLock) {
+            return _cachePolicy.isTrimNeeded();
+        }
+    }
+
+    /**
+     * Releases every type the cache policy does not pin, if the policy says the cache has outgrown
+     * its limit, along with any cached results which refer to those types.  Returns whether the
+     * cache was trimmed.
+     * <p>
+     * This must only be called while no other thread is using types from this metadata system.
+     * Types obtained before a trim must not be mixed with types obtained after it: a released type
+     * is read into a new definition when it is next requested.
+     */
+    public final boolean trimCache() {
+        if (_cachePolicy == null) {
+            return false;
+        }
+
+        synchronized (_loadLock) {
+            if (!_cachePolicy.isTrimNeeded()) {
+                return false;
+            }
+
+            for (final String descriptor : _unpinnedTypes) {
+                _types.remove(descriptor);
+            }
+
+            _unpinnedTypes.clear();
+            _cachePolicy.cacheTrimmed();
+
+            final TypeRelationCache typeRelationCache = _typeRelationCache;
+
+            if (typeRelationCache != null) {
+                typeRelationCache.clear();
+            }
+
+            return true;
+        }
+    }
+
     public void addTypeDefinition(final TypeDefinition type) {
         VerifyArgument.notNull(type, "type");
         _types.putIfAbsent(type.getInternalName(), type);
@@ -114,6 +249,23 @@ public class MetadataSystem extends MetadataResolver {
             }
         }
 
+        final TypeDefinition cachedDefinition = _types.get(descriptor);
+
+        if (cachedDefinition != null) {
+            return cachedDefinition;
+        }
+
+        //
+        // Reading a class may recursively resolve other types (and mutate types which have already
+        // been published, e.g., to register nested types), so all reads share a single reentrant
+        // lock.  Per-descriptor locks would deadlock when two threads load mutually dependent types.
+        //
+        synchronized (_loadLock) {
+            return loadType(descriptor);
+        }
+    }
+
+    private TypeDefinition loadType(final String descriptor) {
         TypeDefinition cachedDefinition = _types.get(descriptor);
 
         if (cachedDefinition != null) {
@@ -126,20 +278,36 @@ public class MetadataSystem extends MetadataResolver {
             return null;
         }
 
+        final int options = ClassFileReader.OPTIONS_DEFAULT | ClassFileReader.OPTION_DEFER_ANNOTATIONS;
+
         final TypeDefinition typeDefinition = ClassFileReader.readClass(
-            _isEagerMethodLoadingEnabled ? ClassFileReader.OPTIONS_DEFAULT | ClassFileReader.OPTION_PROCESS_CODE
-                                         : ClassFileReader.OPTIONS_DEFAULT,
+            _isEagerMethodLoadingEnabled ? options | ClassFileReader.OPTION_PROCESS_CODE
+                                         : options,
             this,
             buffer
         );
 
+        final ClassBytesCache classFileCache = _classFileCache;
+
+        if (classFileCache != null) {
+            classFileCache.add(typeDefinition.getInternalName(), buffer);
+            typeDefinition.setTypeLoader(classFileCache);
+        }
+        else {
+            typeDefinition.setTypeLoader(_typeLoader);
+        }
+
         cachedDefinition = _types.putIfAbsent(descriptor, typeDefinition);
-        typeDefinition.setTypeLoader(_typeLoader);
 
         if (cachedDefinition != null) {
             return cachedDefinition;
         }
 
+        if (_cachePolicy != null && !_cachePolicy.isPinned(descriptor)) {
+            _unpinnedTypes.add(descriptor);
+            _cachePolicy.typeAdded(descriptor, buffer.size());
+        }
+
         return typeDefinition;
     }
 
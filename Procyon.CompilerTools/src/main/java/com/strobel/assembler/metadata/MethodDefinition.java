@@ -46,7 +46,7 @@ public class MethodDefinition extends MethodReference implements IMemberDefiniti
     private final List<CustomAnnotation> _customAnnotationsView;
     private final List<SourceAttribute> _sourceAttributesView;
 
-    private SoftReference<MethodBody> _body;
+    private volatile SoftReference<MethodBody> _body;
     private String _name;
     private String _fullName;
     private String _erasedSignature;
@@ -54,6 +54,7 @@ public class MethodDefinition extends MethodReference implements IMemberDefiniti
     private TypeReference _returnType;
     private TypeDefinition _declaringType;
     private long _flags;
+    private volatile ClassFileReader.DeferredAnnotations _deferredAnnotations;
 
     protected MethodDefinition() {
         _genericParameters = new GenericParameterCollection(this);
@@ -79,7 +80,7 @@ public class MethodDefinition extends MethodReference implements IMemberDefiniti
         final MethodBody body;
         final SoftReference<MethodBody> cachedBody = _body;
 
-        if (cachedBody == null || (body = _body.get()) == null) {
+        if (cachedBody == null || (body = cachedBody.get()) == null) {
             return tryLoadBody();
         }
 
@@ -128,13 +129,28 @@ public class MethodDefinition extends MethodReference implements IMemberDefiniti
 
     @Override
     public final List<CustomAnnotation> getAnnotations() {
+        loadDeferredAnnotations();
         return _customAnnotationsView;
     }
 
     public final List<SourceAttribute> getSourceAttributes() {
+        loadDeferredAnnotations();
         return _sourceAttributesView;
     }
 
+    final void setDeferredAnnotations(final ClassFileReader.DeferredAnnotations deferredAnnotations) {
+        _deferredAnnotations = deferredAnnotations;
+    }
+
+    final void loadDeferredAnnotations() {
+        final ClassFileReader.DeferredAnnotations deferredAnnotations = _deferredAnnotations;
+
+        if (deferredAnnotations != null) {
+            deferredAnnotations.load();
+            _deferredAnnotations = null;
+        }
+    }
+
     @Override
     public final String getName() {
         return _name;
@@ -655,7 +671,17 @@ public class MethodDefinition extends MethodReference implements IMemberDefiniti
 
     // <editor-fold defaultstate="collapsed" desc="Deferred Method Body Loading">
 
-    private MethodBody tryLoadBody() {
+    private synchronized MethodBody tryLoadBody() {
+        final SoftReference<MethodBody> cachedBody = _body;
+        final MethodBody existingBody;
+
+        if (cachedBody != null && (existingBody = cachedBody.get()) != null) {
+            //
+            // Another thread loaded the body while we were waiting for the lock.
+            //
+            return existingBody;
+        }
+
         if (Flags.testAny(_flags, Flags.LOAD_BODY_FAILED)) {
             return null;
         }
@@ -666,8 +692,7 @@ public class MethodDefinition extends MethodReference implements IMemberDefiniti
             return null;
         }
 
-        final int codeAttributeIndex = _sourceAttributes.indexOf(codeAttribute);
-
+        CodeAttribute loadedCode = codeAttribute;
         Buffer code = codeAttribute.getCode();
         ConstantPool constantPool = _declaringType.getConstantPool();
 
@@ -689,7 +714,7 @@ public class MethodDefinition extends MethodReference implements IMemberDefiniti
             final List<ExceptionTableEntry> exceptionTableEntries = codeAttribute.getExceptionTableEntries();
             final List<SourceAttribute> codeAttributes = codeAttribute.getAttributes();
 
-            final CodeAttribute newCode = new CodeAttribute(
+            loadedCode = new CodeAttribute(
                 codeAttribute.getLength(),
                 codeAttribute.getMaxStack(),
                 codeAttribute.getMaxLocals(),
@@ -719,19 +744,19 @@ public class MethodDefinition extends MethodReference implements IMemberDefiniti
 
                 constantPool = ConstantPool.read(code);
             }
-
-            _sourceAttributes.set(codeAttributeIndex, newCode);
         }
 
         final MetadataParser parser = new MetadataParser(_declaringType);
         final IMetadataScope scope = new ClassFileReader.Scope(parser, _declaringType, constantPool);
 
-        final MethodBody body = new MethodReader(this, scope).readBody();
-
-        _body = new SoftReference<>(body);
-        _sourceAttributes.set(codeAttributeIndex, codeAttribute);
+        //
+        // Read from the reloaded code attribute directly rather than swapping it into our source
+        // attributes, which may be observed concurrently by other threads.
+        //
+        final MethodBody body = new MethodReader(this, loadedCode, scope).readBody();
 
         body.tryFreeze();
+        _body = new SoftReference<>(body);
 
         return body;
     }
@@ -45,11 +45,19 @@ public class MethodReader {
     private final int _modifiers;
 
     public MethodReader(final MethodDefinition methodDefinition, final IMetadataScope scope) {
+        this(
+            VerifyArgument.notNull(methodDefinition, "methodDefinition"),
+            SourceAttribute.<CodeAttribute>find(AttributeNames.Code, methodDefinition.getSourceAttributesInternal()),
+            scope
+        );
+    }
+
+    MethodReader(final MethodDefinition methodDefinition, final CodeAttribute code, final IMetadataScope scope) {
         _methodDefinition = VerifyArgument.notNull(methodDefinition, "methodDefinition");
         _scope = VerifyArgument.notNull(scope, "scope");
         _declaringType = methodDefinition.getDeclaringType();
         _modifiers = methodDefinition.getModifiers();
-        _code = SourceAttribute.find(AttributeNames.Code, methodDefinition.getSourceAttributes());
+        _code = VerifyArgument.notNull(code, "code");
         _methodBody = new MethodBody(methodDefinition);
         _methodBody.setCodeSize(_code.getCode().size());
         _methodBody.setMaxStackSize(_code.getMaxStack());
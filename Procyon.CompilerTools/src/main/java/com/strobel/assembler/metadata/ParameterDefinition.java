@@ -97,6 +97,12 @@ public final class ParameterDefinition extends ParameterReference implements IAn
 
     @Override
     public List<CustomAnnotation> getAnnotations() {
+        if (_method instanceof MethodDefinition) {
+            //
+            // Parameter annotations are read along with the annotations of their method.
+            //
+            ((MethodDefinition) _method).loadDeferredAnnotations();
+        }
         return _customAnnotationsView;
     }
 
@@ -54,14 +54,19 @@ public class TypeDefinition extends TypeReference implements IMemberDefinition {
     private long _flags;
     private int _compilerVersion;
     private List<Enum> _enumConstants;
-    private TypeReference _rawType;
+    private volatile TypeReference _rawType;
     private MethodReference _declaringMethod;
     private ConstantPool _constantPool;
     private ITypeLoader _typeLoader;
+    private volatile ClassFileReader.DeferredAnnotations _deferredAnnotations;
 
     public TypeDefinition() {
         _genericParameters = new GenericParameterCollection(this);
-        _declaredTypes = new Collection<>();
+        //
+        // Loading a nested type adds it to its (already published) outer type, which other
+        // threads may be reading at the same time.
+        //
+        _declaredTypes = new Collection<>(true);
         _declaredFields = new Collection<>();
         _declaredMethods = new Collection<>();
         _explicitInterfaces = new Collection<>();
@@ -146,6 +151,7 @@ public class TypeDefinition extends TypeReference implements IMemberDefinition {
         _packageName = packageName;
         _fullName = null;
         _internalName = null;
+        invalidateHashCode();
     }
 
     public String getFullName() {
@@ -220,13 +226,28 @@ public class TypeDefinition extends TypeReference implements IMemberDefinition {
 
     @Override
     public final List<CustomAnnotation> getAnnotations() {
+        loadDeferredAnnotations();
         return _customAnnotationsView;
     }
 
     public final List<SourceAttribute> getSourceAttributes() {
+        loadDeferredAnnotations();
         return _sourceAttributesView;
     }
 
+    final void setDeferredAnnotations(final ClassFileReader.DeferredAnnotations deferredAnnotations) {
+        _deferredAnnotations = deferredAnnotations;
+    }
+
+    final void loadDeferredAnnotations() {
+        final ClassFileReader.DeferredAnnotations deferredAnnotations = _deferredAnnotations;
+
+        if (deferredAnnotations != null) {
+            deferredAnnotations.load();
+            _deferredAnnotations = null;
+        }
+    }
+
     @Override
     public final List<GenericParameter> getGenericParameters() {
         return _genericParametersView;
@@ -21,14 +21,22 @@ import com.strobel.core.StringUtilities;
 import com.strobel.core.VerifyArgument;
 import com.strobel.util.ContractUtils;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class TypeReference extends MemberReference implements IGenericParameterProvider, IGenericContext {
+    private final static ReferenceQueue<ParameterizedType> COLLECTED_GENERIC_INSTANCES = new ReferenceQueue<>();
+
     private String _name;
     private TypeReference _declaringType;
-    private ArrayType _arrayType;
+    private int _hashCode;
+    private volatile ArrayType _arrayType;
+    private volatile ConcurrentHashMap<TypeArgumentsKey, GenericInstanceReference> _genericInstances;
 
     public TypeReference() {
     }
@@ -77,10 +85,19 @@ public abstract class TypeReference extends MemberReference implements IGenericP
 
     protected void setName(final String name) {
         _name = name;
+        invalidateHashCode();
     }
 
     protected final void setDeclaringType(final TypeReference declaringType) {
         _declaringType = declaringType;
+        invalidateHashCode();
+    }
+
+    /**
+     * Must be called when anything the internal name is computed from changes.
+     */
+    final void invalidateHashCode() {
+        _hashCode = 0;
     }
 
     public abstract String getSimpleName();
@@ -109,7 +126,19 @@ public abstract class TypeReference extends MemberReference implements IGenericP
 
     @Override
     public int hashCode() {
-        return getInternalName().hashCode();
+        //
+        // Types are hashed by internal name, which some types build on every call.  Like the hash
+        // of a string, the result is cached in a plain field: a racing thread at worst computes
+        // the same value again.
+        //
+        int hashCode = _hashCode;
+
+        if (hashCode == 0) {
+            hashCode = getInternalName().hashCode();
+            _hashCode = hashCode;
+        }
+
+        return hashCode;
     }
 
     @Override
@@ -152,22 +181,72 @@ public abstract class TypeReference extends MemberReference implements IGenericP
         }
 
         if (isGenericDefinition()) {
-            return new ParameterizedType(
-                this,
-                ArrayUtilities.asUnmodifiableList(adjustedTypeArguments)
-            );
+            return makeGenericInstance(adjustedTypeArguments);
         }
 
         if (this instanceof IGenericInstance) {
-            return new ParameterizedType(
-                (TypeReference) ((IGenericInstance) this).getGenericDefinition(),
-                ArrayUtilities.asUnmodifiableList(adjustedTypeArguments)
-            );
+            return ((TypeReference) ((IGenericInstance) this).getGenericDefinition()).makeGenericInstance(adjustedTypeArguments);
         }
 
         throw Error.notGenericType(this);
     }
 
+    private ParameterizedType makeGenericInstance(final TypeReference[] typeArguments) {
+        //
+        // Parameterized types are immutable, so the same instance is handed out for the same type
+        // arguments.  Type arguments are usually shared instances themselves, which lets equality
+        // checks on the result succeed by reference, and they are matched by reference here.  Both
+        // the instances and the type arguments in their keys are only weakly held: a type which
+        // outlives its metadata system, such as one of the builtin types, must not keep the types
+        // used as its arguments alive.
+        //
+        removeCollectedGenericInstances();
+
+        ConcurrentHashMap<TypeArgumentsKey, GenericInstanceReference> genericInstances = _genericInstances;
+
+        if (genericInstances == null) {
+            synchronized (this) {
+                if (_genericInstances == null) {
+                    _genericInstances = new ConcurrentHashMap<>();
+                }
+                genericInstances = _genericInstances;
+            }
+        }
+
+        final TypeArgumentsKey key = new TypeArgumentsKey(typeArguments);
+
+        while (true) {
+            final GenericInstanceReference existingReference = genericInstances.get(key);
+            final ParameterizedType existingInstance = existingReference != null ? existingReference.get() : null;
+
+            if (existingInstance != null) {
+                return existingInstance;
+            }
+
+            //
+            // A replacement keeps the key already in the map, so that it can still be found by
+            // identity once its type arguments have been collected.
+            //
+            final TypeArgumentsKey storedKey = existingReference != null ? existingReference.key : key.makeWeak();
+            final ParameterizedType instance = new ParameterizedType(this, ArrayUtilities.asUnmodifiableList(typeArguments));
+            final GenericInstanceReference reference = new GenericInstanceReference(instance, genericInstances, storedKey);
+
+            if (existingReference != null ? genericInstances.replace(storedKey, existingReference, reference)
+                                          : genericInstances.putIfAbsent(storedKey, reference) == null) {
+                return instance;
+            }
+        }
+    }
+
+    private static void removeCollectedGenericInstances() {
+        Reference<? extends ParameterizedType> reference;
+
+        while ((reference = COLLECTED_GENERIC_INSTANCES.poll()) != null) {
+            final GenericInstanceReference r = (GenericInstanceReference) reference;
+            r.genericInstances.remove(r.key, r);
+        }
+    }
+
     // </editor-fold>
 
     // <editor-fold defaultstate="collapsed" desc="Type Bounds">
@@ -641,4 +720,97 @@ public abstract class TypeReference extends MemberReference implements IGenericP
     }
 
     // </editor-fold>
+
+    private final static class GenericInstanceReference extends WeakReference<ParameterizedType> {
+        final ConcurrentHashMap<TypeArgumentsKey, GenericInstanceReference> genericInstances;
+        final TypeArgumentsKey key;
+
+        GenericInstanceReference(
+            final ParameterizedType instance,
+            final ConcurrentHashMap<TypeArgumentsKey, GenericInstanceReference> genericInstances,
+            final TypeArgumentsKey key) {
+
+            super(instance, COLLECTED_GENERIC_INSTANCES);
+            this.genericInstances = genericInstances;
+            this.key = key;
+        }
+    }
+
+    private final static class TypeArgumentsKey {
+        //
+        // Lookups use the type arguments themselves; the keys stored in the cache refer to them
+        // through weak references, so they keep nothing alive.  A key whose type arguments have
+        // been collected equals no other key, and is removed along with its instance.
+        //
+        private final Object[] _typeArguments;
+        private final int _hashCode;
+
+        TypeArgumentsKey(final TypeReference[] typeArguments) {
+            int hashCode = 1;
+
+            for (final TypeReference typeArgument : typeArguments) {
+                hashCode = 31 * hashCode + System.identityHashCode(typeArgument);
+            }
+
+            _typeArguments = typeArguments;
+            _hashCode = hashCode;
+        }
+
+        private TypeArgumentsKey(final Object[] typeArguments, final int hashCode) {
+            _typeArguments = typeArguments;
+            _hashCode = hashCode;
+        }
+
+        TypeArgumentsKey makeWeak() {
+            final Object[] typeArguments = new Object[_typeArguments.length];
+
+            for (int i = 0; i < typeArguments.length; i++) {
+                typeArguments[i] = new WeakReference<>(getTypeArgument(i));
+            }
+
+            return new TypeArgumentsKey(typeArguments, _hashCode);
+        }
+
+        private TypeReference getTypeArgument(final int index) {
+            final Object typeArgument = _typeArguments[index];
+
+            if (typeArgument instanceof WeakReference<?>) {
+                return (TypeReference) ((WeakReference<?>) typeArgument).get();
+            }
+
+            return (TypeReference) typeArgument;
+        }
+
+        @Override
+        public int hashCode() {
+            return _hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == this) {
+                return true;
+            }
+
+            if (!(obj instanceof TypeArgumentsKey)) {
+                return false;
+            }
+
+            final TypeArgumentsKey other = (TypeArgumentsKey) obj;
+
+            if (other._typeArguments.length != _typeArguments.length) {
+                return false;
+            }
+
+            for (int i = 0; i < _typeArguments.length; i++) {
+                final TypeReference typeArgument = getTypeArgument(i);
+
+                if (typeArgument == null || other.getTypeArgument(i) != typeArgument) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
 }
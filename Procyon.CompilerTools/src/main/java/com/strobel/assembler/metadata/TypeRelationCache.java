@@ -0,0 +1,152 @@
+/*
+ * TypeRelationCache.java
+ *
+ * Copyright (c) 2013 Mike Strobel
+ *
+ * This source code is subject to terms and conditions of the Apache License, Version 2.0.
+ * A copy of the license can be found in the License.html file at the root of this distribution.
+ * By using this source code in any fashion, you are agreeing to be bound by the terms of the
+ * Apache License, Version 2.0.
+ *
+ * You must not remove this notice, or any other, from this software.
+ */
+
+package com.strobel.assembler.metadata;
+
+import com.strobel.core.VerifyArgument;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the results of relational queries between types, e.g., {@link MetadataHelper#isSubType}
+ * and {@link MetadataHelper#asSuper}, for the types of one {@link MetadataSystem}.
+ * <p>
+ * Queries are keyed by the identity of their types, so a result is only reused for the very same
+ * type instances; definitions and parameterized types are shared, so this is the common case.  The
+ * cache holds up to a fixed number of results, and is emptied once it fills up.  It may be used by
+ * many threads at once.
+ *
+ * @author Mike Strobel
+ */
+public final class TypeRelationCache {
+    final static Object MISSING = new Object();
+
+    private final static Object NULL_RESULT = new Object();
+
+    private final int _maximumSize;
+    private final ConcurrentHashMap<Query, Object> _results;
+    private final LongAdder _hitCount = new LongAdder();
+    private final LongAdder _missCount = new LongAdder();
+
+    TypeRelationCache(final int maximumSize) {
+        _maximumSize = VerifyArgument.isPositive(maximumSize, "maximumSize");
+        _results = new ConcurrentHashMap<>();
+    }
+
+    public final int getMaximumSize() {
+        return _maximumSize;
+    }
+
+    public final int size() {
+        return _results.size();
+    }
+
+    /**
+     * Returns the number of queries which were answered from the cache.
+     */
+    public final long getHitCount() {
+        return _hitCount.sum();
+    }
+
+    /**
+     * Returns the number of queries which had to be computed.
+     */
+    public final long getMissCount() {
+        return _missCount.sum();
+    }
+
+    public final void clear() {
+        _results.clear();
+    }
+
+    @Override
+    public String toString() {
+        final long hitCount = getHitCount();
+        final long queryCount = hitCount + getMissCount();
+
+        return String.format(
+            "TypeRelationCache{size=%d, hits=%d, misses=%d, hitRate=%.1f%%}",
+            size(),
+            hitCount,
+            queryCount - hitCount,
+            queryCount == 0 ? 0d : 100d * hitCount / queryCount
+        );
+    }
+
+    static Query query(final Relation relation, final TypeReference t, final TypeReference s) {
+        return new Query(relation, t, s);
+    }
+
+    /**
+     * Returns the cached result of {@code query}, or {@link #MISSING} if there is none.
+     */
+    Object get(final Query query) {
+        final Object result = _results.get(query);
+
+        if (result == null) {
+            _missCount.increment();
+            return MISSING;
+        }
+
+        _hitCount.increment();
+        return result == NULL_RESULT ? null : result;
+    }
+
+    void put(final Query query, final Object result) {
+        if (_results.size() >= _maximumSize) {
+            _results.clear();
+        }
+
+        _results.put(query, result != null ? result : NULL_RESULT);
+    }
+
+    enum Relation {
+        SUBTYPE,
+        SUBTYPE_NO_CAPTURE,
+        SUBTYPE_UNCHECKED,
+        AS_SUPER,
+        GENERIC_SUBTYPE_MAPPINGS,
+        ADAPT
+    }
+
+    final static class Query {
+        private final Relation _relation;
+        private final TypeReference _t;
+        private final TypeReference _s;
+
+        Query(final Relation relation, final TypeReference t, final TypeReference s) {
+            _relation = relation;
+            _t = t;
+            _s = s;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * _relation.ordinal() + System.identityHashCode(_t)) + System.identityHashCode(_s);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Query)) {
+                return false;
+            }
+
+            final Query other = (Query) obj;
+
+            return other._relation == _relation &&
+                   other._t == _t &&
+                   other._s == _s;
+        }
+    }
+}
@@ -26,14 +26,17 @@ import com.strobel.core.BooleanBox;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 
 public final class DecompilerContext extends UserDataStoreBase {
     private final List<String> _reservedVariableNames = new Collection<>();
     private final Set<IMemberDefinition> _forcedVisibleMembers = new LinkedHashSet<>();
     private DecompilerSettings _settings = new DecompilerSettings();
     private BooleanBox _isCanceled;
+    private MethodBudget _methodBudget;
     private TypeDefinition _currentType;
     private MethodDefinition _currentMethod;
+    private boolean _isMethodTimeLimitExceeded;
 
     public DecompilerContext() {
     }
@@ -50,6 +53,16 @@ public final class DecompilerContext extends UserDataStoreBase {
         _settings = settings;
     }
 
+    /**
+     * Returns the listener which receives measurements of the decompiler pipeline, as configured
+     * in the settings, or {@code null} if nothing is being measured.
+     *
+     * @see StageTimer
+     */
+    public IMetricsListener getMetricsListener() {
+        return _settings != null ? _settings.getMetricsListener() : null;
+    }
+
     public BooleanBox getCanceled() {
         return _isCanceled;
     }
@@ -58,6 +71,44 @@ public final class DecompilerContext extends UserDataStoreBase {
         _isCanceled = canceled;
     }
 
+    /**
+     * Returns the budget of the method currently being decompiled, or {@code null} if it has none.
+     */
+    public MethodBudget getMethodBudget() {
+        return _methodBudget;
+    }
+
+    public void setMethodBudget(final MethodBudget methodBudget) {
+        _methodBudget = methodBudget;
+    }
+
+    /**
+     * Throws a {@link CancellationException} if decompilation has been canceled, or if the
+     * current method has run past its time limit.  Cheap enough to call from the inner loops of
+     * the method-level stages.
+     */
+    public void checkBudget() {
+        if (_isCanceled != null && _isCanceled.value) {
+            throw new CancellationException();
+        }
+
+        if (_methodBudget != null) {
+            _methodBudget.checkTime();
+        }
+    }
+
+    /**
+     * Returns whether any method decompiled with this context ran past its time limit, and was
+     * emitted as bytecode instead.
+     */
+    public boolean isMethodTimeLimitExceeded() {
+        return _isMethodTimeLimitExceeded;
+    }
+
+    public void setMethodTimeLimitExceeded(final boolean methodTimeLimitExceeded) {
+        _isMethodTimeLimitExceeded = methodTimeLimitExceeded;
+    }
+
     public TypeDefinition getCurrentType() {
         return _currentType;
     }
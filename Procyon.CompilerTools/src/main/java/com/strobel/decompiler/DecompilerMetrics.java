@@ -0,0 +1,291 @@
+/*
+ * DecompilerMetrics.java
+ *
+ * Copyright (c) 2013 Mike Strobel
+ *
+ * This source code is subject to terms and conditions of the Apache License, Version 2.0.
+ * A copy of the license can be found in the License.html file at the root of this distribution.
+ * By using this source code in any fashion, you are agreeing to be bound by the terms of the
+ * Apache License, Version 2.0.
+ *
+ * You must not remove this notice, or any other, from this software.
+ */
+
+package com.strobel.decompiler;
+
+import com.strobel.assembler.metadata.MethodDefinition;
+import com.strobel.assembler.metadata.TypeDefinition;
+import com.strobel.core.StringUtilities;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An {@link IMetricsListener} which totals the measurements of every stage, per type and method,
+ * and writes them out as a JSON or CSV report.  Safe to use from multiple threads.
+ * <p>
+ * Each entry of a report holds the number of measurements, their total wall time (nanoseconds),
+ * allocated bytes ({@code -1} if the JVM cannot measure allocations), and iteration count.  The
+ * JSON report also holds the totals of each stage and step across all types and methods.  Stages
+ * may nest (see {@link DecompilerStage}), so the totals of different stages overlap.
+ *
+ * @author Mike Strobel
+ */
+public final class DecompilerMetrics implements IMetricsListener {
+    private final static String CSV_HEADER = "stage,name,type,method,count,wallTimeNanos,allocatedBytes,iterations";
+
+    private final static Comparator<Map.Entry<Key, Entry>> KEY_ORDER = new Comparator<Map.Entry<Key, Entry>>() {
+        @Override
+        public int compare(final Map.Entry<Key, Entry> e1, final Map.Entry<Key, Entry> e2) {
+            final Key k1 = e1.getKey();
+            final Key k2 = e2.getKey();
+
+            int result = k1.type.compareTo(k2.type);
+
+            if (result == 0) {
+                result = k1.method.compareTo(k2.method);
+            }
+
+            if (result == 0) {
+                result = k1.stage.compareTo(k2.stage);
+            }
+
+            if (result == 0) {
+                result = k1.name.compareTo(k2.name);
+            }
+
+            return result;
+        }
+    };
+
+    private final ConcurrentHashMap<Key, Entry> _entries = new ConcurrentHashMap<>();
+
+    @Override
+    public void stageCompleted(
+        final DecompilerStage stage,
+        final String name,
+        final TypeDefinition type,
+        final MethodDefinition method,
+        final long wallTime,
+        final long allocated,
+        final int iterations) {
+
+        final Key key = new Key(
+            stage,
+            name != null ? name : "",
+            type != null ? type.getInternalName() : "",
+            method != null ? method.getName() + method.getErasedSignature() : ""
+        );
+
+        Entry entry = _entries.get(key);
+
+        if (entry == null) {
+            final Entry newEntry = new Entry();
+
+            entry = _entries.putIfAbsent(key, newEntry);
+
+            if (entry == null) {
+                entry = newEntry;
+            }
+        }
+
+        entry.add(1, wallTime, allocated, iterations);
+    }
+
+    public void clear() {
+        _entries.clear();
+    }
+
+    public void writeJson(final Writer writer) throws IOException {
+        final List<Map.Entry<Key, Entry>> entries = getSortedEntries();
+        final Map<Key, Entry> totals = new LinkedHashMap<>();
+
+        for (final Map.Entry<Key, Entry> e : entries) {
+            final Key key = e.getKey();
+            final Key totalKey = new Key(key.stage, key.name, "", "");
+
+            Entry total = totals.get(totalKey);
+
+            if (total == null) {
+                totals.put(totalKey, total = new Entry());
+            }
+
+            total.add(e.getValue());
+        }
+
+        final List<Map.Entry<Key, Entry>> sortedTotals = new ArrayList<>(totals.entrySet());
+
+        Collections.sort(sortedTotals, KEY_ORDER);
+
+        writer.write("{\n  \"stages\": [");
+        writeJsonEntries(writer, sortedTotals, false);
+        writer.write("\n  ],\n  \"entries\": [");
+        writeJsonEntries(writer, entries, true);
+        writer.write("\n  ]\n}\n");
+        writer.flush();
+    }
+
+    public void writeCsv(final Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        for (final Map.Entry<Key, Entry> e : getSortedEntries()) {
+            final Key key = e.getKey();
+            final Entry entry = e.getValue();
+
+            writer.write(
+                key.stage + "," +
+                quoteCsv(key.name) + "," +
+                quoteCsv(key.type) + "," +
+                quoteCsv(key.method) + "," +
+                entry.count + "," +
+                entry.wallTime + "," +
+                entry.allocated + "," +
+                entry.iterations + "\n"
+            );
+        }
+
+        writer.flush();
+    }
+
+    private List<Map.Entry<Key, Entry>> getSortedEntries() {
+        final List<Map.Entry<Key, Entry>> entries = new ArrayList<>(_entries.entrySet());
+        Collections.sort(entries, KEY_ORDER);
+        return entries;
+    }
+
+    private static void writeJsonEntries(
+        final Writer writer,
+        final List<Map.Entry<Key, Entry>> entries,
+        final boolean includeMember) throws IOException {
+
+        boolean first = true;
+
+        for (final Map.Entry<Key, Entry> e : entries) {
+            final Key key = e.getKey();
+            final Entry entry = e.getValue();
+
+            writer.write(first ? "\n    { " : ",\n    { ");
+            writer.write("\"stage\": \"" + key.stage + "\", ");
+            writer.write("\"name\": " + quoteJson(key.name) + ", ");
+
+            if (includeMember) {
+                writer.write("\"type\": " + quoteJson(key.type) + ", ");
+                writer.write("\"method\": " + quoteJson(key.method) + ", ");
+            }
+
+            writer.write("\"count\": " + entry.count + ", ");
+            writer.write("\"wallTimeNanos\": " + entry.wallTime + ", ");
+            writer.write("\"allocatedBytes\": " + entry.allocated + ", ");
+            writer.write("\"iterations\": " + entry.iterations + " }");
+
+            first = false;
+        }
+    }
+
+    private static String quoteJson(final String value) {
+        if (StringUtilities.isNullOrEmpty(value)) {
+            return "null";
+        }
+
+        final StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            }
+            else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            }
+            else {
+                sb.append(c);
+            }
+        }
+
+        return sb.append('"').toString();
+    }
+
+    private static String quoteCsv(final String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private final static class Key {
+        final DecompilerStage stage;
+        final String name;
+        final String type;
+        final String method;
+
+        Key(final DecompilerStage stage, final String name, final String type, final String method) {
+            this.stage = stage;
+            this.name = name;
+            this.type = type;
+            this.method = method;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            final Key other = (Key) o;
+
+            return stage == other.stage &&
+                   name.equals(other.name) &&
+                   type.equals(other.type) &&
+                   method.equals(other.method);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = stage.hashCode();
+            result = 31 * result + name.hashCode();
+            result = 31 * result + type.hashCode();
+            result = 31 * result + method.hashCode();
+            return result;
+        }
+    }
+
+    private final static class Entry {
+        long count;
+        long wallTime;
+        long allocated;
+        long iterations;
+
+        synchronized void add(final long count, final long wallTime, final long allocated, final long iterations) {
+            this.count += count;
+            this.wallTime += wallTime;
+            this.iterations += iterations;
+
+            if (allocated < 0 || this.allocated < 0) {
+                this.allocated = -1L;
+            }
+            else {
+                this.allocated += allocated;
+            }
+        }
+
+        void add(final Entry other) {
+            synchronized (other) {
+                add(other.count, other.wallTime, other.allocated, other.iterations);
+            }
+        }
+    }
+}
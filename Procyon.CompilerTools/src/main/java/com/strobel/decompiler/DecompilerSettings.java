@@ -24,6 +24,7 @@ import com.strobel.decompiler.languages.java.JavaFormattingOptions;
 
 public class DecompilerSettings {
     private ITypeLoader _typeLoader;
+    private IMetricsListener _metricsListener;
     private boolean _includeLineNumbersInBytecode = true;
     private boolean _showSyntheticMembers;
     private boolean _alwaysGenerateExceptionVariableForCatchBlocks = true;
@@ -45,6 +46,9 @@ public class DecompilerSettings {
     private String _outputDirectory;
     private boolean _showDebugLineNumbers;
     private boolean _simplifyMemberReferences;
+    private boolean _decompileMethodsInParallel;
+    private long _methodTimeLimit;
+    private int _methodNodeLimit;
 
     public DecompilerSettings() {
     }
@@ -97,6 +101,18 @@ public class DecompilerSettings {
         _typeLoader = typeLoader;
     }
 
+    public final IMetricsListener getMetricsListener() {
+        return _metricsListener;
+    }
+
+    /**
+     * Sets the listener which receives timing and allocation measurements of each stage of the
+     * decompiler pipeline, or {@code null} (the default) to measure nothing.
+     */
+    public final void setMetricsListener(final IMetricsListener metricsListener) {
+        _metricsListener = metricsListener;
+    }
+
     public final Language getLanguage() {
         return _language != null ? _language : Languages.java();
     }
@@ -213,6 +229,39 @@ public class DecompilerSettings {
         _disableForEachTransforms = disableForEachTransforms;
     }
 
+    public final boolean getDecompileMethodsInParallel() {
+        return _decompileMethodsInParallel;
+    }
+
+    public final void setDecompileMethodsInParallel(final boolean decompileMethodsInParallel) {
+        _decompileMethodsInParallel = decompileMethodsInParallel;
+    }
+
+    public final long getMethodTimeLimit() {
+        return _methodTimeLimit;
+    }
+
+    /**
+     * Sets how long (in milliseconds) building and optimizing the bytecode AST of a single method
+     * may take before the method is emitted as bytecode instead, or {@code 0} (the default) for no
+     * limit.
+     */
+    public final void setMethodTimeLimit(final long methodTimeLimit) {
+        _methodTimeLimit = methodTimeLimit;
+    }
+
+    public final int getMethodNodeLimit() {
+        return _methodNodeLimit;
+    }
+
+    /**
+     * Sets how many nodes the bytecode AST of a single method may grow to before the method is
+     * emitted as bytecode instead, or {@code 0} (the default) for no limit.
+     */
+    public final void setMethodNodeLimit(final int methodNodeLimit) {
+        _methodNodeLimit = methodNodeLimit;
+    }
+
     public boolean getForceFullyQualifiedReferences() {
         return _forceFullyQualifiedReferences;
     }
@@ -0,0 +1,56 @@
+/*
+ * DecompilerStage.java
+ *
+ * Copyright (c) 2013 Mike Strobel
+ *
+ * This source code is subject to terms and conditions of the Apache License, Version 2.0.
+ * A copy of the license can be found in the License.html file at the root of this distribution.
+ * By using this source code in any fashion, you are agreeing to be bound by the terms of the
+ * Apache License, Version 2.0.
+ *
+ * You must not remove this notice, or any other, from this software.
+ */
+
+package com.strobel.decompiler;
+
+/**
+ * The stages of the decompiler pipeline which are reported to an {@link IMetricsListener}.
+ * Stages may nest; e.g., {@link #BuildJavaAst} includes the bytecode AST stages of every method
+ * in the type.
+ *
+ * @author Mike Strobel
+ */
+public enum DecompilerStage {
+    /**
+     * Looking up and reading a type, including its class file.  Reported per type.
+     */
+    LoadType,
+
+    /**
+     * Building the bytecode AST of a method.  Reported per method.
+     */
+    BuildBytecodeAst,
+
+    /**
+     * One {@link com.strobel.decompiler.ast.AstOptimizationStep} (named after the step), including
+     * type inference.  Reported per method.  Block-level steps are reported each time they run;
+     * their iteration count is 1 if the run changed the method, and 0 otherwise.
+     */
+    OptimizeBytecodeAst,
+
+    /**
+     * Building the Java AST of a type, including the bytecode AST stages of its methods.  Reported
+     * per type.
+     */
+    BuildJavaAst,
+
+    /**
+     * One Java AST transform (named after the transform class).  Reported per type.
+     */
+    TransformJavaAst,
+
+    /**
+     * Writing the Java source of a type.  Reported per type.
+     */
+    WriteJavaOutput
+}
@@ -0,0 +1,51 @@
+/*
+ * IMetricsListener.java
+ *
+ * Copyright (c) 2013 Mike Strobel
+ *
+ * This source code is subject to terms and conditions of the Apache License, Version 2.0.
+ * A copy of the license can be found in the License.html file at the root of this distribution.
+ * By using this source code in any fashion, you are agreeing to be bound by the terms of the
+ * Apache License, Version 2.0.
+ *
+ * You must not remove this notice, or any other, from this software.
+ */
+
+package com.strobel.decompiler;
+
+import com.strobel.assembler.metadata.MethodDefinition;
+import com.strobel.assembler.metadata.TypeDefinition;
+
+/**
+ * Receives a measurement each time a stage of the decompiler pipeline completes.  A listener is
+ * installed with {@link DecompilerSettings#setMetricsListener}; without one, nothing is measured.
+ * <p>
+ * Measurements are reported on the thread which performed the stage, so a listener must be safe
+ * to call from multiple threads when types or methods are decompiled in parallel.
+ *
+ * @author Mike Strobel
+ * @see DecompilerMetrics
+ * @see StageTimer
+ */
+public interface IMetricsListener {
+    /**
+     * Called when a stage completes.
+     *
+     * @param stage      the stage which completed
+     * @param name       the name of the step within the stage, or {@code null}
+     * @param type       the type being decompiled, or {@code null}
+     * @param method     the method being decompiled, or {@code null}
+     * @param wallTime   the elapsed wall clock time, in nanoseconds
+     * @param allocated  the number of bytes allocated by the current thread, or {@code -1} if the
+     *                   JVM cannot measure allocations
+     * @param iterations a stage-specific iteration count (see {@link DecompilerStage})
+     */
+    void stageCompleted(
+        final DecompilerStage stage,
+        final String name,
+        final TypeDefinition type,
+        final MethodDefinition method,
+        final long wallTime,
+        final long allocated,
+        final int iterations);
+}
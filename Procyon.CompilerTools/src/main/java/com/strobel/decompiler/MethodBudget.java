@@ -0,0 +1,114 @@
+/*
+ * MethodBudget.java
+ *
+ * Copyright (c) 2013 Mike Strobel
+ *
+ * This source code is subject to terms and conditions of the Apache License, Version 2.0.
+ * A copy of the license can be found in the License.html file at the root of this distribution.
+ * By using this source code in any fashion, you are agreeing to be bound by the terms of the
+ * Apache License, Version 2.0.
+ *
+ * You must not remove this notice, or any other, from this software.
+ */
+
+package com.strobel.decompiler;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time and complexity budget of decompiling one method, as configured by
+ * {@link DecompilerSettings#setMethodTimeLimit} and {@link DecompilerSettings#setMethodNodeLimit}.
+ * <p>
+ * The long-running stages of building and optimizing a method's bytecode AST check the budget of
+ * the current method (see {@link DecompilerContext#checkBudget()}) as they go.  Once the budget is
+ * exceeded, they throw a {@link CancellationException}, and the method is emitted as its original
+ * bytecode instead, like any other method which could not be decompiled.
+ *
+ * @author Mike Strobel
+ */
+public final class MethodBudget {
+    private final static int NODE_COUNT_INTERVAL = 16;
+
+    private final long _timeLimit;
+    private final int _nodeLimit;
+    private final long _deadline;
+
+    private int _checksUntilNodeCount;
+
+    private MethodBudget(final long timeLimit, final int nodeLimit) {
+        _timeLimit = timeLimit;
+        _nodeLimit = nodeLimit;
+        _deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeLimit);
+    }
+
+    /**
+     * Starts the budget of a method which is about to be decompiled with the given settings.
+     * Returns {@code null} if the settings impose no limits.
+     */
+    public static MethodBudget start(final DecompilerSettings settings) {
+        if (settings == null) {
+            return null;
+        }
+
+        final long timeLimit = Math.max(settings.getMethodTimeLimit(), 0L);
+        final int nodeLimit = Math.max(settings.getMethodNodeLimit(), 0);
+
+        if (timeLimit == 0L && nodeLimit == 0) {
+            return null;
+        }
+
+        return new MethodBudget(timeLimit, nodeLimit);
+    }
+
+    /**
+     * Returns the maximum number of nodes in the method's bytecode AST, or {@code 0} if the
+     * number of nodes is not limited.
+     */
+    public int getNodeLimit() {
+        return _nodeLimit;
+    }
+
+    /**
+     * Returns whether the caller should count the nodes in the method's bytecode AST and pass the
+     * count to {@link #checkNodeCount}.  Counting walks the whole AST, so only the first of every
+     * {@value #NODE_COUNT_INTERVAL} calls returns {@code true}; the limit may be overrun by the
+     * nodes added in between.  Always returns {@code false} if the number of nodes is not limited.
+     */
+    public boolean isNodeCountDue() {
+        if (_nodeLimit <= 0) {
+            return false;
+        }
+
+        if (_checksUntilNodeCount > 0) {
+            --_checksUntilNodeCount;
+            return false;
+        }
+
+        _checksUntilNodeCount = NODE_COUNT_INTERVAL - 1;
+        return true;
+    }
+
+    /**
+     * Throws a {@link MethodTimeLimitException} if the method has run past its time limit.
+     */
+    public void checkTime() {
+        if (_timeLimit > 0L && System.nanoTime() - _deadline > 0L) {
+            throw new MethodTimeLimitException(
+                "Decompiling the method took longer than the limit of " + _timeLimit + " ms."
+            );
+        }
+    }
+
+    /**
+     * Throws a {@link CancellationException} if {@code nodeCount}, the current number of nodes in
+     * the method's bytecode AST, exceeds the node limit.
+     */
+    public void checkNodeCount(final int nodeCount) {
+        if (_nodeLimit > 0 && nodeCount > _nodeLimit) {
+            throw new CancellationException(
+                "The method's bytecode AST has " + nodeCount + " nodes, more than the limit of " + _nodeLimit + "."
+            );
+        }
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * MethodTimeLimitException.java
+ *
+ * Copyright (c) 2013 Mike Strobel
+ *
+ * This source code is subject to terms and conditions of the Apache License, Version 2.0.
+ * A copy of the license can be found in the License.html file at the root of this distribution.
+ * By using this source code in any fashion, you are agreeing to be bound by the terms of the
+ * Apache License, Version 2.0.
+ *
+ * You must not remove this notice, or any other, from this software.
+ */
+
+package com.strobel.decompiler;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Thrown when a method has run past its time limit (see {@link MethodBudget#checkTime()}).
+ * Unlike the node limit, whether the time limit is reached depends on the load of the machine,
+ * so a later attempt to decompile the same method may succeed.
+ *
+ * @author Mike Strobel
+ */
+public class MethodTimeLimitException extends CancellationException {
+    public MethodTimeLimitException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * StageTimer.java
+ *
+ * Copyright (c) 2013 Mike Strobel
+ *
+ * This source code is subject to terms and conditions of the Apache License, Version 2.0.
+ * A copy of the license can be found in the License.html file at the root of this distribution.
+ * By using this source code in any fashion, you are agreeing to be bound by the terms of the
+ * Apache License, Version 2.0.
+ *
+ * You must not remove this notice, or any other, from this software.
+ */
+
+package com.strobel.decompiler;
+
+import com.strobel.assembler.metadata.MethodDefinition;
+import com.strobel.assembler.metadata.TypeDefinition;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures a stage of the decompiler pipeline and reports it to an {@link IMetricsListener}.
+ * Each call to {@link #start} begins a new measurement, completing the previous one (if any),
+ * so one timer can measure a sequence of steps.
+ * <p>
+ * When no listener is installed, {@link #create} returns a shared timer which does nothing, so
+ * instrumented code costs next to nothing unless metrics are being collected.  Timers are not
+ * thread safe; each must be used by a single thread.
+ *
+ * @author Mike Strobel
+ */
+public final class StageTimer {
+    private final static StageTimer DISABLED = new StageTimer(null, null, null, null);
+
+    private final IMetricsListener _listener;
+    private final DecompilerStage _stage;
+    private final MethodDefinition _method;
+
+    private TypeDefinition _type;
+
+    private String _name;
+    private boolean _isRunning;
+    private long _startTime;
+    private long _startAllocated;
+    private int _iterations;
+
+    private StageTimer(
+        final IMetricsListener listener,
+        final DecompilerStage stage,
+        final TypeDefinition type,
+        final MethodDefinition method) {
+
+        _listener = listener;
+        _stage = stage;
+        _type = type;
+        _method = method;
+    }
+
+    /**
+     * Creates a timer for {@code stage}, attributing its measurements to the current type and
+     * method of {@code context}.
+     */
+    public static StageTimer create(final DecompilerContext context, final DecompilerStage stage) {
+        final IMetricsListener listener = context.getMetricsListener();
+
+        if (listener == null) {
+            return DISABLED;
+        }
+
+        return new StageTimer(listener, stage, context.getCurrentType(), context.getCurrentMethod());
+    }
+
+    /**
+     * Creates a timer for {@code stage} which reports to {@code listener}, which may be
+     * {@code null}.
+     */
+    public static StageTimer create(
+        final IMetricsListener listener,
+        final DecompilerStage stage,
+        final TypeDefinition type,
+        final MethodDefinition method) {
+
+        if (listener == null) {
+            return DISABLED;
+        }
+
+        return new StageTimer(listener, stage, type, method);
+    }
+
+    /**
+     * Creates a timer for {@code stage} and starts measuring {@code name}.
+     */
+    public static StageTimer start(final DecompilerContext context, final DecompilerStage stage, final String name) {
+        final StageTimer timer = create(context, stage);
+        timer.start(name);
+        return timer;
+    }
+
+    /**
+     * Starts measuring {@code name}, first completing the current measurement (if any).
+     */
+    public void start(final String name) {
+        if (_listener == null) {
+            return;
+        }
+
+        stop();
+
+        _name = name;
+        _iterations = 0;
+        _isRunning = true;
+        _startAllocated = getAllocatedBytes();
+        _startTime = System.nanoTime();
+    }
+
+    /**
+     * Attributes the current and later measurements to {@code type}, e.g., once the type being
+     * measured has been loaded.
+     */
+    public void setType(final TypeDefinition type) {
+        if (_listener != null) {
+            _type = type;
+        }
+    }
+
+    /**
+     * Adds to the iteration count of the current measurement.
+     */
+    public void addIterations(final int count) {
+        if (_isRunning) {
+            _iterations += count;
+        }
+    }
+
+    /**
+     * Completes the current measurement (if any) and reports it.
+     */
+    public void stop() {
+        if (!_isRunning) {
+            return;
+        }
+
+        final long wallTime = System.nanoTime() - _startTime;
+        final long allocated = _startAllocated < 0 ? -1L : getAllocatedBytes() - _startAllocated;
+
+        _isRunning = false;
+        _listener.stageCompleted(_stage, _name, _type, _method, wallTime, allocated, _iterations);
+    }
+
+    private static long getAllocatedBytes() {
+        final com.sun.management.ThreadMXBean bean = AllocationBeanHolder.BEAN;
+
+        if (bean == null) {
+            return -1L;
+        }
+
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    //
+    // Looking up the bean starts the platform management beans, so only do it once a timer is
+    // actually measuring something.
+    //
+    private final static class AllocationBeanHolder {
+        final static com.sun.management.ThreadMXBean BEAN = findAllocationBean();
+    }
+
+    private static com.sun.management.ThreadMXBean findAllocationBean() {
+        try {
+            final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                final com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+
+                if (allocationBean.isThreadAllocatedMemorySupported() &&
+                    allocationBean.isThreadAllocatedMemoryEnabled()) {
+
+                    return allocationBean;
+                }
+            }
+        }
+        catch (final Throwable ignored) {
+            //
+            // Allocation tracking is specific to HotSpot; other JVMs only get wall times.
+            //
+        }
+
+        return null;
+    }
+}
@@ -97,8 +97,12 @@ public final class AstBuilder {
         builder.pruneExceptionHandlers();
         builder.inlineSubroutines();
 
+        context.checkBudget();
+
         FinallyInlining.run(builder._body, builder._instructions, builder._exceptionHandlers, builder._removed);
 
+        context.checkBudget();
+
         builder._cfg = ControlFlowGraphBuilder.build(builder._instructions, builder._exceptionHandlers);
         builder._cfg.computeDominance();
         builder._cfg.computeDominanceFrontier();
@@ -107,6 +111,8 @@ public final class AstBuilder {
 
         final List<ByteCode> byteCode = builder.performStackAnalysis();
 
+        context.checkBudget();
+
         LOG.fine("Creating bytecode AST...");
 
         @SuppressWarnings("UnnecessaryLocalVariable")
@@ -2022,6 +2028,8 @@ public final class AstBuilder {
         while (!(agenda.isEmpty() && handlerAgenda.isEmpty())) {
             final ByteCode byteCode = agenda.isEmpty() ? handlerAgenda.removeFirst() : agenda.removeFirst();
 
+            _context.checkBudget();
+
             //
             // Calculate new stack.
             //
@@ -20,6 +20,9 @@ import com.strobel.assembler.metadata.*;
 import com.strobel.core.*;
 import com.strobel.decompiler.DecompilerContext;
 import com.strobel.decompiler.DecompilerSettings;
+import com.strobel.decompiler.DecompilerStage;
+import com.strobel.decompiler.MethodBudget;
+import com.strobel.decompiler.StageTimer;
 import com.strobel.functions.Function;
 import com.strobel.functions.Supplier;
 import com.strobel.functions.Suppliers;
@@ -46,9 +49,25 @@ public final class AstOptimizer {
         VerifyArgument.notNull(context, "context");
         VerifyArgument.notNull(method, "method");
 
+        final StageTimer timer = StageTimer.create(context, DecompilerStage.OptimizeBytecodeAst);
+
+        try {
+            optimize(context, method, abortBeforeStep, timer);
+        }
+        finally {
+            timer.stop();
+        }
+    }
+
+    private static void optimize(
+        final DecompilerContext context,
+        final Block method,
+        final AstOptimizationStep abortBeforeStep,
+        final StageTimer timer) {
+
         LOG.fine("Beginning bytecode AST optimization...");
 
-        if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.RemoveRedundantCode)) {
+        if (!shouldPerformStep(context, method, timer, abortBeforeStep, AstOptimizationStep.RemoveRedundantCode)) {
             return;
         }
 
@@ -56,7 +75,7 @@ public final class AstOptimizer {
 
         removeRedundantCode(method, context.getSettings());
 
-        if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.ReduceBranchInstructionSet)) {
+        if (!shouldPerformStep(context, method, timer, abortBeforeStep, AstOptimizationStep.ReduceBranchInstructionSet)) {
             return;
         }
 
@@ -66,29 +85,31 @@ public final class AstOptimizer {
             reduceBranchInstructionSet(block);
         }
 
-        if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.InlineVariables)) {
+        if (!shouldPerformStep(context, method, timer, abortBeforeStep, AstOptimizationStep.InlineVariables)) {
             return;
         }
 
         final Inlining inliningPhase1 = new Inlining(context, method);
 
         while (inliningPhase1.inlineAllVariables()) {
+            context.checkBudget();
             inliningPhase1.analyzeMethod();
+            timer.addIterations(1);
         }
 
-        if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.CopyPropagation)) {
+        if (!shouldPerformStep(context, method, timer, abortBeforeStep, AstOptimizationStep.CopyPropagation)) {
             return;
         }
 
         inliningPhase1.copyPropagation();
 
-        if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.RewriteFinallyBlocks)) {
+        if (!shouldPerformStep(context, method, timer, abortBeforeStep, AstOptimizationStep.RewriteFinallyBlocks)) {
             return;
         }
 
         rewriteFinallyBlocks(method);
 
-        if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.SplitToMovableBlocks)) {
+        if (!shouldPerformStep(context, method, timer, abortBeforeStep, AstOptimizationStep.SplitToMovableBlocks)) {
             return;
         }
 
@@ -96,152 +117,30 @@ public final class AstOptimizer {
             optimizer.splitToMovableBlocks(block);
         }
 
-        if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.RemoveUnreachableBlocks)) {
+        if (!shouldPerformStep(context, method, timer, abortBeforeStep, AstOptimizationStep.RemoveUnreachableBlocks)) {
             return;
         }
 
         removeUnreachableBlocks(method);
 
-        if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.TypeInference)) {
+        if (!shouldPerformStep(context, method, timer, abortBeforeStep, AstOptimizationStep.TypeInference)) {
             return;
         }
 
         TypeAnalysis.run(context, method);
 
-        boolean done = false;
-
         LOG.fine("Performing block-level bytecode AST optimizations (enable FINER for more detail)...");
 
-        int blockNumber = 0;
-
-        for (final Block block : method.getSelfAndChildrenRecursive(Block.class)) {
-            boolean modified;
-            int blockRound = 0;
-
-            ++blockNumber;
-
-            do {
-                if (LOG.isLoggable(Level.FINER)) {
-                    LOG.finer("Optimizing block #" + blockNumber + ", round " + ++blockRound + "...");
-                }
-
-                modified = false;
-
-                if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.RemoveInnerClassInitSecurityChecks)) {
-                    done = true;
-                    break;
-                }
-
-                modified |= runOptimization(block, new RemoveInnerClassInitSecurityChecksOptimization(context, method));
-
-                if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.PreProcessShortCircuitAssignments)) {
-                    done = true;
-                    break;
-                }
-
-                modified |= runOptimization(block, new PreProcessShortCircuitAssignmentsOptimization(context, method));
-
-                if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.SimplifyShortCircuit)) {
-                    done = true;
-                    break;
-                }
-
-                modified |= runOptimization(block, new SimplifyShortCircuitOptimization(context, method));
-
-                if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.JoinBranchConditions)) {
-                    done = true;
-                    break;
-                }
-
-                modified |= runOptimization(block, new JoinBranchConditionsOptimization(context, method));
-
-                if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.SimplifyTernaryOperator)) {
-                    done = true;
-                    break;
-                }
-
-                modified |= runOptimization(block, new SimplifyTernaryOperatorOptimization(context, method));
-                modified |= runOptimization(block, new SimplifyTernaryOperatorRoundTwoOptimization(context, method));
-
-                if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.JoinBasicBlocks)) {
-                    done = true;
-                    break;
-                }
-
-                modified |= runOptimization(block, new JoinBasicBlocksOptimization(context, method));
-
-                if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.SimplifyLogicalNot)) {
-                    done = true;
-                    break;
-                }
-
-                modified |= runOptimization(block, new SimplifyLogicalNotOptimization(context, method));
-
-                if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.TransformObjectInitializers)) {
-                    done = true;
-                    break;
-                }
-
-                modified |= runOptimization(block, new TransformObjectInitializersOptimization(context, method));
-
-                if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.TransformArrayInitializers)) {
-                    done = true;
-                    break;
-                }
-
-                modified |= new Inlining(context, method, true).inlineAllInBlock(block);
-                modified |= runOptimization(block, new TransformArrayInitializersOptimization(context, method));
-
-                if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.IntroducePostIncrement)) {
-                    done = true;
-                    break;
-                }
-
-                modified |= runOptimization(block, new IntroducePostIncrementOptimization(context, method));
-
-                if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.InlineConditionalAssignments)) {
-                    done = true;
-                    break;
-                }
-
-                modified |= runOptimization(block, new InlineConditionalAssignmentsOptimization(context, method));
-
-                if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.MakeAssignmentExpressions)) {
-                    done = true;
-                    break;
-                }
-
-                modified |= runOptimization(block, new MakeAssignmentExpressionsOptimization(context, method));
-
-                if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.InlineLambdas)) {
-                    return;
-                }
-
-                modified |= runOptimization(block, new InlineLambdasOptimization(context, method));
-
-                if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.InlineVariables2)) {
-                    done = true;
-                    break;
-                }
-
-                modified |= new Inlining(context, method, true).inlineAllInBlock(block);
-                new Inlining(context, method).copyPropagation();
-
-                if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.MergeDisparateObjectInitializations)) {
-                    done = true;
-                    break;
-                }
-
-                modified |= mergeDisparateObjectInitializations(context, block);
-            }
-            while (modified);
-        }
+        //
+        // The block-level optimizer measures each of its steps itself.
+        //
+        timer.stop();
 
-        if (done) {
+        if (!new BlockOptimizer(context, method).optimize(abortBeforeStep)) {
             return;
         }
 
-        if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.FindLoops)) {
+        if (!shouldPerformStep(context, method, timer, abortBeforeStep, AstOptimizationStep.FindLoops)) {
             return;
         }
 
@@ -249,7 +148,7 @@ public final class AstOptimizer {
             new LoopsAndConditions(context).findLoops(block);
         }
 
-        if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.FindConditions)) {
+        if (!shouldPerformStep(context, method, timer, abortBeforeStep, AstOptimizationStep.FindConditions)) {
             return;
         }
 
@@ -257,43 +156,43 @@ public final class AstOptimizer {
             new LoopsAndConditions(context).findConditions(block);
         }
 
-        if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.FlattenNestedMovableBlocks)) {
+        if (!shouldPerformStep(context, method, timer, abortBeforeStep, AstOptimizationStep.FlattenNestedMovableBlocks)) {
             return;
         }
 
         flattenBasicBlocks(method);
 
-        if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.RemoveRedundantCode2)) {
+        if (!shouldPerformStep(context, method, timer, abortBeforeStep, AstOptimizationStep.RemoveRedundantCode2)) {
             return;
         }
 
         removeRedundantCode(method, context.getSettings());
 
-        if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.GotoRemoval)) {
+        if (!shouldPerformStep(context, method, timer, abortBeforeStep, AstOptimizationStep.GotoRemoval)) {
             return;
         }
 
-        new GotoRemoval().removeGotos(method);
+        new GotoRemoval(context, 0).removeGotos(method);
 
-        if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.DuplicateReturns)) {
+        if (!shouldPerformStep(context, method, timer, abortBeforeStep, AstOptimizationStep.DuplicateReturns)) {
             return;
         }
 
         duplicateReturnStatements(method);
 
-        if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.ReduceIfNesting)) {
+        if (!shouldPerformStep(context, method, timer, abortBeforeStep, AstOptimizationStep.ReduceIfNesting)) {
             return;
         }
 
         reduceIfNesting(method);
 
-        if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.GotoRemoval2)) {
+        if (!shouldPerformStep(context, method, timer, abortBeforeStep, AstOptimizationStep.GotoRemoval2)) {
             return;
         }
 
-        new GotoRemoval().removeGotos(method);
+        new GotoRemoval(context, 0).removeGotos(method);
 
-        if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.ReduceComparisonInstructionSet)) {
+        if (!shouldPerformStep(context, method, timer, abortBeforeStep, AstOptimizationStep.ReduceComparisonInstructionSet)) {
             return;
         }
 
@@ -301,13 +200,13 @@ public final class AstOptimizer {
             reduceComparisonInstructionSet(e);
         }
 
-        if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.RecombineVariables)) {
+        if (!shouldPerformStep(context, method, timer, abortBeforeStep, AstOptimizationStep.RecombineVariables)) {
             return;
         }
 
         recombineVariables(method);
 
-        if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.RemoveRedundantCode3)) {
+        if (!shouldPerformStep(context, method, timer, abortBeforeStep, AstOptimizationStep.RemoveRedundantCode3)) {
             return;
         }
 
@@ -317,7 +216,7 @@ public final class AstOptimizer {
             GotoRemoval.OPTION_REMOVE_REDUNDANT_RETURNS
         );
 
-        if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.CleanUpTryBlocks)) {
+        if (!shouldPerformStep(context, method, timer, abortBeforeStep, AstOptimizationStep.CleanUpTryBlocks)) {
             return;
         }
 
@@ -328,7 +227,7 @@ public final class AstOptimizer {
         // introduction of ternary operators may open up additional inlining possibilities.
         //
 
-        if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.InlineVariables3)) {
+        if (!shouldPerformStep(context, method, timer, abortBeforeStep, AstOptimizationStep.InlineVariables3)) {
             return;
         }
 
@@ -336,7 +235,7 @@ public final class AstOptimizer {
 
         inliningPhase3.inlineAllVariables();
 
-        if (!shouldPerformStep(abortBeforeStep, AstOptimizationStep.TypeInference2)) {
+        if (!shouldPerformStep(context, method, timer, abortBeforeStep, AstOptimizationStep.TypeInference2)) {
             return;
         }
 
@@ -346,6 +245,38 @@ public final class AstOptimizer {
         LOG.fine("Finished bytecode AST optimization.");
     }
 
+    private static boolean shouldPerformStep(
+        final DecompilerContext context,
+        final Block method,
+        final StageTimer timer,
+        final AstOptimizationStep abortBeforeStep,
+        final AstOptimizationStep nextStep) {
+
+        if (!shouldPerformStep(abortBeforeStep, nextStep)) {
+            return false;
+        }
+
+        checkBudget(context, method);
+        timer.start(nextStep.name());
+        return true;
+    }
+
+    /**
+     * Throws a {@link java.util.concurrent.CancellationException} if the method being optimized
+     * has exceeded its time or node budget, or if decompilation has been canceled.
+     *
+     * @see MethodBudget
+     */
+    public static void checkBudget(final DecompilerContext context, final Block method) {
+        context.checkBudget();
+
+        final MethodBudget budget = context.getMethodBudget();
+
+        if (budget != null && budget.isNodeCountDue()) {
+            budget.checkNodeCount(method.getSelfAndChildrenRecursive().size());
+        }
+    }
+
     private static boolean shouldPerformStep(final AstOptimizationStep abortBeforeStep, final AstOptimizationStep nextStep) {
         if (abortBeforeStep == nextStep) {
             return false;
@@ -2374,7 +2305,7 @@ public final class AstOptimizer {
 
         private static Expression simplify(final Expression head, final BooleanBox modified) {
             if (match(head, AstCode.TernaryOp)) {
-                return simplifyTernaryDirect(head);
+                return simplifyTernaryDirect(head, modified);
             }
 
             final List<Expression> arguments = head.getArguments();
@@ -2424,7 +2355,7 @@ public final class AstOptimizer {
                           : condition;
         }
 
-        private static Expression simplifyTernaryDirect(final Expression head) {
+        private static Expression simplifyTernaryDirect(final Expression head, final BooleanBox modified) {
             final List<Expression> a = new ArrayList<>();
 
             final StrongBox<Variable> v;
@@ -2457,6 +2388,7 @@ public final class AstOptimizer {
                     head.getArguments().add(newTernary);
 
                     newTernary.getRanges().addAll(head.getRanges());
+                    modified.set(true);
 
                     return head;
                 }
@@ -2472,6 +2404,7 @@ public final class AstOptimizer {
                     final Expression condition = head.getArguments().get(0);
 
                     condition.getRanges().addAll(head.getRanges());
+                    modified.set(true);
 
                     return invert ? new Expression(AstCode.LogicalNot, null, condition.getOffset(), condition)
                                   : condition;
@@ -2783,6 +2716,8 @@ public final class AstOptimizer {
             final List<Expression> a = new ArrayList<>();
             final StrongBox<TypeReference> arrayType = new StrongBox<>();
 
+            boolean modified = false;
+
             if (matchGetArguments(head, AstCode.Store, v, a) &&
                 matchGetArguments(a.get(0), AstCode.InitArray, arrayType, a)) {
 
@@ -2804,6 +2739,7 @@ public final class AstOptimizer {
 
                         initializers.set(arrayPosition.get(), a.get(2));
                         body.remove(j--);
+                        modified = true;
                     }
                     else {
                         break;
@@ -2811,7 +2747,7 @@ public final class AstOptimizer {
                 }
             }
 
-            return false;
+            return modified;
         }
     }
 
@@ -3540,6 +3476,8 @@ public final class AstOptimizer {
 
                 final DecompilerContext innerContext = new DecompilerContext(context.getSettings());
 
+                innerContext.setCanceled(context.getCanceled());
+                innerContext.setMethodBudget(context.getMethodBudget());
                 innerContext.setCurrentType(resolvedMethod.getDeclaringType());
                 innerContext.setCurrentMethod(resolvedMethod);
 
@@ -3787,6 +3725,251 @@ public final class AstOptimizer {
 
     // </editor-fold>
 
+    // <editor-fold defaultstate="collapsed" desc="Block-Level Optimization Scheduling">
+
+    /**
+     * Runs the block-level optimization steps over every block of a method until none of them can
+     * change the block any further.
+     * <p>
+     * Each block gets full passes over the steps, in their usual order, until a pass makes no
+     * change.  The number of runs and hits (runs which changed something) of each step are logged
+     * at the {@code FINE} level.
+     */
+    private final static class BlockOptimizer {
+        private final static AstOptimizationStep[] STEPS = {
+            AstOptimizationStep.RemoveInnerClassInitSecurityChecks,
+            AstOptimizationStep.PreProcessShortCircuitAssignments,
+            AstOptimizationStep.SimplifyShortCircuit,
+            AstOptimizationStep.JoinBranchConditions,
+            AstOptimizationStep.SimplifyTernaryOperator,
+            AstOptimizationStep.JoinBasicBlocks,
+            AstOptimizationStep.SimplifyLogicalNot,
+            AstOptimizationStep.TransformObjectInitializers,
+            AstOptimizationStep.TransformArrayInitializers,
+            AstOptimizationStep.IntroducePostIncrement,
+            AstOptimizationStep.InlineConditionalAssignments,
+            AstOptimizationStep.MakeAssignmentExpressions,
+            AstOptimizationStep.InlineLambdas,
+            AstOptimizationStep.InlineVariables2,
+            AstOptimizationStep.MergeDisparateObjectInitializations
+        };
+
+        private final DecompilerContext _context;
+        private final Block _method;
+        private final int[] _runCounts = new int[STEPS.length];
+        private final int[] _hitCounts = new int[STEPS.length];
+        private final StageTimer _timer;
+
+        //
+        // The load/store analysis used for inlining covers the whole method, so rather than
+        // analyzing the method again for every inlining run over every block, one analysis is
+        // shared.  Inlining keeps it up to date; it is discarded whenever another step reports a
+        // change to the method.  Every step must therefore report each change it makes.
+        //
+        private Inlining _inlining;
+
+        BlockOptimizer(final DecompilerContext context, final Block method) {
+            _context = context;
+            _method = method;
+            _timer = StageTimer.create(context, DecompilerStage.OptimizeBytecodeAst);
+        }
+
+        /**
+         * Optimizes every block of the method.  Returns {@code false} if optimization must stop
+         * because {@code abortBeforeStep} is one of the block-level steps.
+         */
+        boolean optimize(final AstOptimizationStep abortBeforeStep) {
+            int stepCount = 0;
+
+            while (stepCount < STEPS.length && shouldPerformStep(abortBeforeStep, STEPS[stepCount])) {
+                ++stepCount;
+            }
+
+            if (stepCount < STEPS.length) {
+                //
+                // Stopping partway through the block-level steps means running the steps leading
+                // up to that point once over every block.  Stopping before InlineLambdas ends the
+                // optimization after the first block.
+                //
+                final boolean firstBlockOnly = STEPS[stepCount] == AstOptimizationStep.InlineLambdas;
+
+                for (final Block block : _method.getSelfAndChildrenRecursive(Block.class)) {
+                    for (int i = 0; i < stepCount; i++) {
+                        runStep(i, block);
+                    }
+
+                    if (firstBlockOnly) {
+                        break;
+                    }
+                }
+
+                return false;
+            }
+
+            int blockNumber = 0;
+
+            for (final Block block : _method.getSelfAndChildrenRecursive(Block.class)) {
+                boolean modified;
+                int blockRound = 0;
+
+                ++blockNumber;
+
+                do {
+                    checkBudget(_context, _method);
+
+                    if (LOG.isLoggable(Level.FINER)) {
+                        LOG.finer("Optimizing block #" + blockNumber + ", round " + ++blockRound + "...");
+                    }
+
+                    modified = false;
+
+                    for (int i = 0; i < STEPS.length; i++) {
+                        modified |= runStep(i, block);
+                    }
+                }
+                while (modified);
+            }
+
+            if (LOG.isLoggable(Level.FINE)) {
+                final StringBuilder sb = new StringBuilder("Block-level optimization hits/runs:");
+
+                for (int i = 0; i < STEPS.length; i++) {
+                    sb.append(' ')
+                      .append(STEPS[i])
+                      .append('=')
+                      .append(_hitCounts[i])
+                      .append('/')
+                      .append(_runCounts[i]);
+                }
+
+                LOG.fine(sb.toString());
+            }
+
+            return true;
+        }
+
+        private boolean runStep(final int index, final Block block) {
+            _context.checkBudget();
+
+            ++_runCounts[index];
+            _timer.start(STEPS[index].name());
+
+            try {
+                if (runStep(STEPS[index], block)) {
+                    ++_hitCounts[index];
+                    _timer.addIterations(1);
+                    return true;
+                }
+
+                return false;
+            }
+            finally {
+                _timer.stop();
+            }
+        }
+
+        private boolean runStep(final AstOptimizationStep step, final Block block) {
+            boolean inlined = false;
+            final boolean modified;
+
+            switch (step) {
+                case RemoveInnerClassInitSecurityChecks:
+                    modified = runOptimization(block, new RemoveInnerClassInitSecurityChecksOptimization(_context, _method));
+                    break;
+
+                case PreProcessShortCircuitAssignments:
+                    modified = runOptimization(block, new PreProcessShortCircuitAssignmentsOptimization(_context, _method));
+                    break;
+
+                case SimplifyShortCircuit:
+                    modified = runOptimization(block, new SimplifyShortCircuitOptimization(_context, _method));
+                    break;
+
+                case JoinBranchConditions:
+                    modified = runOptimization(block, new JoinBranchConditionsOptimization(_context, _method));
+                    break;
+
+                case SimplifyTernaryOperator:
+                    modified = runOptimization(block, new SimplifyTernaryOperatorOptimization(_context, _method)) |
+                               runOptimization(block, new SimplifyTernaryOperatorRoundTwoOptimization(_context, _method));
+                    break;
+
+                case JoinBasicBlocks:
+                    modified = runOptimization(block, new JoinBasicBlocksOptimization(_context, _method));
+                    break;
+
+                case SimplifyLogicalNot:
+                    modified = runOptimization(block, new SimplifyLogicalNotOptimization(_context, _method));
+                    break;
+
+                case TransformObjectInitializers:
+                    modified = runOptimization(block, new TransformObjectInitializersOptimization(_context, _method));
+                    break;
+
+                case TransformArrayInitializers:
+                    inlined = getInlining().inlineAllInBlock(block);
+                    modified = runOptimization(block, new TransformArrayInitializersOptimization(_context, _method));
+                    break;
+
+                case IntroducePostIncrement:
+                    modified = runOptimization(block, new IntroducePostIncrementOptimization(_context, _method));
+                    break;
+
+                case InlineConditionalAssignments:
+                    modified = runOptimization(block, new InlineConditionalAssignmentsOptimization(_context, _method));
+                    break;
+
+                case MakeAssignmentExpressions:
+                    modified = runOptimization(block, new MakeAssignmentExpressionsOptimization(_context, _method));
+                    break;
+
+                case InlineLambdas:
+                    modified = runOptimization(block, new InlineLambdasOptimization(_context, _method));
+                    break;
+
+                case InlineVariables2:
+                    inlined = getInlining().inlineAllInBlock(block);
+
+                    //
+                    // Copy propagation has never counted as a change to the block, but the
+                    // inlining analysis must not outlive it.
+                    //
+                    if (new Inlining(_inlining, false).copyPropagation()) {
+                        _inlining = null;
+                    }
+
+                    modified = false;
+                    break;
+
+                case MergeDisparateObjectInitializations:
+                    modified = mergeDisparateObjectInitializations(_context, block);
+                    break;
+
+                default:
+                    throw ContractUtils.unreachable();
+            }
+
+            if (modified) {
+                _inlining = null;
+            }
+
+            return modified || inlined;
+        }
+
+        private Inlining getInlining() {
+            if (_inlining == null) {
+                _inlining = new Inlining(_context, _method, true);
+            }
+            else {
+                assert _inlining.isAnalysisUpToDate() : "A step changed the method without reporting it.";
+            }
+
+            return _inlining;
+        }
+    }
+
+    // </editor-fold>
+
     // <editor-fold defaultstate="collapsed" desc="Optimization Helpers">
 
     private interface BasicBlockOptimization {
@@ -4048,6 +4231,7 @@ public final class AstOptimizer {
                 arguments.set(0, condition.getArguments().get(0));
                 arguments.set(1, arguments.get(2));
                 arguments.set(2, temp);
+                modified.set(true);
             }
         }
 
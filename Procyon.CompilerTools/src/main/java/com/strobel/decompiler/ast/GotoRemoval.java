@@ -20,6 +20,7 @@ import com.strobel.annotations.NotNull;
 import com.strobel.core.CollectionUtilities;
 import com.strobel.core.StrongBox;
 import com.strobel.core.VerifyArgument;
+import com.strobel.decompiler.DecompilerContext;
 import com.strobel.util.ContractUtils;
 
 import java.util.*;
@@ -39,12 +40,18 @@ final class GotoRemoval {
     final Map<Node, Node> nextSibling = new IdentityHashMap<>();
 
     final int options;
+    final DecompilerContext context;
 
     GotoRemoval() {
         this(0);
     }
 
     GotoRemoval(final int options) {
+        this(null, options);
+    }
+
+    GotoRemoval(final DecompilerContext context, final int options) {
+        this.context = context;
         this.options = options;
     }
 
@@ -63,6 +70,10 @@ final class GotoRemoval {
 
             for (final Expression e : method.getSelfAndChildrenRecursive(Expression.class)) {
                 if (e.getCode() == AstCode.Goto) {
+                    if (context != null) {
+                        context.checkBudget();
+                    }
+
                     modified |= trySimplifyGoto(e);
                 }
             }
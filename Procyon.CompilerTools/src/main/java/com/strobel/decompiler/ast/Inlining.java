@@ -63,6 +63,21 @@ final class Inlining {
         analyzeMethod();
     }
 
+    /**
+     * Creates an instance which shares the load/store analysis of {@code other}, rather than
+     * analyzing the method again.  The inlining operations keep the analysis up to date as they
+     * rewrite the method, so it remains valid until some other code changes the method.
+     */
+    Inlining(final Inlining other, final boolean aggressive) {
+        _context = other._context;
+        _method = other._method;
+        _aggressive = aggressive;
+
+        loadCounts = other.loadCounts;
+        storeCounts = other.storeCounts;
+        loads = other.loads;
+    }
+
     // <editor-fold defaultstate="collapsed" desc="Load/Store Analysis">
 
     final void analyzeMethod() {
@@ -120,6 +135,102 @@ final class Inlining {
         }
     }
 
+    /**
+     * Undoes the effect of {@link #analyzeNode} for an expression which is being removed from the
+     * method.
+     */
+    final void removeNode(final Expression e) {
+        if (matchLoadOrRet(e, _tempVariable)) {
+            decrement(loadCounts, _tempVariable.get());
+            removeLoad(_tempVariable.get(), e);
+        }
+        else if (matchStore(e, _tempVariable, _tempExpression)) {
+            decrement(storeCounts, _tempVariable.get());
+        }
+        else if (matchVariableIncDec(e, _tempVariable)) {
+            decrement(loadCounts, _tempVariable.get());
+            decrement(storeCounts, _tempVariable.get());
+            removeLoad(_tempVariable.get(), e);
+        }
+
+        for (final Expression argument : e.getArguments()) {
+            removeNode(argument);
+        }
+    }
+
+    private void removeLoad(final Variable variable, final Expression load) {
+        final List<Expression> variableLoads = loads.get(variable);
+
+        for (int i = 0; i < variableLoads.size(); i++) {
+            if (variableLoads.get(i) == load) {
+                variableLoads.remove(i);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Checks whether the load/store analysis matches a fresh analysis of the method.  Used to
+     * verify that an analysis which is being reused has been kept up to date.
+     */
+    final boolean isAnalysisUpToDate() {
+        final Inlining fresh = new Inlining(_context, _method, _aggressive);
+
+        return haveSameCounts(loadCounts, fresh.loadCounts) &&
+               haveSameCounts(storeCounts, fresh.storeCounts) &&
+               haveSameLoads(loads, fresh.loads);
+    }
+
+    private static boolean haveSameCounts(final Map<Variable, MutableInteger> a, final Map<Variable, MutableInteger> b) {
+        for (final Variable v : a.keySet()) {
+            if (count(a, v) != count(b, v)) {
+                return false;
+            }
+        }
+
+        for (final Variable v : b.keySet()) {
+            if (count(a, v) != count(b, v)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean haveSameLoads(final Map<Variable, List<Expression>> a, final Map<Variable, List<Expression>> b) {
+        for (final Map.Entry<Variable, List<Expression>> entry : a.entrySet()) {
+            if (!b.containsKey(entry.getKey()) && !entry.getValue().isEmpty()) {
+                return false;
+            }
+        }
+
+        for (final Map.Entry<Variable, List<Expression>> entry : b.entrySet()) {
+            final List<Expression> expected = entry.getValue();
+            final List<Expression> actual = a.containsKey(entry.getKey()) ? a.get(entry.getKey()) : null;
+
+            if (actual == null ? !expected.isEmpty() : actual.size() != expected.size()) {
+                return false;
+            }
+
+            for (final Expression load : expected) {
+                if (!containsIdentical(actual, load)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean containsIdentical(final List<Expression> list, final Expression e) {
+        for (final Expression item : list) {
+            if (item == e) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     // </editor-fold>
 
     // <editor-fold defaultstate="collapsed" desc="Inlining">
@@ -153,8 +264,12 @@ final class Inlining {
                 if (matchGetArgument(body.get(0), AstCode.Store, tempVariable, tempExpression) &&
                     matchLoad(tempExpression.get(), v)) {
 
-                    body.remove(0);
+                    removeNode((Expression) body.remove(0));
                     catchBlock.setExceptionVariable(tempVariable.get());
+
+                    decrement(storeCounts, v);
+                    increment(storeCounts, tempVariable.get());
+
                     modified = true;
                 }
             }
@@ -353,7 +468,7 @@ final class Inlining {
                 parentArguments.get(position.getValue()).getRanges()
             );
 
-            parentArguments.set(position.getValue(), inlinedExpression);
+            removeNode(parentArguments.set(position.getValue(), inlinedExpression));
 
             return true;
         }
@@ -516,6 +631,7 @@ final class Inlining {
                 // Remove the store instruction.
                 //
                 body.remove(position);
+                decrement(storeCounts, v);
                 return true;
             }
 
@@ -543,6 +659,7 @@ final class Inlining {
                             load.setOperand(currentVariable);
                             currentLoads.add(load);
                             increment(loadCounts, currentVariable);
+                            decrement(loadCounts, nestedVariable);
                         }
 
                         nestedLoads.clear();
@@ -554,11 +671,23 @@ final class Inlining {
                             load.setOperand(nestedVariable);
                             nestedLoads.add(load);
                             increment(loadCounts, nestedVariable);
+                            decrement(loadCounts, currentVariable);
                         }
 
                         currentLoads.clear();
+
+                        //
+                        // The outer store now assigns the nested variable.
+                        //
+                        decrement(storeCounts, currentVariable);
+                        increment(storeCounts, nestedVariable);
                     }
 
+                    //
+                    // The nested store is removed below.
+                    //
+                    decrement(storeCounts, nestedVariable);
+
                     final Expression nestedValue = single(e.getArguments());
 
                     current.getArguments().set(0, nestedValue);
@@ -585,8 +714,9 @@ final class Inlining {
 
                     storeCounts.get(variable.get()).setValue(0);
                     loadCounts.get(variable.get()).setValue(0);
+                    loads.get(variable.get()).clear();
 
-                    increment(loadCounts, v);
+                    analyzeNode(loadThisInstead);
 
                     return true;
                 }
@@ -602,7 +732,7 @@ final class Inlining {
                     //
                     // Remove the expression completely.
                     //
-                    body.remove(position);
+                    removeNode((Expression) body.remove(position));
                     return true;
                 }
 
@@ -616,6 +746,7 @@ final class Inlining {
                     // Remove the store, but keep the inner expression;
                     //
                     body.set(position, e);
+                    decrement(storeCounts, v);
                     return true;
                 }
             }
@@ -633,7 +764,9 @@ final class Inlining {
     // <editor-fold defaultstate="collapsed" desc="Copy Propagation">
 
     @SuppressWarnings("ConstantConditions")
-    final void copyPropagation() {
+    final boolean copyPropagation() {
+        boolean modified = false;
+
         for (final Block block : _method.getSelfAndChildrenRecursive(Block.class)) {
             final List<Node> body = block.getBody();
 
@@ -696,9 +829,12 @@ final class Inlining {
                     inlineInto(body, i, _aggressive);
 
                     i -= uninlinedArgs.length + 1;
+                    modified = true;
                 }
             }
         }
+
+        return modified;
     }
 
     final boolean canPerformCopyPropagation(final Expression expr, final Variable copyVariable) {
@@ -805,6 +941,14 @@ final class Inlining {
         }
     }
 
+    private static void decrement(final Map<Variable, MutableInteger> map, final Variable variable) {
+        final MutableInteger count = map.get(variable);
+
+        if (count != null && count.getValue() > 0) {
+            count.decrement();
+        }
+    }
+
     private static Iterable<Expression> getParents(final Expression scope, final Map<Expression, Expression> parentLookup, final Expression node) {
         return new Iterable<Expression>() {
             @NotNull
@@ -37,7 +37,6 @@ import static com.strobel.decompiler.ast.PatternMatching.*;
 
 final class LoopsAndConditions {
     private final Map<Label, ControlFlowNode> labelsToNodes = new IdentityHashMap<>();
-    @SuppressWarnings({ "FieldCanBeLocal", "UnusedDeclaration" })
     private final DecompilerContext context;
 
     private int _nextLabelIndex;
@@ -53,6 +52,8 @@ final class LoopsAndConditions {
             return;
         }
 
+        context.checkBudget();
+
         final ControlFlowGraph graph = buildGraph(body, (Label) block.getEntryGoto().getOperand());
 
         graph.computeDominance();
@@ -78,6 +79,8 @@ final class LoopsAndConditions {
             return;
         }
 
+        context.checkBudget();
+
         final ControlFlowGraph graph = buildGraph(body, (Label) block.getEntryGoto().getOperand());
 
         graph.computeDominance();
@@ -255,6 +258,8 @@ final class LoopsAndConditions {
         while (!agenda.isEmpty()) {
             final ControlFlowNode node = agenda.pollFirst();
 
+            context.checkBudget();
+
             //
             // If the node is a loop header...
             //
@@ -702,6 +707,8 @@ final class LoopsAndConditions {
         while (!agenda.isEmpty()) {
             final ControlFlowNode node = agenda.pop();
 
+            context.checkBudget();
+
             if (node == null) {
                 continue;
             }
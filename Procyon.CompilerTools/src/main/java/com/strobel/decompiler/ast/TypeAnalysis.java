@@ -362,6 +362,7 @@ public final class TypeAnalysis {
                     trueForAll(e.dependencies, dependentVariableTypesKnown) &&
                     (e.dependsOnSingleLoad == null || e.dependsOnSingleLoad.getType() != null || ignoreSingleLoadDependencies)) {
 
+                    _context.checkBudget();
                     runInference(e.expression);
                     e.done = true;
                     numberOfExpressionsAlreadyInferred++;
@@ -394,6 +395,7 @@ public final class TypeAnalysis {
             //
             // Infer types for variables.
             //
+            _context.checkBudget();
             inferTypesForVariables(assignVariableTypesBasedOnPartialInformation);
         }
 
@@ -16,6 +16,11 @@ public class TypeDecompilationResults {
      */
     private final List<LineNumberPosition> _lineNumberPositions;
 
+    /**
+     * whether any method ran past its time limit and was emitted as bytecode instead
+     */
+    private final boolean _isMethodTimeLimitExceeded;
+
     /**
      * Constructs decompilation results.
      *
@@ -24,7 +29,24 @@ public class TypeDecompilationResults {
      *     decompilation target language does not support line numbers.
      */
     public TypeDecompilationResults(@Nullable final List<LineNumberPosition> lineNumberPositions) {
+        this(lineNumberPositions, false);
+    }
+
+    /**
+     * Constructs decompilation results.
+     *
+     * @param lineNumberPositions
+     *     the mapping of original to decompiled line numbers, or <code>null</code> if the
+     *     decompilation target language does not support line numbers.
+     * @param isMethodTimeLimitExceeded
+     *     whether any method ran past its time limit and was emitted as bytecode instead.
+     */
+    public TypeDecompilationResults(
+        @Nullable final List<LineNumberPosition> lineNumberPositions,
+        final boolean isMethodTimeLimitExceeded) {
+
         _lineNumberPositions = lineNumberPositions;
+        _isMethodTimeLimitExceeded = isMethodTimeLimitExceeded;
     }
 
     /**
@@ -41,4 +63,13 @@ public class TypeDecompilationResults {
         }
         return Collections.unmodifiableList(_lineNumberPositions);
     }
+
+    /**
+     * Returns whether any method ran past its time limit and was emitted as bytecode instead.
+     * The time taken depends on the load of the machine, so decompiling the type again may
+     * produce different output.
+     */
+    public boolean isMethodTimeLimitExceeded() {
+        return _isMethodTimeLimitExceeded;
+    }
 }
@@ -31,7 +31,9 @@ import com.strobel.core.StringUtilities;
 import com.strobel.core.VerifyArgument;
 import com.strobel.decompiler.DecompilerContext;
 import com.strobel.decompiler.DecompilerSettings;
+import com.strobel.decompiler.DecompilerStage;
 import com.strobel.decompiler.ITextOutput;
+import com.strobel.decompiler.StageTimer;
 import com.strobel.decompiler.ast.TypeAnalysis;
 import com.strobel.decompiler.languages.LineNumberPosition;
 import com.strobel.decompiler.languages.java.JavaOutputVisitor;
@@ -49,6 +51,7 @@ public final class AstBuilder {
     private final CompilationUnit _compileUnit = new CompilationUnit();
     private final Map<String, Reference<TypeDeclaration>> _typeDeclarations = new LinkedHashMap<>();
     private final Map<String, String> _unqualifiedTypeNames = new LinkedHashMap<>();
+    private final Map<MethodDefinition, AstMethodBodyBuilder.PreparedMethodBody> _preparedMethodBodies = new IdentityHashMap<>();
     private final TextNode _packagePlaceholder;
 
     private boolean _decompileMethodBodies = true;
@@ -82,6 +85,14 @@ public final class AstBuilder {
         return _context;
     }
 
+    /**
+     * Returns whether any method built so far ran past its time limit, and was emitted as
+     * bytecode instead.
+     */
+    public final boolean isMethodTimeLimitExceeded() {
+        return _context.isMethodTimeLimitExceeded();
+    }
+
     public final boolean areImportsSuppressed() {
         return _suppressImportsDepth > 0;
     }
@@ -122,7 +133,16 @@ public final class AstBuilder {
     }
 
     public final void addType(final TypeDefinition type) {
-        final TypeDeclaration astType = createType(type);
+        final StageTimer timer = StageTimer.start(_context, DecompilerStage.BuildJavaAst, null);
+        final TypeDeclaration astType;
+
+        try {
+            astType = createType(type);
+        }
+        finally {
+            timer.stop();
+        }
+
         final String packageName = type.getPackageName();
 
         if (_compileUnit.getPackage().isNull() && !StringUtilities.isNullOrWhitespace(packageName)) {
@@ -544,12 +564,38 @@ public final class AstBuilder {
             astType.addChild(createField(field), Roles.TYPE_MEMBER);
         }
 
-        for (final MethodDefinition method : type.getDeclaredMethods()) {
-            if (method.isConstructor()) {
-                astType.addChild(createConstructor(method), Roles.TYPE_MEMBER);
+        final List<MethodDefinition> preparedMethods = new ArrayList<>();
+
+        if (_decompileMethodBodies && _context.getSettings().getDecompileMethodsInParallel()) {
+            for (final MethodDefinition method : type.getDeclaredMethods()) {
+                if (hasDecompiledBody(method)) {
+                    preparedMethods.add(method);
+                }
             }
-            else {
-                astType.addChild(createMethod(method), Roles.TYPE_MEMBER);
+
+            _preparedMethodBodies.putAll(
+                AstMethodBodyBuilder.prepareMethodBodies(_context, preparedMethods)
+            );
+        }
+
+        try {
+            for (final MethodDefinition method : type.getDeclaredMethods()) {
+                if (method.isConstructor()) {
+                    astType.addChild(createConstructor(method), Roles.TYPE_MEMBER);
+                }
+                else {
+                    astType.addChild(createMethod(method), Roles.TYPE_MEMBER);
+                }
+            }
+        }
+        finally {
+            //
+            // Each body is normally taken as its method is created; drop any which were not, so
+            // they are not kept for as long as this builder.  Nested and local types prepare
+            // their own bodies, so only remove this type's.
+            //
+            for (final MethodDefinition method : preparedMethods) {
+                _preparedMethodBodies.remove(method);
             }
         }
 
@@ -671,7 +717,7 @@ public final class AstBuilder {
             }
         }
 
-        if (!method.getDeclaringType().isInterface() || method.isTypeInitializer() || method.isDefault()) {
+        if (hasDecompiledBody(method)) {
             astMethod.setBody(createMethodBody(method, astMethod.getParameters()));
         }
 
@@ -774,6 +820,21 @@ public final class AstBuilder {
         }
     }
 
+    /**
+     * Returns whether the body of {@code method} is decompiled when its declaration is created.
+     * Other than default methods and type initializers, the bodies of interface methods are not.
+     */
+    private static boolean hasDecompiledBody(final MethodDefinition method) {
+        return method.isConstructor() ||
+               !method.getDeclaringType().isInterface() ||
+               method.isTypeInitializer() ||
+               method.isDefault();
+    }
+
+    final AstMethodBodyBuilder.PreparedMethodBody takePreparedMethodBody(final MethodDefinition method) {
+        return _preparedMethodBodies.remove(method);
+    }
+
     private BlockStatement createMethodBody(
         final MethodDefinition method,
         final Iterable<ParameterDeclaration> parameters) {
@@ -841,7 +902,15 @@ public final class AstBuilder {
         }
 
         final JavaOutputVisitor visitor = new JavaOutputVisitor(output, _context.getSettings());
-        _compileUnit.acceptVisitor(visitor, null);
+        final StageTimer timer = StageTimer.start(_context, DecompilerStage.WriteJavaOutput, null);
+
+        try {
+            _compileUnit.acceptVisitor(visitor, null);
+        }
+        finally {
+            timer.stop();
+        }
+
         return visitor.getLineNumberPositions();
     }
 
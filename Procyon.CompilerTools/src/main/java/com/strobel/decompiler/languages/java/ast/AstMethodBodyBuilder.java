@@ -27,7 +27,11 @@ import com.strobel.core.VerifyArgument;
 import com.strobel.decompiler.DecompilationOptions;
 import com.strobel.decompiler.DecompilerContext;
 import com.strobel.decompiler.DecompilerHelpers;
+import com.strobel.decompiler.DecompilerStage;
+import com.strobel.decompiler.MethodBudget;
+import com.strobel.decompiler.MethodTimeLimitException;
 import com.strobel.decompiler.PlainTextOutput;
+import com.strobel.decompiler.StageTimer;
 import com.strobel.decompiler.ast.*;
 import com.strobel.decompiler.ast.Label;
 import com.strobel.decompiler.languages.Languages;
@@ -43,13 +47,22 @@ import javax.lang.model.element.Modifier;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import static com.strobel.core.CollectionUtilities.*;
 
 public class AstMethodBodyBuilder {
+    private final static Logger LOG = Logger.getLogger(AstMethodBodyBuilder.class.getSimpleName());
+
     private final AstBuilder _astBuilder;
     private final MethodDefinition _method;
     private final MetadataParser _parser;
@@ -99,6 +112,9 @@ public class AstMethodBodyBuilder {
             return builder.createMethodBody(parameters);
         }
         catch (Throwable t) {
+            if (t instanceof MethodTimeLimitException) {
+                context.setMethodTimeLimitExceeded(true);
+            }
             return createErrorBlock(astBuilder, context, method, t);
         }
         finally {
@@ -106,6 +122,129 @@ public class AstMethodBodyBuilder {
         }
     }
 
+    /**
+     * Builds and optimizes the bytecode ASTs of the given methods in parallel, each with its own
+     * copy of the decompiler context.  Only the bytecode AST is built here; the Java AST is still
+     * built one method at a time, in declaration order, because it shares the type's imports and
+     * name bindings.  A method which runs over its budget is not retried: it keeps the exception
+     * which stopped it, and is reported in the output like any other failed method.  Methods which
+     * fail for any other reason are logged and left out; they are decompiled again on the calling
+     * thread.
+     */
+    static Map<MethodDefinition, PreparedMethodBody> prepareMethodBodies(
+        final DecompilerContext context,
+        final List<MethodDefinition> methods) {
+
+        VerifyArgument.notNull(context, "context");
+        VerifyArgument.notNull(methods, "methods");
+
+        final Map<MethodDefinition, PreparedMethodBody> preparedBodies = new IdentityHashMap<>();
+
+        if (methods.size() < 2) {
+            return preparedBodies;
+        }
+
+        final List<ForkJoinTask<PreparedMethodBody>> tasks = new ArrayList<>(methods.size());
+
+        for (final MethodDefinition method : methods) {
+            final DecompilerContext methodContext = new DecompilerContext(context.getSettings());
+
+            methodContext.setCanceled(context.getCanceled());
+            methodContext.setCurrentType(context.getCurrentType());
+            methodContext.setCurrentMethod(method);
+
+            tasks.add(
+                ForkJoinTask.adapt(
+                    new Callable<PreparedMethodBody>() {
+                        @Override
+                        public PreparedMethodBody call() {
+                            try {
+                                final MethodBody body = method.getBody();
+                                return body != null ? new PreparedMethodBody(buildOptimizedBody(methodContext, body), null) : null;
+                            }
+                            catch (final CancellationException e) {
+                                return new PreparedMethodBody(null, e);
+                            }
+                            catch (final Throwable t) {
+                                if (LOG.isLoggable(Level.WARNING)) {
+                                    LOG.log(
+                                        Level.WARNING,
+                                        "Could not decompile method " + method.getFullName() + " in parallel; " +
+                                        "decompiling it again on the calling thread.",
+                                        t
+                                    );
+                                }
+                                return null;
+                            }
+                        }
+                    }
+                )
+            );
+        }
+
+        ForkJoinTask.invokeAll(tasks);
+
+        for (int i = 0; i < tasks.size(); i++) {
+            final PreparedMethodBody body = tasks.get(i).join();
+
+            if (body != null) {
+                preparedBodies.put(methods.get(i), body);
+            }
+        }
+
+        return preparedBodies;
+    }
+
+    /**
+     * A method body built by {@link #prepareMethodBodies}: either the optimized bytecode AST, or
+     * the exception which stopped it from being built.
+     */
+    static final class PreparedMethodBody {
+        private final Block _body;
+        private final CancellationException _cancellation;
+
+        PreparedMethodBody(final Block body, final CancellationException cancellation) {
+            _body = body;
+            _cancellation = cancellation;
+        }
+
+        Block getBody() {
+            if (_cancellation != null) {
+                throw _cancellation;
+            }
+
+            return _body;
+        }
+    }
+
+    private static Block buildOptimizedBody(final DecompilerContext context, final MethodBody body) {
+        final Block method = new Block();
+        final MethodBudget oldBudget = context.getMethodBudget();
+
+        context.setMethodBudget(MethodBudget.start(context.getSettings()));
+
+        try {
+            final StageTimer timer = StageTimer.start(context, DecompilerStage.BuildBytecodeAst, null);
+
+            try {
+                method.getBody().addAll(
+                    com.strobel.decompiler.ast.AstBuilder.build(body, true, context)
+                );
+            }
+            finally {
+                timer.stop();
+            }
+
+            AstOptimizer.checkBudget(context, method);
+            AstOptimizer.optimize(context, method);
+        }
+        finally {
+            context.setMethodBudget(oldBudget);
+        }
+
+        return method;
+    }
+
     @SuppressWarnings("ConstantConditions")
     private static BlockStatement createErrorBlock(
         final AstBuilder astBuilder,
@@ -205,13 +344,8 @@ public class AstMethodBodyBuilder {
             return null;
         }
 
-        final Block method = new Block();
-
-        method.getBody().addAll(
-            com.strobel.decompiler.ast.AstBuilder.build(body, true, _context)
-        );
-
-        AstOptimizer.optimize(_context, method);
+        final PreparedMethodBody preparedMethod = _astBuilder.takePreparedMethodBody(_method);
+        final Block method = preparedMethod != null ? preparedMethod.getBody() : buildOptimizedBody(_context, body);
 
         final Set<ParameterDefinition> unmatchedParameters = new LinkedHashSet<>(_method.getParameters());
         final Set<Variable> methodParameters = new LinkedHashSet<>();
@@ -29,10 +29,46 @@ public abstract class ContextTrackingVisitor<TResult> extends DepthFirstAstVisit
     @SuppressWarnings("ProtectedField")
     protected final DecompilerContext context;
 
+    private boolean _rewritingSingleNode;
+
     protected ContextTrackingVisitor(final DecompilerContext context) {
         this.context = VerifyArgument.notNull(context, "context");
     }
 
+    /**
+     * Returns whether this visitor should run at all for the current type.  When this returns
+     * {@code false}, {@link #run(AstNode)} does nothing.
+     */
+    public boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Visits {@code node} alone, without descending into its children, e.g., when the walk over
+     * the tree is driven by {@link com.strobel.decompiler.languages.java.ast.transforms.FusedAstTransform}.
+     * The caller is responsible for keeping the current type and method up to date.
+     */
+    public void rewriteNode(final AstNode node) {
+        final boolean wasRewritingSingleNode = _rewritingSingleNode;
+
+        _rewritingSingleNode = true;
+
+        try {
+            node.acceptVisitor(this, null);
+        }
+        finally {
+            _rewritingSingleNode = wasRewritingSingleNode;
+        }
+    }
+
+    @Override
+    protected TResult visitChildren(final AstNode node, final Void data) {
+        if (_rewritingSingleNode) {
+            return null;
+        }
+        return super.visitChildren(node, data);
+    }
+
     protected final boolean inConstructor() {
         final MethodDefinition currentMethod = context.getCurrentMethod();
         return currentMethod != null && currentMethod.isConstructor();
@@ -43,6 +79,10 @@ public abstract class ContextTrackingVisitor<TResult> extends DepthFirstAstVisit
     }
 
     public TResult visitTypeDeclaration(final TypeDeclaration typeDeclaration, final Void p) {
+        if (_rewritingSingleNode) {
+            return super.visitTypeDeclaration(typeDeclaration, p);
+        }
+
         final TypeDefinition oldType = context.getCurrentType();
         final MethodDefinition oldMethod = context.getCurrentMethod();
 
@@ -58,6 +98,10 @@ public abstract class ContextTrackingVisitor<TResult> extends DepthFirstAstVisit
     }
 
     public TResult visitMethodDeclaration(final MethodDeclaration node, final Void p) {
+        if (_rewritingSingleNode) {
+            return super.visitMethodDeclaration(node, p);
+        }
+
         assert context.getCurrentMethod() == null;
         try {
             context.setCurrentMethod(node.getUserData(Keys.METHOD_DEFINITION));
@@ -69,6 +113,10 @@ public abstract class ContextTrackingVisitor<TResult> extends DepthFirstAstVisit
     }
 
     public TResult visitConstructorDeclaration(final ConstructorDeclaration node, final Void p) {
+        if (_rewritingSingleNode) {
+            return super.visitConstructorDeclaration(node, p);
+        }
+
         assert (context.getCurrentMethod() == null);
         try {
             context.setCurrentMethod(node.getUserData(Keys.METHOD_DEFINITION));
@@ -81,6 +129,8 @@ public abstract class ContextTrackingVisitor<TResult> extends DepthFirstAstVisit
 
     @Override
     public void run(final AstNode compilationUnit) {
-        compilationUnit.acceptVisitor(this, null);
+        if (isEnabled()) {
+            compilationUnit.acceptVisitor(this, null);
+        }
     }
 }
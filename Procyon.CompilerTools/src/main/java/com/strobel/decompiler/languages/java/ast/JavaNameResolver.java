@@ -17,6 +17,7 @@
 package com.strobel.decompiler.languages.java.ast;
 
 import com.strobel.assembler.metadata.*;
+import com.strobel.componentmodel.Key;
 import com.strobel.core.Predicates;
 import com.strobel.core.ReadOnlyList;
 import com.strobel.core.StringUtilities;
@@ -25,13 +26,22 @@ import com.strobel.decompiler.ast.Variable;
 import com.strobel.decompiler.patterns.Pattern;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static com.strobel.core.CollectionUtilities.any;
 
 public final class JavaNameResolver {
+    //
+    // Names which are not declared in the AST are looked up in the metadata of the enclosing type and
+    // its supertypes.  The metadata does not change while a compilation unit is being transformed, so
+    // the results of those searches are remembered on the compilation unit.
+    //
+    private final static Key<Map<ScopeQuery, Set<Object>>> SCOPE_CACHE = Key.create("NameResolverScopeCache");
+
     public static NameResolveResult resolve(final String name, final AstNode node) {
         return new Result(
             NameResolveMode.EXPRESSION,
@@ -86,11 +96,14 @@ public final class JavaNameResolver {
             }
 
             TypeDeclaration lastTypeDeclaration = null;
+            CompilationUnit compilationUnit = null;
 
             final FindDeclarationVisitor visitor = new FindDeclarationVisitor(mode, isStaticContext(node));
 
             while (n != null && !n.isNull()) {
                 if (n instanceof CompilationUnit) {
+                    compilationUnit = (CompilationUnit) n;
+
                     final Set<Object> unitResults = n.acceptVisitor(visitor, name);
 
                     if (!unitResults.isEmpty()) {
@@ -183,14 +196,38 @@ public final class JavaNameResolver {
                 return visitor.searchUpScope(
                     name,
                     lastTypeDeclaration.getUserData(Keys.TYPE_DEFINITION),
-                    new LinkedHashSet<String>(),
-                    true
+                    compilationUnit
                 );
             }
 
             return Collections.emptySet();
         }
 
+        private Set<Object> searchUpScope(final String name, final TypeDefinition type, final CompilationUnit compilationUnit) {
+            if (type == null || compilationUnit == null) {
+                return searchUpScope(name, type, new LinkedHashSet<String>(), true);
+            }
+
+            Map<ScopeQuery, Set<Object>> cache = compilationUnit.getUserData(SCOPE_CACHE);
+
+            if (cache == null) {
+                compilationUnit.putUserData(SCOPE_CACHE, cache = new HashMap<>());
+            }
+
+            final ScopeQuery query = new ScopeQuery(type, name, _mode, _isStaticContext);
+            final Set<Object> cachedResults = cache.get(query);
+
+            if (cachedResults != null) {
+                return cachedResults;
+            }
+
+            final Set<Object> results = searchUpScope(name, type, new LinkedHashSet<String>(), true);
+
+            cache.put(query, results);
+
+            return results;
+        }
+
         private Set<Object> searchUpScope(
             final String name,
             final TypeDefinition type,
@@ -979,4 +1016,45 @@ public final class JavaNameResolver {
             return _mode;
         }
     }
+
+    private final static class ScopeQuery {
+        private final TypeDefinition _type;
+        private final String _name;
+        private final NameResolveMode _mode;
+        private final boolean _isStaticContext;
+
+        ScopeQuery(final TypeDefinition type, final String name, final NameResolveMode mode, final boolean isStaticContext) {
+            _type = type;
+            _name = name;
+            _mode = mode;
+            _isStaticContext = isStaticContext;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof ScopeQuery)) {
+                return false;
+            }
+
+            final ScopeQuery other = (ScopeQuery) o;
+
+            return _type == other._type &&
+                   _mode == other._mode &&
+                   _isStaticContext == other._isStaticContext &&
+                   _name.equals(other._name);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(_type);
+            result = 31 * result + _name.hashCode();
+            result = 31 * result + _mode.hashCode();
+            result = 31 * result + (_isStaticContext ? 1 : 0);
+            return result;
+        }
+    }
 }
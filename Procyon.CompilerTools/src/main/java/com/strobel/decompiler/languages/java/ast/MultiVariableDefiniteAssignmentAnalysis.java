@@ -0,0 +1,904 @@
+/*
+ * MultiVariableDefiniteAssignmentAnalysis.java
+ *
+ * Copyright (c) 2013 Mike Strobel
+ *
+ * This source code is based on Mono.Cecil from Jb Evain, Copyright (c) Jb Evain;
+ * and ILSpy/ICSharpCode from SharpDevelop, Copyright (c) AlphaSierraPapa.
+ *
+ * This source code is subject to terms and conditions of the Apache License, Version 2.0.
+ * A copy of the license can be found in the License.html file at the root of this distribution.
+ * By using this source code in any fashion, you are agreeing to be bound by the terms of the
+ * Apache License, Version 2.0.
+ *
+ * You must not remove this notice, or any other, from this software.
+ */
+
+package com.strobel.decompiler.languages.java.ast;
+
+import com.strobel.core.VerifyArgument;
+import com.strobel.decompiler.DecompilerContext;
+import com.strobel.decompiler.languages.java.analysis.ControlFlowEdge;
+import com.strobel.decompiler.languages.java.analysis.ControlFlowEdgeType;
+import com.strobel.decompiler.languages.java.analysis.ControlFlowGraphBuilder;
+import com.strobel.decompiler.languages.java.analysis.ControlFlowNode;
+import com.strobel.decompiler.languages.java.analysis.ControlFlowNodeType;
+import com.strobel.decompiler.semantics.ResolveResult;
+import com.strobel.functions.Function;
+import com.strobel.util.ContractUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Runs the definite assignment analysis of {@link DefiniteAssignmentAnalysis} for many variables at
+ * once.  The control flow graph is built a single time, and the status of every variable is carried
+ * through it in bit sets, so the cost of the analysis does not grow with the number of variables.
+ * <p>
+ * Each variable has its own analyzed range, and it is reported as having unassigned uses under the
+ * same rules {@link DefiniteAssignmentAnalysis#analyze(String)} applies to a single variable.
+ */
+public class MultiVariableDefiniteAssignmentAnalysis {
+    private final AssignmentVisitor visitor = new AssignmentVisitor();
+    private final ArrayList<AnalysisNode> allNodes = new ArrayList<>();
+    private final LinkedHashMap<Statement, AnalysisNode> beginNodeMap = new LinkedHashMap<>();
+    private final LinkedHashMap<Statement, AnalysisNode> endNodeMap = new LinkedHashMap<>();
+    private final HashMap<ControlFlowEdge, EdgeStatus> edgeStatus = new HashMap<>();
+    private final HashMap<TryCatchStatement, List<ControlFlowEdge>> edgesLeavingTryFinally = new HashMap<>();
+
+    private final ArrayList<String> variableNames = new ArrayList<>();
+    private final ArrayList<AnalysisNode> variableStartNodes = new ArrayList<>();
+    private final ArrayList<AnalysisNode> variableEndNodes = new ArrayList<>();
+    private final HashMap<String, BitSet> variablesByName = new HashMap<>();
+    private final BitSet variablesWithUnassignedUses = new BitSet();
+    private final ArrayDeque<AnalysisNode> nodesWithModifiedInput = new ArrayDeque<>();
+
+    private final Function<AstNode, ResolveResult> resolver;
+
+    private BitSet currentVariables;
+    private boolean analyzed;
+
+    public MultiVariableDefiniteAssignmentAnalysis(final DecompilerContext context, final Statement rootStatement) {
+        this(rootStatement, new JavaResolver(context));
+    }
+
+    public MultiVariableDefiniteAssignmentAnalysis(final Statement rootStatement, final Function<AstNode, ResolveResult> resolver) {
+        VerifyArgument.notNull(rootStatement, "rootStatement");
+        VerifyArgument.notNull(resolver, "resolver");
+
+        this.resolver = resolver;
+
+        final AnalysisGraphBuilder builder = new AnalysisGraphBuilder();
+
+        builder.setEvaluateOnlyPrimitiveConstants(true);
+
+        for (final ControlFlowNode node : builder.buildControlFlowGraph(rootStatement, resolver)) {
+            allNodes.add((AnalysisNode) node);
+        }
+
+        for (int i = 0; i < allNodes.size(); i++) {
+            final AnalysisNode node = allNodes.get(i);
+
+            node.setIndex(i);
+
+            if (node.getType() == ControlFlowNodeType.StartNode ||
+                node.getType() == ControlFlowNodeType.BetweenStatements) {
+
+                //
+                // Anonymous methods have separate control flow graphs, but we also need to analyze those.
+                // Iterate backwards so that anonymous methods are inserted in the correct order.
+                //
+                for (AstNode child = node.getNextStatement().getLastChild(); child != null; child = child.getPreviousSibling()) {
+                    insertAnonymousMethods(i + 1, child, builder);
+                }
+
+                beginNodeMap.put(node.getNextStatement(), node);
+            }
+
+            if (node.getType() == ControlFlowNodeType.BetweenStatements ||
+                node.getType() == ControlFlowNodeType.EndNode) {
+
+                endNodeMap.put(node.getPreviousStatement(), node);
+            }
+        }
+
+        for (final AnalysisNode node : allNodes) {
+            for (final ControlFlowEdge edge : node.getOutgoing()) {
+                edgeStatus.put(edge, new EdgeStatus());
+
+                if (edge.isLeavingTryFinally()) {
+                    for (final TryCatchStatement tryFinally : edge.getTryFinallyStatements()) {
+                        List<ControlFlowEdge> edges = edgesLeavingTryFinally.get(tryFinally);
+
+                        if (edges == null) {
+                            edgesLeavingTryFinally.put(tryFinally, edges = new ArrayList<>());
+                        }
+
+                        edges.add(edge);
+                    }
+                }
+            }
+        }
+    }
+
+    private void insertAnonymousMethods(
+        final int insertPosition,
+        final AstNode node,
+        final ControlFlowGraphBuilder builder) {
+
+        //
+        // Ignore any statements, as those have their own ControlFlowNode and get handled separately.
+        //
+        if (node instanceof Statement) {
+            return;
+        }
+
+        if (node instanceof LambdaExpression) {
+            final LambdaExpression lambda = (LambdaExpression) node;
+
+            if (lambda.getBody() instanceof Statement) {
+                @SuppressWarnings("unchecked")
+                final List<? extends AnalysisNode> nodes = (List) builder.buildControlFlowGraph(
+                    (Statement) lambda.getBody(),
+                    resolver
+                );
+
+                allNodes.addAll(insertPosition, nodes);
+
+                return;
+            }
+        }
+
+        //
+        // Descend into child expressions.  Iterate backwards so that anonymous methods
+        // are inserted in the correct order.
+        //
+        for (AstNode child = node.getLastChild(); child != null; child = child.getPreviousSibling()) {
+            insertAnonymousMethods(insertPosition, child, builder);
+        }
+    }
+
+    /**
+     * Adds a variable to analyze from the start of {@code start} through the end of {@code end}.
+     * Variables are numbered in the order they are added, starting at zero.
+     */
+    public int addVariable(final String name, final Statement start, final Statement end) {
+        VerifyArgument.notNull(name, "name");
+
+        if (analyzed) {
+            throw new IllegalStateException("Variables cannot be added after the analysis has run.");
+        }
+
+        assert beginNodeMap.containsKey(start) && endNodeMap.containsKey(end);
+
+        final AnalysisNode startNode = beginNodeMap.get(start);
+        AnalysisNode endNode = endNodeMap.get(end);
+
+        if (endNode.getType() == ControlFlowNodeType.BetweenStatements) {
+            //
+            // The node after 'end' reads the statement that follows it, which is outside the range.
+            //
+            endNode = allNodes.get(endNode.getIndex() - 1);
+        }
+
+        if (startNode.getIndex() > endNode.getIndex()) {
+            throw new IllegalStateException("The start statement must lexically precede the end statement.");
+        }
+
+        final int variable = variableNames.size();
+
+        variableNames.add(name);
+        variableStartNodes.add(startNode);
+        variableEndNodes.add(endNode);
+
+        BitSet variables = variablesByName.get(name);
+
+        if (variables == null) {
+            variablesByName.put(name, variables = new BitSet());
+        }
+
+        variables.set(variable);
+
+        return variable;
+    }
+
+    public void analyze() {
+        if (analyzed) {
+            return;
+        }
+
+        analyzed = true;
+
+        final int variableCount = variableNames.size();
+
+        for (final AnalysisNode node : allNodes) {
+            node.initialize(variableCount);
+        }
+
+        for (final EdgeStatus status : edgeStatus.values()) {
+            status.initialize(variableCount);
+        }
+
+        //
+        // Each node only accepts input for the variables whose range contains it.
+        //
+        final ArrayList<List<Integer>> rangeStarts = new ArrayList<>();
+        final ArrayList<List<Integer>> rangeEnds = new ArrayList<>();
+
+        for (int i = 0; i < allNodes.size(); i++) {
+            rangeStarts.add(new ArrayList<Integer>());
+            rangeEnds.add(new ArrayList<Integer>());
+        }
+
+        for (int variable = 0; variable < variableCount; variable++) {
+            rangeStarts.get(variableStartNodes.get(variable).getIndex()).add(variable);
+            rangeEnds.get(variableEndNodes.get(variable).getIndex()).add(variable);
+        }
+
+        final BitSet activeVariables = new BitSet(variableCount);
+
+        for (int i = 0; i < allNodes.size(); i++) {
+            for (final int variable : rangeStarts.get(i)) {
+                activeVariables.set(variable);
+            }
+
+            allNodes.get(i).getVariablesInRange().or(activeVariables);
+
+            for (final int variable : rangeEnds.get(i)) {
+                activeVariables.clear(variable);
+            }
+        }
+
+        for (int variable = 0; variable < variableCount; variable++) {
+            final BitSet mask = new BitSet(variableCount);
+
+            mask.set(variable);
+
+            changeNodeStatus(variableStartNodes.get(variable), new BitSet(variableCount), mask);
+        }
+
+        while (!nodesWithModifiedInput.isEmpty()) {
+            final AnalysisNode node = nodesWithModifiedInput.poll();
+            final BitSet mask = node.takeModifiedVariables();
+            final BitSet inputStatus = new BitSet(variableCount);
+
+            inputStatus.set(0, variableCount);
+
+            for (final ControlFlowEdge edge : node.getIncoming()) {
+                final EdgeStatus status = edgeStatus.get(edge);
+                final BitSet assignedOrUnreachable = (BitSet) status.getReached().clone();
+
+                assignedOrUnreachable.flip(0, variableCount);
+                assignedOrUnreachable.or(status.getAssigned());
+                inputStatus.and(assignedOrUnreachable);
+            }
+
+            changeNodeStatus(node, inputStatus, mask);
+        }
+    }
+
+    public boolean hasUnassignedUses(final int variable) {
+        if (!analyzed) {
+            throw new IllegalStateException("The analysis has not run.");
+        }
+
+        return variablesWithUnassignedUses.get(variable);
+    }
+
+    // <editor-fold defaultstate="collapsed" desc="Status Propagation">
+
+    //
+    // A node's status is a pair of bit sets: the variables it has been reached for, and which of
+    // those are definitely assigned.  Only the variables in 'mask' are updated; every other variable
+    // keeps the status it had, just as if it were analyzed on its own.
+    //
+    private void changeNodeStatus(final AnalysisNode node, final BitSet inputStatus, final BitSet mask) {
+        final int variableCount = variableNames.size();
+        final BitSet changed = (BitSet) node.getAssigned().clone();
+
+        changed.xor(inputStatus);
+        changed.or(complement(node.getReached(), variableCount));
+        changed.and(mask);
+
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        node.getReached().or(changed);
+        node.getAssigned().andNot(changed);
+        node.getAssigned().or(and(inputStatus, changed));
+
+        //
+        // Unreached variables are presented to the visitor as definitely assigned so that they never
+        // report uses.
+        //
+        final BitSet status = or(node.getAssigned(), complement(node.getReached(), variableCount));
+        final BitSet previousVariables = currentVariables;
+
+        try {
+            BitSet outputStatus;
+
+            switch (node.getType()) {
+                case StartNode:
+                case BetweenStatements: {
+                    if (!(node.getNextStatement() instanceof IfElseStatement)) {
+                        //
+                        // Definitely assigned variables skip the statement, as they do in the single
+                        // variable analysis.
+                        //
+                        currentVariables = andNot(changed, status);
+                        outputStatus = or(status, clean(node.getNextStatement().acceptVisitor(visitor, plain(status))));
+                        break;
+                    }
+
+                    //
+                    // Fall through to LoopCondition if next statement is If/Else...
+                    //
+                }
+
+                case LoopCondition: {
+                    currentVariables = changed;
+
+                    if (node.getNextStatement() instanceof ForEachStatement) {
+                        final ForEachStatement forEach = (ForEachStatement) node.getNextStatement();
+
+                        outputStatus = or(
+                            clean(forEach.getInExpression().acceptVisitor(visitor, plain(status))),
+                            variablesNamed(forEach.getVariableName())
+                        );
+
+                        break;
+                    }
+
+                    assert node.getNextStatement() instanceof IfElseStatement ||
+                           node.getNextStatement() instanceof WhileStatement ||
+                           node.getNextStatement() instanceof DoWhileStatement ||
+                           node.getNextStatement() instanceof ForStatement;
+
+                    final Expression condition = node.getNextStatement().getChildByRole(Roles.CONDITION);
+                    final Status conditionStatus;
+
+                    if (condition.isNull()) {
+                        conditionStatus = plain(status);
+                    }
+                    else {
+                        conditionStatus = condition.acceptVisitor(visitor, plain(status));
+                    }
+
+                    for (final ControlFlowEdge edge : node.getOutgoing()) {
+                        if (edge.getType() == ControlFlowEdgeType.ConditionTrue) {
+                            changeEdgeStatus(edge, conditionStatus.whenTrue, changed);
+                        }
+                        else if (edge.getType() == ControlFlowEdgeType.ConditionFalse) {
+                            changeEdgeStatus(edge, conditionStatus.whenFalse, changed);
+                        }
+                        else {
+                            changeEdgeStatus(edge, clean(conditionStatus), changed);
+                        }
+                    }
+
+                    return;
+                }
+
+                case EndNode: {
+                    outputStatus = status;
+
+                    if (node.getPreviousStatement().getRole() == TryCatchStatement.FINALLY_BLOCK_ROLE) {
+                        final TryCatchStatement tryFinally = (TryCatchStatement) node.getPreviousStatement().getParent();
+                        final List<ControlFlowEdge> edges = edgesLeavingTryFinally.get(tryFinally);
+
+                        if (edges != null) {
+                            //
+                            // Potentially assigned edges leaving the try block become definitely assigned
+                            // once the finally block assigns the variable.
+                            //
+                            for (final ControlFlowEdge edge : edges) {
+                                final EdgeStatus s = edgeStatus.get(edge);
+                                final BitSet potentiallyAssigned = andNot(s.getReached(), s.getAssigned());
+
+                                potentiallyAssigned.and(changed);
+                                potentiallyAssigned.and(outputStatus);
+
+                                if (!potentiallyAssigned.isEmpty()) {
+                                    changeEdgeStatus(edge, outputStatus, potentiallyAssigned);
+                                }
+                            }
+                        }
+                    }
+
+                    break;
+                }
+
+                default: {
+                    throw ContractUtils.unreachable();
+                }
+            }
+
+            for (final ControlFlowEdge edge : node.getOutgoing()) {
+                changeEdgeStatus(edge, outputStatus, changed);
+            }
+        }
+        finally {
+            currentVariables = previousVariables;
+        }
+    }
+
+    private void changeEdgeStatus(final ControlFlowEdge edge, final BitSet newStatus, final BitSet mask) {
+        final int variableCount = variableNames.size();
+        final EdgeStatus status = edgeStatus.get(edge);
+
+        //
+        // The status cannot change after it is definitely assigned.
+        //
+        final BitSet modified = (BitSet) status.getAssigned().clone();
+
+        modified.xor(newStatus);
+        modified.or(complement(status.getReached(), variableCount));
+        modified.and(mask);
+        modified.andNot(and(status.getReached(), status.getAssigned()));
+
+        if (modified.isEmpty()) {
+            return;
+        }
+
+        status.getReached().or(modified);
+        status.getAssigned().andNot(modified);
+        status.getAssigned().or(and(newStatus, modified));
+
+        final AnalysisNode targetNode = (AnalysisNode) edge.getTo();
+
+        modified.and(targetNode.getVariablesInRange());
+
+        if (!modified.isEmpty() && targetNode.addModifiedVariables(modified)) {
+            nodesWithModifiedInput.add(targetNode);
+        }
+    }
+
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Bit Set Helpers">
+
+    private BitSet variablesNamed(final String name) {
+        final BitSet variables = variablesByName.get(name);
+        return variables != null ? variables : new BitSet();
+    }
+
+    private static BitSet and(final BitSet a, final BitSet b) {
+        final BitSet result = (BitSet) a.clone();
+        result.and(b);
+        return result;
+    }
+
+    private static BitSet andNot(final BitSet a, final BitSet b) {
+        final BitSet result = (BitSet) a.clone();
+        result.andNot(b);
+        return result;
+    }
+
+    private static BitSet or(final BitSet a, final BitSet b) {
+        final BitSet result = (BitSet) a.clone();
+        result.or(b);
+        return result;
+    }
+
+    private static BitSet complement(final BitSet a, final int size) {
+        final BitSet result = (BitSet) a.clone();
+        result.flip(0, size);
+        return result;
+    }
+
+    private static Status plain(final BitSet assigned) {
+        return new Status(assigned, assigned);
+    }
+
+    private static BitSet clean(final Status status) {
+        if (status.whenTrue.equals(status.whenFalse)) {
+            return status.whenTrue;
+        }
+        return and(status.whenTrue, status.whenFalse);
+    }
+
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Constant Evaluation">
+
+    protected ResolveResult evaluateConstant(final Expression e) {
+        return resolver.apply(e);
+    }
+
+    protected Boolean evaluateCondition(final Expression e) {
+        final ResolveResult result = evaluateConstant(e);
+
+        if (result != null && result.isCompileTimeConstant()) {
+            final Object constantValue = result.getConstantValue();
+
+            if (constantValue instanceof Boolean) {
+                return (Boolean) constantValue;
+            }
+
+            return null;
+        }
+
+        return null;
+    }
+
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Status Class">
+
+    //
+    // The variables definitely assigned when an expression is true and when it is false.  Both sets
+    // are equal for a plain status; ASSIGNED_AFTER_TRUE_EXPRESSION is a variable in 'whenTrue' only,
+    // and ASSIGNED_AFTER_FALSE_EXPRESSION is one in 'whenFalse' only.
+    //
+    private final static class Status {
+        final BitSet whenTrue;
+        final BitSet whenFalse;
+
+        Status(final BitSet whenTrue, final BitSet whenFalse) {
+            this.whenTrue = whenTrue;
+            this.whenFalse = whenFalse;
+        }
+    }
+
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Visitor">
+
+    final class AssignmentVisitor extends DepthFirstAstVisitor<Status, Status> {
+        @Override
+        protected Status visitChildren(final AstNode node, final Status data) {
+            Status status = data;
+
+            for (AstNode child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+                assert !(child instanceof Statement);
+
+                if (child instanceof TypeDeclaration) {
+                    //
+                    // Ignore the content of anonymous local types.
+                    //
+                    continue;
+                }
+
+                status = plain(clean(child.acceptVisitor(this, status)));
+            }
+
+            return status;
+        }
+
+        @Override
+        public Status visitLabeledStatement(final LabeledStatement node, final Status data) {
+            return node.getStatement().acceptVisitor(this, data);
+        }
+
+        @Override
+        public Status visitBlockStatement(final BlockStatement node, final Status data) {
+            return data;
+        }
+
+        @Override
+        public Status visitTypeDeclaration(final TypeDeclaration node, final Status data) {
+            return data;
+        }
+
+        @Override
+        public Status visitLocalTypeDeclarationStatement(final LocalTypeDeclarationStatement node, final Status data) {
+            return data;
+        }
+
+        @Override
+        public Status visitVariableInitializer(final VariableInitializer node, final Status data) {
+            if (node.getInitializer().isNull()) {
+                return data;
+            }
+
+            final Status status = node.getInitializer().acceptVisitor(this, data);
+            final BitSet assigned = variablesNamed(node.getName());
+
+            return new Status(or(status.whenTrue, assigned), or(status.whenFalse, assigned));
+        }
+
+        @Override
+        public Status visitSwitchStatement(final SwitchStatement node, final Status data) {
+            return node.getExpression().acceptVisitor(this, data);
+        }
+
+        @Override
+        public Status visitDoWhileStatement(final DoWhileStatement node, final Status data) {
+            return data;
+        }
+
+        @Override
+        public Status visitWhileStatement(final WhileStatement node, final Status data) {
+            return data;
+        }
+
+        @Override
+        public Status visitForStatement(final ForStatement node, final Status data) {
+            return data;
+        }
+
+        @Override
+        public Status visitTryCatchStatement(final TryCatchStatement node, final Status data) {
+            return data;
+        }
+
+        @Override
+        public Status visitForEachStatement(final ForEachStatement node, final Status data) {
+            return data;
+        }
+
+        @Override
+        public Status visitSynchronizedStatement(final SynchronizedStatement node, final Status data) {
+            return node.getExpression().acceptVisitor(this, data);
+        }
+
+        @Override
+        public Status visitAssignmentExpression(final AssignmentExpression node, final Status data) {
+            if (node.getOperator() == AssignmentOperatorType.ASSIGN) {
+                return handleAssignment(node.getLeft(), node.getRight(), data);
+            }
+            else {
+                return visitChildren(node, data);
+            }
+        }
+
+        @Override
+        public Status visitLambdaExpression(final LambdaExpression node, final Status data) {
+            if (node.getBody() instanceof Statement) {
+                changeNodeStatus(beginNodeMap.get(node.getBody()), clean(data), currentVariables);
+            }
+            else {
+                node.getBody().acceptVisitor(this, data);
+            }
+            return data;
+        }
+
+        final Status handleAssignment(final Expression left, final Expression right, final Status initialStatus) {
+            if (left instanceof IdentifierExpression) {
+                //
+                // The assigned variables never read the identifier, and for the rest it passes the
+                // status through unchanged, so it need not be visited.
+                //
+                final BitSet assigned = variablesNamed(((IdentifierExpression) left).getIdentifier());
+                final Status status = right != null ? right.acceptVisitor(this, initialStatus) : initialStatus;
+
+                return plain(or(clean(status), assigned));
+            }
+
+            Status status = left.acceptVisitor(this, initialStatus);
+
+            if (right != null) {
+                status = right.acceptVisitor(this, status);
+            }
+
+            return plain(clean(status));
+        }
+
+        @Override
+        public Status visitParenthesizedExpression(final ParenthesizedExpression node, final Status data) {
+            return node.getExpression().acceptVisitor(this, data);
+        }
+
+        @Override
+        public Status visitBinaryOperatorExpression(final BinaryOperatorExpression node, final Status data) {
+            final BinaryOperatorType operator = node.getOperator();
+
+            if (operator == BinaryOperatorType.LOGICAL_AND) {
+                //
+                // Handle constant left side of && operator.
+                //
+                final Boolean condition = evaluateCondition(node.getLeft());
+
+                if (Boolean.TRUE.equals(condition)) {
+                    return node.getRight().acceptVisitor(this, data);
+                }
+
+                if (Boolean.FALSE.equals(condition)) {
+                    return data;
+                }
+
+                final Status afterLeft = node.getLeft().acceptVisitor(this, data);
+                final Status afterRight = node.getRight().acceptVisitor(this, plain(afterLeft.whenTrue));
+
+                //
+                // A variable is assigned when true if the left side assigns it outright or the right side
+                // assigns it when true; it is assigned when false if the left side assigns it when false
+                // and either also assigns it when true or the right side assigns it when false.
+                //
+                final BitSet whenTrue = and(afterLeft.whenTrue, afterLeft.whenFalse);
+                final BitSet whenFalse = or(afterLeft.whenTrue, afterRight.whenFalse);
+
+                whenTrue.or(afterRight.whenTrue);
+                whenFalse.and(afterLeft.whenFalse);
+
+                return new Status(whenTrue, whenFalse);
+            }
+
+            if (operator == BinaryOperatorType.LOGICAL_OR) {
+                //
+                // Handle constant left side of || operator.
+                //
+                final Boolean condition = evaluateCondition(node.getLeft());
+
+                if (Boolean.FALSE.equals(condition)) {
+                    return node.getRight().acceptVisitor(this, data);
+                }
+
+                if (Boolean.TRUE.equals(condition)) {
+                    return data;
+                }
+
+                final Status afterLeft = node.getLeft().acceptVisitor(this, data);
+                final Status afterRight = node.getRight().acceptVisitor(this, plain(afterLeft.whenFalse));
+
+                final BitSet whenTrue = or(afterLeft.whenFalse, afterRight.whenTrue);
+                final BitSet whenFalse = and(afterLeft.whenTrue, afterLeft.whenFalse);
+
+                whenTrue.and(afterLeft.whenTrue);
+                whenFalse.or(afterRight.whenFalse);
+
+                return new Status(whenTrue, whenFalse);
+            }
+
+            return visitChildren(node, data);
+        }
+
+        @Override
+        public Status visitUnaryOperatorExpression(final UnaryOperatorExpression node, final Status data) {
+            if (node.getOperator() == UnaryOperatorType.NOT) {
+                final Status status = node.getExpression().acceptVisitor(this, data);
+                return new Status(status.whenFalse, status.whenTrue);
+            }
+
+            return visitChildren(node, data);
+        }
+
+        @Override
+        public Status visitConditionalExpression(final ConditionalExpression node, final Status data) {
+            final Boolean condition = evaluateCondition(node.getCondition());
+
+            if (Boolean.TRUE.equals(condition)) {
+                return node.getTrueExpression().acceptVisitor(this, data);
+            }
+
+            if (Boolean.FALSE.equals(condition)) {
+                return node.getFalseExpression().acceptVisitor(this, data);
+            }
+
+            final Status afterCondition = node.getCondition().acceptVisitor(this, data);
+            final BitSet beforeTrue = afterCondition.whenTrue;
+            final BitSet beforeFalse = or(afterCondition.whenTrue, afterCondition.whenFalse);
+
+            //
+            // Like DefiniteAssignmentAnalysis, visit the true expression for both branches so that the
+            // two analyses agree on where initializers are needed.
+            //
+            final Status afterTrue = node.getTrueExpression().acceptVisitor(this, plain(beforeTrue));
+            final Status afterFalse = node.getTrueExpression().acceptVisitor(this, plain(beforeFalse));
+
+            return plain(and(clean(afterTrue), clean(afterFalse)));
+        }
+
+        @Override
+        public Status visitIdentifierExpression(final IdentifierExpression node, final Status data) {
+            if (node.getTypeArguments().isEmpty()) {
+                final BitSet unassigned = andNot(variablesNamed(node.getIdentifier()), and(data.whenTrue, data.whenFalse));
+
+                variablesWithUnassignedUses.or(unassigned);
+            }
+
+            return data;
+        }
+    }
+
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="AnalysisNode Class">
+
+    final static class AnalysisNode extends ControlFlowNode {
+        private int _index;
+        private BitSet _reached;
+        private BitSet _assigned;
+        private BitSet _variablesInRange;
+        private BitSet _modifiedVariables;
+
+        public AnalysisNode(
+            final Statement previousStatement,
+            final Statement nextStatement,
+            final ControlFlowNodeType type) {
+
+            super(previousStatement, nextStatement, type);
+        }
+
+        public int getIndex() {
+            return _index;
+        }
+
+        public void setIndex(final int index) {
+            _index = index;
+        }
+
+        void initialize(final int variableCount) {
+            _reached = new BitSet(variableCount);
+            _assigned = new BitSet(variableCount);
+            _variablesInRange = new BitSet(variableCount);
+            _modifiedVariables = new BitSet(variableCount);
+        }
+
+        BitSet getReached() {
+            return _reached;
+        }
+
+        BitSet getAssigned() {
+            return _assigned;
+        }
+
+        BitSet getVariablesInRange() {
+            return _variablesInRange;
+        }
+
+        //
+        // Returns true if the node was not already waiting to be processed.
+        //
+        boolean addModifiedVariables(final BitSet variables) {
+            final boolean wasEmpty = _modifiedVariables.isEmpty();
+            _modifiedVariables.or(variables);
+            return wasEmpty;
+        }
+
+        BitSet takeModifiedVariables() {
+            final BitSet variables = _modifiedVariables;
+            _modifiedVariables = new BitSet();
+            return variables;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + _index + "] reached=" + _reached + ", assigned=" + _assigned;
+        }
+    }
+
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="EdgeStatus Class">
+
+    final static class EdgeStatus {
+        private BitSet _reached;
+        private BitSet _assigned;
+
+        void initialize(final int variableCount) {
+            _reached = new BitSet(variableCount);
+            _assigned = new BitSet(variableCount);
+        }
+
+        BitSet getReached() {
+            return _reached;
+        }
+
+        BitSet getAssigned() {
+            return _assigned;
+        }
+    }
+
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="AnalysisGraphBuilder Class">
+
+    final static class AnalysisGraphBuilder extends ControlFlowGraphBuilder {
+        @Override
+        protected ControlFlowNode createNode(
+            final Statement previousStatement,
+            final Statement nextStatement,
+            final ControlFlowNodeType type) {
+
+            return new AnalysisNode(previousStatement, nextStatement, type);
+        }
+    }
+
+    // </editor-fold>
+}
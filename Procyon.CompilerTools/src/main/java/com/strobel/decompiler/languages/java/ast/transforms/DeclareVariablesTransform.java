@@ -32,6 +32,7 @@ import javax.lang.model.element.Modifier;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -52,23 +53,24 @@ public class DeclareVariablesTransform implements IAstTransform {
     public void run(final AstNode node) {
         run(node, null);
 
+        final Set<VariableToDeclare> variablesNeedingInitializers = findVariablesNeedingInitializers();
+
         for (final VariableToDeclare v : variablesToDeclare) {
             final Variable variable = v.getVariable();
             final AssignmentExpression replacedAssignment = v.getReplacedAssignment();
 
             if (replacedAssignment == null) {
                 final BlockStatement block = (BlockStatement) v.getInsertionPoint().getParent();
-                final AnalysisResult analysisResult = analyze(v, block);
                 final VariableDeclarationStatement declaration = new VariableDeclarationStatement(v.getType().clone(), v.getName(), Expression.MYSTERY_OFFSET);
 
                 if (variable != null) {
                     declaration.getVariables().firstOrNullObject().putUserData(Keys.VARIABLE, variable);
                 }
 
-                if (analysisResult.isSingleAssignment) {
+                if (isSingleAssignment(v, block)) {
                     declaration.addModifier(Modifier.FINAL);
                 }
-                else if (analysisResult.needsInitializer && variable != null) {
+                else if (variablesNeedingInitializers.contains(v) && variable != null) {
                     declaration.getVariables().firstOrNullObject().setInitializer(
                         AstBuilder.makeDefaultValue(variable.getType())
                     );
@@ -101,7 +103,7 @@ public class DeclareVariablesTransform implements IAstTransform {
                 if (parent.isNull() || parent.getParent() == null) {
                     continue;
                 }
-                final AnalysisResult analysisResult = analyze(v, parent.getParent());
+                final boolean isSingleAssignment = isSingleAssignment(v, parent.getParent());
 
                 right.remove();
                 right.putUserDataIfAbsent(Keys.MEMBER_REFERENCE, replacedAssignment.getUserData(Keys.MEMBER_REFERENCE));
@@ -116,7 +118,7 @@ public class DeclareVariablesTransform implements IAstTransform {
                 declaration.getVariables().add(initializer);
 
                 if (parent instanceof ExpressionStatement) {
-                    if (analysisResult.isSingleAssignment) {
+                    if (isSingleAssignment) {
                         declaration.addModifier(Modifier.FINAL);
                     }
 
@@ -125,7 +127,7 @@ public class DeclareVariablesTransform implements IAstTransform {
                     parent.replaceWith(declaration);
                 }
                 else {
-                    if (analysisResult.isSingleAssignment) {
+                    if (isSingleAssignment) {
                         declaration.addModifier(Modifier.FINAL);
                     }
 
@@ -137,37 +139,70 @@ public class DeclareVariablesTransform implements IAstTransform {
         variablesToDeclare.clear();
     }
 
-    private AnalysisResult analyze(final VariableToDeclare v, final AstNode scope) {
-        final BlockStatement block = v.getBlock();
-        final DefiniteAssignmentAnalysis analysis = new DefiniteAssignmentAnalysis(context, block);
+    private Set<VariableToDeclare> findVariablesNeedingInitializers() {
+        //
+        // Analyze all the declarations in a method body together, using one control flow graph built
+        // before any of them are inserted.  An inserted declaration only assigns its own variable, so
+        // it cannot change the result for any of the others.
+        //
+        final Map<BlockStatement, List<VariableToDeclare>> variablesByBody = new LinkedHashMap<>();
 
-        if (v.getInsertionPoint() != null) {
-            final Statement parentStatement = v.getInsertionPoint();
-            analysis.setAnalyzedRange(parentStatement, block);
-        }
-        else {
-            final ExpressionStatement parentStatement = (ExpressionStatement) v.getReplacedAssignment().getParent();
-            analysis.setAnalyzedRange(parentStatement, block);
+        for (final VariableToDeclare v : variablesToDeclare) {
+            if (v.getReplacedAssignment() != null) {
+                continue;
+            }
+
+            final BlockStatement body = findOutermostBlock(v.getBlock());
+
+            List<VariableToDeclare> variables = variablesByBody.get(body);
+
+            if (variables == null) {
+                variablesByBody.put(body, variables = new ArrayList<>());
+            }
+
+            variables.add(v);
         }
 
-        analysis.analyze(v.getName());
+        final Set<VariableToDeclare> variablesNeedingInitializers = new HashSet<>();
 
-        final boolean needsInitializer = !analysis.getUnassignedVariableUses().isEmpty();
-        final IsSingleAssignmentVisitor isSingleAssignmentVisitor = new IsSingleAssignmentVisitor(v.getName(), v.getReplacedAssignment());
+        for (final Map.Entry<BlockStatement, List<VariableToDeclare>> entry : variablesByBody.entrySet()) {
+            final MultiVariableDefiniteAssignmentAnalysis analysis = new MultiVariableDefiniteAssignmentAnalysis(context, entry.getKey());
+            final List<VariableToDeclare> variables = entry.getValue();
 
-        scope.acceptVisitor(isSingleAssignmentVisitor, null);
+            for (final VariableToDeclare v : variables) {
+                analysis.addVariable(v.getName(), v.getInsertionPoint(), v.getBlock());
+            }
+
+            analysis.analyze();
 
-        return new AnalysisResult(isSingleAssignmentVisitor.isSingleAssignment(), needsInitializer);
+            for (int i = 0; i < variables.size(); i++) {
+                if (analysis.hasUnassignedUses(i)) {
+                    variablesNeedingInitializers.add(variables.get(i));
+                }
+            }
+        }
+
+        return variablesNeedingInitializers;
     }
 
-    private final static class AnalysisResult {
-        final boolean isSingleAssignment;
-        final boolean needsInitializer;
+    private static BlockStatement findOutermostBlock(final BlockStatement block) {
+        BlockStatement outermost = block;
 
-        private AnalysisResult(final boolean singleAssignment, final boolean needsInitializer) {
-            isSingleAssignment = singleAssignment;
-            this.needsInitializer = needsInitializer;
+        for (AstNode n = block.getParent(); n != null && !(n instanceof EntityDeclaration); n = n.getParent()) {
+            if (n instanceof BlockStatement) {
+                outermost = (BlockStatement) n;
+            }
         }
+
+        return outermost;
+    }
+
+    private boolean isSingleAssignment(final VariableToDeclare v, final AstNode scope) {
+        final IsSingleAssignmentVisitor isSingleAssignmentVisitor = new IsSingleAssignmentVisitor(v.getName(), v.getReplacedAssignment());
+
+        scope.acceptVisitor(isSingleAssignmentVisitor, null);
+
+        return isSingleAssignmentVisitor.isSingleAssignment();
     }
 
     private void run(final AstNode node, final DefiniteAssignmentAnalysis daa) {
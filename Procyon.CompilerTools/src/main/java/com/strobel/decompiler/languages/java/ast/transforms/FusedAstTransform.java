@@ -0,0 +1,124 @@
+/*
+ * FusedAstTransform.java
+ *
+ * Copyright (c) 2013 Mike Strobel
+ *
+ * This source code is subject to terms and conditions of the Apache License, Version 2.0.
+ * A copy of the license can be found in the License.html file at the root of this distribution.
+ * By using this source code in any fashion, you are agreeing to be bound by the terms of the
+ * Apache License, Version 2.0.
+ *
+ * You must not remove this notice, or any other, from this software.
+ */
+
+package com.strobel.decompiler.languages.java.ast.transforms;
+
+import com.strobel.core.ArrayUtilities;
+import com.strobel.core.VerifyArgument;
+import com.strobel.decompiler.DecompilerContext;
+import com.strobel.decompiler.languages.java.ast.AstNode;
+import com.strobel.decompiler.languages.java.ast.ContextTrackingVisitor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a sequence of {@link IFusableAstTransform}s in a single walk over the tree.  Each node is
+ * handed to every transform, in order, once all of its children have been visited.
+ *
+ * @author Mike Strobel
+ */
+public final class FusedAstTransform extends ContextTrackingVisitor<Void> {
+    private final static IFusableAstTransform[] EMPTY_TRANSFORMS = new IFusableAstTransform[0];
+
+    private final IFusableAstTransform[] _transforms;
+    private IFusableAstTransform[] _enabledTransforms = EMPTY_TRANSFORMS;
+
+    public FusedAstTransform(final DecompilerContext context, final IFusableAstTransform... transforms) {
+        super(context);
+        _transforms = VerifyArgument.noNullElementsAndNotEmpty(transforms, "transforms").clone();
+    }
+
+    public final List<IFusableAstTransform> getTransforms() {
+        return ArrayUtilities.asUnmodifiableList(_transforms);
+    }
+
+    /**
+     * Returns the names of the fused transforms, e.g., for timing and logging.
+     */
+    public final String getName() {
+        final StringBuilder sb = new StringBuilder();
+
+        for (final IFusableAstTransform transform : _transforms) {
+            if (sb.length() > 0) {
+                sb.append('+');
+            }
+            sb.append(transform.getClass().getSimpleName());
+        }
+
+        return sb.toString();
+    }
+
+    @Override
+    public void run(final AstNode compilationUnit) {
+        final List<IFusableAstTransform> enabledTransforms = new ArrayList<>(_transforms.length);
+
+        for (final IFusableAstTransform transform : _transforms) {
+            if (transform.isEnabled()) {
+                enabledTransforms.add(transform);
+            }
+        }
+
+        if (enabledTransforms.isEmpty()) {
+            return;
+        }
+
+        _enabledTransforms = enabledTransforms.toArray(new IFusableAstTransform[enabledTransforms.size()]);
+
+        try {
+            super.run(compilationUnit);
+        }
+        finally {
+            _enabledTransforms = EMPTY_TRANSFORMS;
+        }
+    }
+
+    @Override
+    protected Void visitChildren(final AstNode node, final Void data) {
+        super.visitChildren(node, data);
+        rewrite(node);
+        return null;
+    }
+
+    private void rewrite(final AstNode node) {
+        AstNode current = node;
+
+        for (final IFusableAstTransform transform : _enabledTransforms) {
+            final AstNode parent = current.getParent();
+            final AstNode previous = current.getPreviousSibling();
+            final AstNode next = current.getNextSibling();
+
+            transform.rewriteNode(current);
+
+            if (current.getParent() == parent) {
+                continue;
+            }
+
+            //
+            // The node was removed or replaced.  A replacement takes the node's place between its
+            // old siblings, and the remaining transforms carry on with it.
+            //
+            if (parent == null) {
+                return;
+            }
+
+            final AstNode replacement = next != null ? next.getPreviousSibling() : parent.getLastChild();
+
+            if (replacement == null || replacement == previous) {
+                return;
+            }
+
+            current = replacement;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * IFusableAstTransform.java
+ *
+ * Copyright (c) 2013 Mike Strobel
+ *
+ * This source code is subject to terms and conditions of the Apache License, Version 2.0.
+ * A copy of the license can be found in the License.html file at the root of this distribution.
+ * By using this source code in any fashion, you are agreeing to be bound by the terms of the
+ * Apache License, Version 2.0.
+ *
+ * You must not remove this notice, or any other, from this software.
+ */
+
+package com.strobel.decompiler.languages.java.ast.transforms;
+
+import com.strobel.decompiler.languages.java.ast.AstNode;
+
+/**
+ * A transform which only rewrites a node once all of its children have been visited, and which
+ * only looks at the node, its subtree, and its immediate surroundings while doing so.  Running
+ * such transforms one node at a time, bottom up, gives the same result as running them one after
+ * another over the whole tree, so {@link TransformationPipeline} runs consecutive fusable
+ * transforms together in a single walk (see {@link FusedAstTransform}).
+ * <p>
+ * When a fusable transform replaces a node, the transforms which follow it are applied to the
+ * replacement, but not to any new nodes below the replacement.
+ * <p>
+ * {@link com.strobel.decompiler.languages.java.ast.ContextTrackingVisitor} provides both methods;
+ * a visitor only needs to declare that it implements this interface.
+ *
+ * @author Mike Strobel
+ */
+public interface IFusableAstTransform extends IAstTransform {
+    /**
+     * Returns whether this transform should run at all for the current type.
+     */
+    boolean isEnabled();
+
+    /**
+     * Applies this transform to {@code node} alone; its children have already been visited.
+     */
+    void rewriteNode(final AstNode node);
+}
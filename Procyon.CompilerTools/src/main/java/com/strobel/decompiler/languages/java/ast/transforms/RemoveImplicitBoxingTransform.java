@@ -29,7 +29,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
-public class RemoveImplicitBoxingTransform extends ContextTrackingVisitor<Void> {
+public class RemoveImplicitBoxingTransform extends ContextTrackingVisitor<Void> implements IFusableAstTransform {
     private final static Set<String> BOX_METHODS;
     private final static Set<String> UNBOX_METHODS;
 
@@ -13,7 +13,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
-public class RewriteBoxingCastsTransform extends ContextTrackingVisitor<Void> {
+public class RewriteBoxingCastsTransform extends ContextTrackingVisitor<Void> implements IFusableAstTransform {
     private static final Map<String, MethodReference> BOX_METHODS;
 
     static {
@@ -58,11 +58,8 @@ public class RewriteBoxingCastsTransform extends ContextTrackingVisitor<Void> {
     }
 
     @Override
-    public void run(final AstNode compilationUnit) {
-        if (context.getCurrentType().getCompilerTarget().boxWithConstructors()) {
-            return;
-        }
-        super.run(compilationUnit);
+    public boolean isEnabled() {
+        return !context.getCurrentType().getCompilerTarget().boxWithConstructors();
     }
 
     @Override
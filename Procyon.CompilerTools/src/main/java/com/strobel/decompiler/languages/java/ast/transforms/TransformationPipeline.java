@@ -18,8 +18,11 @@ package com.strobel.decompiler.languages.java.ast.transforms;
 
 import com.strobel.core.Predicate;
 import com.strobel.decompiler.DecompilerContext;
+import com.strobel.decompiler.DecompilerStage;
+import com.strobel.decompiler.StageTimer;
 import com.strobel.decompiler.languages.java.ast.AstNode;
 
+import java.util.Arrays;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -81,16 +84,70 @@ public final class TransformationPipeline {
             return;
         }
 
-        for (final IAstTransform transform : createPipeline(context)) {
-            if (abortCondition != null && abortCondition.test(transform)) {
-                return;
-            }
+        final StageTimer timer = StageTimer.create(context, DecompilerStage.TransformJavaAst);
+        final IAstTransform[] pipeline = createPipeline(context);
+
+        try {
+            for (int i = 0; i < pipeline.length; i++) {
+                final IAstTransform transform = pipeline[i];
+
+                if (abortCondition != null && abortCondition.test(transform)) {
+                    return;
+                }
+
+                //
+                // Consecutive fusable transforms share a single walk over the tree.
+                //
+                final int groupEnd = findFusableGroupEnd(pipeline, i, abortCondition);
+
+                if (groupEnd - i > 1) {
+                    final FusedAstTransform fused = new FusedAstTransform(
+                        context,
+                        Arrays.copyOfRange(pipeline, i, groupEnd, IFusableAstTransform[].class)
+                    );
+
+                    if (LOG.isLoggable(Level.FINE)) {
+                        LOG.fine("Running fused Java AST transforms: " + fused.getName() + "...");
+                    }
+
+                    timer.start(fused.getName());
+                    fused.run(node);
+
+                    i = groupEnd - 1;
+                    continue;
+                }
+
+                if (LOG.isLoggable(Level.FINE)) {
+                    LOG.fine("Running Java AST transform: " + transform.getClass().getSimpleName() + "...");
+                }
 
-            if (LOG.isLoggable(Level.FINE)) {
-                LOG.fine("Running Java AST transform: " + transform.getClass().getSimpleName() + "...");
+                timer.start(transform.getClass().getSimpleName());
+                transform.run(node);
             }
+        }
+        finally {
+            timer.stop();
+        }
+    }
 
-            transform.run(node);
+    private static int findFusableGroupEnd(
+        final IAstTransform[] pipeline,
+        final int start,
+        final Predicate<IAstTransform> abortCondition) {
+
+        if (!(pipeline[start] instanceof IFusableAstTransform)) {
+            return start + 1;
         }
+
+        int end = start + 1;
+
+        while (end < pipeline.length &&
+               pipeline[end] instanceof IFusableAstTransform &&
+               (abortCondition == null || !abortCondition.test(pipeline[end]))) {
+
+            end++;
+        }
+
+        return end;
     }
 }
@@ -30,7 +30,7 @@ import com.strobel.decompiler.semantics.ResolveResult;
 import java.util.ArrayList;
 import java.util.List;
 
-public class VarArgsTransform extends ContextTrackingVisitor<Void> {
+public class VarArgsTransform extends ContextTrackingVisitor<Void> implements IFusableAstTransform {
     private final JavaResolver _resolver;
 
     public VarArgsTransform(final DecompilerContext context) {
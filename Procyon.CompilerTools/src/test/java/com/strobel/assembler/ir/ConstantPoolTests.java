@@ -0,0 +1,172 @@
+package com.strobel.assembler.ir;
+
+import com.strobel.assembler.metadata.Buffer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class ConstantPoolTests {
+    private final static int THREAD_COUNT = 8;
+
+    private static ConstantPool createPool() {
+        final ConstantPool pool = new ConstantPool();
+
+        final ConstantPool.Utf8StringConstantEntry className = new ConstantPool.Utf8StringConstantEntry(pool, "com/example/Sample");
+        final ConstantPool.TypeInfoEntry type = new ConstantPool.TypeInfoEntry(pool, className.index);
+        final ConstantPool.Utf8StringConstantEntry name = new ConstantPool.Utf8StringConstantEntry(pool, "value");
+        final ConstantPool.Utf8StringConstantEntry descriptor = new ConstantPool.Utf8StringConstantEntry(pool, "J");
+        final ConstantPool.NameAndTypeDescriptorEntry nameAndType = new ConstantPool.NameAndTypeDescriptorEntry(pool, name.index, descriptor.index);
+
+        new ConstantPool.FieldReferenceEntry(pool, type.index, nameAndType.index);
+        new ConstantPool.LongConstantEntry(pool, 0x123456789ABCDEFL);
+        new ConstantPool.DoubleConstantEntry(pool, Math.PI);
+        new ConstantPool.IntegerConstantEntry(pool, 42);
+        new ConstantPool.FloatConstantEntry(pool, 1.5f);
+        new ConstantPool.StringConstantEntry(pool, new ConstantPool.Utf8StringConstantEntry(pool, "hello, world").index);
+
+        return pool;
+    }
+
+    private static Buffer write(final ConstantPool pool) {
+        final Buffer buffer = new Buffer();
+
+        pool.write(buffer);
+        buffer.flip();
+
+        return buffer;
+    }
+
+    private static byte[] toArray(final Buffer buffer) {
+        final byte[] bytes = new byte[buffer.size()];
+
+        buffer.copyTo(0, bytes, 0, bytes.length);
+
+        return bytes;
+    }
+
+    @Test
+    public void testReadPoolMatchesOriginal() {
+        final ConstantPool original = createPool();
+        final ConstantPool pool = ConstantPool.read(write(original));
+
+        assertEquals("com/example/Sample", pool.<ConstantPool.TypeInfoEntry>getEntry(2).getName());
+        assertEquals(0x123456789ABCDEFL, pool.lookupLongConstant(7));
+        assertEquals(Math.PI, pool.lookupDoubleConstant(9), 0d);
+        assertEquals(42, pool.lookupIntegerConstant(11));
+        assertEquals(1.5f, pool.lookupFloatConstant(12), 0f);
+        assertEquals("hello, world", pool.lookupStringConstant(14));
+
+        final ConstantPool.FieldReferenceEntry field = pool.getEntry(6);
+
+        assertEquals("com/example/Sample", field.getClassName());
+        assertEquals("value", field.getNameAndTypeInfo().getName());
+        assertEquals("J", field.getNameAndTypeInfo().getType());
+
+        try {
+            pool.get(8);
+            fail("Expected the slot following a long constant to be unusable.");
+        }
+        catch (final IndexOutOfBoundsException ignored) {
+        }
+
+        final List<ConstantPool.Tag> originalTags = new ArrayList<>();
+        final List<ConstantPool.Tag> tags = new ArrayList<>();
+
+        for (final ConstantPool.Entry entry : original) {
+            originalTags.add(entry != null ? entry.getTag() : null);
+        }
+
+        for (final ConstantPool.Entry entry : pool) {
+            tags.add(entry != null ? entry.getTag() : null);
+        }
+
+        assertEquals(originalTags, tags);
+    }
+
+    @Test
+    public void testWriteRoundTrip() {
+        final byte[] bytes = toArray(write(createPool()));
+        final ConstantPool pool = ConstantPool.read(new Buffer(bytes));
+
+        //
+        // Decode a few entries out of order before writing the pool back out.
+        //
+        pool.lookupStringConstant(14);
+        pool.lookupIntegerConstant(11);
+
+        assertArrayEquals(bytes, toArray(write(pool)));
+    }
+
+    @Test
+    public void testLookupsForWritingFindExistingEntries() {
+        final ConstantPool pool = ConstantPool.read(write(createPool()));
+
+        assertEquals(3, pool.getUtf8StringConstant("value").index);
+        assertEquals(11, pool.getIntegerConstant(42).index);
+        assertEquals(7, pool.getLongConstant(0x123456789ABCDEFL).index);
+
+        final ConstantPool.IntegerConstantEntry added = pool.getIntegerConstant(7);
+
+        assertEquals(15, added.index);
+        assertSame(added, pool.getIntegerConstant(7));
+        assertSame(added, pool.get(15));
+    }
+
+    @Test
+    public void testConcurrentLookupsDecodeEachEntryOnce() throws Throwable {
+        final ConstantPool pool = ConstantPool.read(write(createPool()));
+        final int[] indices = { 1, 2, 3, 4, 5, 6, 7, 9, 11, 12, 13, 14 };
+        final ConstantPool.Entry[][] results = new ConstantPool.Entry[THREAD_COUNT][indices.length];
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final Thread[] threads = new Thread[THREAD_COUNT];
+
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            final int threadIndex = i;
+
+            threads[i] = new Thread(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            start.await();
+
+                            for (int j = 0; j < indices.length; j++) {
+                                final int k = (j + threadIndex) % indices.length;
+                                results[threadIndex][k] = pool.get(indices[k]);
+                            }
+                        }
+                        catch (final Throwable t) {
+                            error.compareAndSet(null, t);
+                        }
+                    }
+                }
+            );
+
+            threads[i].start();
+        }
+
+        start.countDown();
+
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        if (error.get() != null) {
+            throw error.get();
+        }
+
+        for (int i = 0; i < indices.length; i++) {
+            assertEquals(indices[i], results[0][i].index);
+
+            for (int j = 1; j < THREAD_COUNT; j++) {
+                assertSame(results[0][i], results[j][i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.strobel.assembler.metadata;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class BoundedTypeCachePolicyTests {
+    private static final class CountingTypeLoader implements ITypeLoader {
+        final ITypeLoader typeLoader = new ClasspathTypeLoader();
+        final Map<String, Integer> loadCounts = new HashMap<>();
+
+        @Override
+        public synchronized boolean tryLoadType(final String internalName, final Buffer buffer) {
+            final Integer count = loadCounts.get(internalName);
+            loadCounts.put(internalName, count != null ? count + 1 : 1);
+            return typeLoader.tryLoadType(internalName, buffer);
+        }
+
+        synchronized int getLoadCount(final String internalName) {
+            final Integer count = loadCounts.get(internalName);
+            return count != null ? count : 0;
+        }
+    }
+
+    @Test
+    public void testTrimIsNeededOnceLimitIsExceeded() {
+        final BoundedTypeCachePolicy policy = new BoundedTypeCachePolicy(100);
+
+        policy.typeAdded("a/A", 40);
+        policy.typeAdded("a/B", 40);
+
+        assertFalse(policy.isTrimNeeded());
+
+        policy.typeAdded("a/C", 40);
+
+        assertEquals(120, policy.getTotalWeight());
+        assertTrue(policy.isTrimNeeded());
+
+        policy.cacheTrimmed();
+
+        assertEquals(0, policy.getTotalWeight());
+        assertFalse(policy.isTrimNeeded());
+    }
+
+    @Test
+    public void testJdkTypesArePinned() {
+        final BoundedTypeCachePolicy policy = new BoundedTypeCachePolicy(10);
+
+        assertTrue(policy.isPinned("java/lang/Object"));
+        assertTrue(policy.isPinned("javax/swing/JFrame"));
+        assertFalse(policy.isPinned("a/A"));
+    }
+
+    @Test
+    public void testPlatformTypesMatchDefaultPinnedTypes() {
+        final BoundedTypeCachePolicy policy = new BoundedTypeCachePolicy(10);
+
+        for (final String name : new String[] { "java/lang/Object", "jdk/internal/misc/Unsafe", "com/sun/net/Foo", "a/A", "com/A" }) {
+            assertEquals(name, policy.isPinned(name), BoundedTypeCachePolicy.isPlatformType(name));
+        }
+    }
+
+    @Test
+    public void testMetadataSystemReleasesUnpinnedTypesWhenTrimmed() {
+        final CountingTypeLoader typeLoader = new CountingTypeLoader();
+        final MetadataSystem metadataSystem = new MetadataSystem(typeLoader, new BoundedTypeCachePolicy(1, "java/lang/"));
+
+        final TypeDefinition arrayList = metadataSystem.resolveType("java/util/ArrayList", false);
+        final TypeDefinition string = metadataSystem.resolveType("java/lang/String", false);
+
+        assertNotNull(arrayList);
+        assertNotNull(string);
+
+        //
+        // Nothing is released until the owner trims the cache.
+        //
+        assertSame(arrayList, metadataSystem.resolveType("java/util/ArrayList", false));
+        assertTrue(metadataSystem.isTrimNeeded());
+        assertTrue(metadataSystem.trimCache());
+        assertFalse(metadataSystem.isTrimNeeded());
+
+        final TypeDefinition reloadedArrayList = metadataSystem.resolveType("java/util/ArrayList", false);
+
+        assertNotNull(reloadedArrayList);
+        assertNotSame(arrayList, reloadedArrayList);
+        assertSame(string, metadataSystem.resolveType("java/lang/String", false));
+
+        assertEquals(2, typeLoader.getLoadCount("java/util/ArrayList"));
+        assertEquals(1, typeLoader.getLoadCount("java/lang/String"));
+    }
+
+    @Test
+    public void testMetadataSystemKeepsTypesWithinLimit() {
+        final CountingTypeLoader typeLoader = new CountingTypeLoader();
+        final MetadataSystem metadataSystem = new MetadataSystem(typeLoader, new BoundedTypeCachePolicy(1024 * 1024));
+        final TypeDefinition type = metadataSystem.resolveType("com/strobel/assembler/metadata/BoundedTypeCachePolicy", false);
+
+        assertNotNull(type);
+        assertFalse(metadataSystem.trimCache());
+        assertSame(type, metadataSystem.resolveType("com/strobel/assembler/metadata/BoundedTypeCachePolicy", false));
+        assertEquals(1, typeLoader.getLoadCount("com/strobel/assembler/metadata/BoundedTypeCachePolicy"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.strobel.assembler.metadata;
+
+import org.junit.Test;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class BufferTests {
+    private static ByteBuffer directBuffer(final byte... bytes) {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 2);
+
+        buffer.put((byte) 0x7F);
+        buffer.put(bytes);
+        buffer.put((byte) 0x7F);
+        buffer.flip();
+        buffer.get();
+        buffer.limit(buffer.limit() - 1);
+
+        return buffer.asReadOnlyBuffer();
+    }
+
+    @Test
+    public void testReadsWrappedSliceInPlace() {
+        final ByteBuffer source = directBuffer((byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, (byte) 0x00, (byte) 0x03, (byte) 'a', (byte) 'b', (byte) 'c');
+        final Buffer buffer = new Buffer(source);
+
+        assertTrue(buffer.isWrapped());
+        assertEquals(9, buffer.size());
+        assertEquals(0xCAFEBABE, buffer.readInt());
+        assertEquals("abc", buffer.readUtf8());
+        assertEquals(1, source.position());
+
+        try {
+            buffer.readByte();
+            fail("Expected an underflow.");
+        }
+        catch (final BufferUnderflowException ignored) {
+        }
+    }
+
+    @Test
+    public void testWritingToWrappedBufferCopiesIt() {
+        final ByteBuffer source = directBuffer((byte) 1, (byte) 2, (byte) 3);
+        final Buffer buffer = new Buffer(source);
+
+        buffer.position(3);
+        buffer.writeByte(4);
+
+        assertFalse(buffer.isWrapped());
+        assertEquals(4, buffer.size());
+
+        buffer.position(0);
+
+        assertEquals(0x01020304, buffer.readInt());
+        assertEquals(3, source.remaining());
+    }
+
+    @Test
+    public void testResetDropsWrappedSource() {
+        final Buffer buffer = new Buffer(0);
+
+        buffer.wrap(directBuffer((byte) 1, (byte) 2));
+        buffer.reset(4);
+
+        assertFalse(buffer.isWrapped());
+        assertEquals(4, buffer.size());
+        assertEquals(4, buffer.array().length);
+    }
+}
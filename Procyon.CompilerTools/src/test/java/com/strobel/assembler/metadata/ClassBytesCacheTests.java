@@ -0,0 +1,91 @@
+package com.strobel.assembler.metadata;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ClassBytesCacheTests {
+    private static final class CountingTypeLoader implements ITypeLoader {
+        final ITypeLoader typeLoader = new ClasspathTypeLoader();
+        final Map<String, Integer> loadCounts = new HashMap<>();
+
+        @Override
+        public synchronized boolean tryLoadType(final String internalName, final Buffer buffer) {
+            final Integer count = loadCounts.get(internalName);
+            loadCounts.put(internalName, count != null ? count + 1 : 1);
+            return typeLoader.tryLoadType(internalName, buffer);
+        }
+
+        synchronized int getLoadCount(final String internalName) {
+            final Integer count = loadCounts.get(internalName);
+            return count != null ? count : 0;
+        }
+    }
+
+    private static int loadAllBodies(final TypeDefinition type) {
+        int bodies = 0;
+
+        for (final MethodDefinition method : type.getDeclaredMethods()) {
+            if (!method.isAbstract() && !Flags.testAny(method.getFlags(), Flags.NATIVE) && method.getBody() != null) {
+                bodies++;
+            }
+        }
+
+        return bodies;
+    }
+
+    @Test
+    public void testMethodBodiesAreReadFromCachedClassFile() {
+        final CountingTypeLoader typeLoader = new CountingTypeLoader();
+        final MetadataSystem metadataSystem = new MetadataSystem(typeLoader);
+
+        metadataSystem.setClassFileCacheSize(1024 * 1024);
+
+        final TypeDefinition type = metadataSystem.resolveType("java/util/ArrayList", false);
+
+        assertNotNull(type);
+        assertTrue(loadAllBodies(type) > 1);
+        assertEquals(1, typeLoader.getLoadCount("java/util/ArrayList"));
+    }
+
+    @Test
+    public void testMethodBodiesAreReloadedWithoutCache() {
+        final CountingTypeLoader typeLoader = new CountingTypeLoader();
+        final MetadataSystem metadataSystem = new MetadataSystem(typeLoader);
+        final TypeDefinition type = metadataSystem.resolveType("java/util/ArrayList", false);
+
+        assertNotNull(type);
+
+        final int bodies = loadAllBodies(type);
+
+        assertTrue(bodies > 1);
+        assertEquals(1 + bodies, typeLoader.getLoadCount("java/util/ArrayList"));
+    }
+
+    @Test
+    public void testEvictedClassFilesAreLoadedAgain() {
+        final CountingTypeLoader typeLoader = new CountingTypeLoader();
+        final MetadataSystem metadataSystem = new MetadataSystem(typeLoader);
+
+        metadataSystem.setClassFileCacheSize(1);
+
+        final TypeDefinition arrayList = metadataSystem.resolveType("java/util/ArrayList", false);
+        final TypeDefinition hashMap = metadataSystem.resolveType("java/util/HashMap", false);
+
+        assertNotNull(arrayList);
+        assertNotNull(hashMap);
+
+        //
+        // Only the most recently loaded class file is kept.
+        //
+        final int hashMapLoads = typeLoader.getLoadCount("java/util/HashMap");
+
+        assertTrue(loadAllBodies(hashMap) > 1);
+        assertEquals(hashMapLoads, typeLoader.getLoadCount("java/util/HashMap"));
+        assertTrue(loadAllBodies(arrayList) > 1);
+        assertTrue(typeLoader.getLoadCount("java/util/ArrayList") > 1);
+    }
+}
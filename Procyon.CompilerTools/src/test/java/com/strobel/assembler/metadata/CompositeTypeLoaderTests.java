@@ -0,0 +1,65 @@
+package com.strobel.assembler.metadata;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CompositeTypeLoaderTests {
+    private static byte[] loadClassBytes(final String internalName) {
+        final Buffer buffer = new Buffer();
+
+        assertTrue(internalName, new ClasspathTypeLoader().tryLoadType(internalName, buffer));
+
+        final byte[] bytes = new byte[buffer.size()];
+
+        buffer.copyTo(0, bytes, 0, bytes.length);
+
+        return bytes;
+    }
+
+    private final static class RecordingTypeLoader implements ITypeLoader {
+        final List<String> requests = new ArrayList<>();
+
+        @Override
+        public boolean tryLoadType(final String internalName, final Buffer buffer) {
+            requests.add(internalName);
+            return false;
+        }
+    }
+
+    @Test
+    public void testIndexedLoadersAreOnlyAskedForTheirTypes() {
+        final RecordingTypeLoader fallback = new RecordingTypeLoader();
+        final ArrayTypeLoader arrayLoader = new ArrayTypeLoader(loadClassBytes("java/util/ArrayList"));
+        final CompositeTypeLoader typeLoader = new CompositeTypeLoader(arrayLoader, fallback);
+
+        assertTrue(typeLoader.tryLoadType("java/util/ArrayList", new Buffer()));
+        assertFalse(typeLoader.tryLoadType("java/util/HashMap", new Buffer()));
+
+        assertEquals(1, fallback.requests.size());
+        assertEquals("java/util/HashMap", fallback.requests.get(0));
+
+        assertTrue(arrayLoader.mayContainType("java/util/ArrayList"));
+        assertFalse(arrayLoader.mayContainType("java/util/HashMap"));
+    }
+
+    @Test
+    public void testMayContainTypeWithUnindexedLoaders() {
+        final ArrayTypeLoader arrayLoader = new ArrayTypeLoader(loadClassBytes("java/util/ArrayList"));
+
+        assertFalse(new CompositeTypeLoader(arrayLoader).mayContainType("java/util/HashMap"));
+        assertTrue(new CompositeTypeLoader(arrayLoader, new RecordingTypeLoader()).mayContainType("java/util/HashMap"));
+    }
+
+    @Test
+    public void testClasspathLoaderRemembersMissingTypes() {
+        final ClasspathTypeLoader typeLoader = new ClasspathTypeLoader();
+
+        assertFalse(typeLoader.tryLoadType("com/strobel/DoesNotExist", new Buffer()));
+        assertFalse(typeLoader.tryLoadType("com/strobel/DoesNotExist", new Buffer()));
+        assertTrue(typeLoader.tryLoadType("java/lang/String", new Buffer()));
+    }
+}
@@ -0,0 +1,120 @@
+package com.strobel.assembler.metadata;
+
+import com.strobel.assembler.ir.attributes.AnnotationsAttribute;
+import com.strobel.assembler.ir.attributes.AttributeNames;
+import com.strobel.assembler.ir.attributes.BlobAttribute;
+import com.strobel.assembler.ir.attributes.SourceAttribute;
+import com.strobel.assembler.metadata.annotations.CustomAnnotation;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@SuppressWarnings("DeprecatedIsStillUsed")
+public class DeferredAnnotationsTests {
+    private final static String ANNOTATED_TYPE = "com/strobel/assembler/metadata/DeferredAnnotationsTests$Annotated";
+
+    @Deprecated
+    static class Annotated {
+        @Deprecated
+        int field;
+
+        @Deprecated
+        void method(final int unannotated, @Deprecated final int annotated) {
+        }
+    }
+
+    private static TypeDefinition readEagerly() {
+        final Buffer buffer = new Buffer(0);
+
+        assertTrue(new ClasspathTypeLoader().tryLoadType(ANNOTATED_TYPE, buffer));
+
+        return ClassFileReader.readClass(ClassFileReader.OPTIONS_DEFAULT, new MetadataSystem(), buffer);
+    }
+
+    private static List<String> describe(final TypeDefinition type) {
+        final List<String> annotations = new ArrayList<>();
+
+        describe(annotations, type.getName(), type.getAnnotations());
+
+        for (final FieldDefinition field : type.getDeclaredFields()) {
+            describe(annotations, field.getName(), field.getAnnotations());
+        }
+
+        for (final MethodDefinition method : type.getDeclaredMethods()) {
+            describe(annotations, method.getName(), method.getAnnotations());
+
+            for (final ParameterDefinition parameter : method.getParameters()) {
+                describe(annotations, method.getName() + "#" + parameter.getPosition(), parameter.getAnnotations());
+            }
+        }
+
+        return annotations;
+    }
+
+    private static void describe(final List<String> output, final String owner, final List<CustomAnnotation> annotations) {
+        for (final CustomAnnotation annotation : annotations) {
+            output.add(owner + ": " + annotation.getAnnotationType().getInternalName());
+        }
+    }
+
+    @Test
+    public void testAnnotationsAreNotParsedUntilRequested() {
+        final MetadataSystem metadataSystem = new MetadataSystem();
+        final TypeDefinition type = metadataSystem.resolveType(ANNOTATED_TYPE, false);
+
+        assertNotNull(type);
+
+        assertTrue(
+            SourceAttribute.find(AttributeNames.RuntimeVisibleAnnotations, type.getSourceAttributesInternal()) instanceof BlobAttribute
+        );
+
+        assertEquals(1, type.getAnnotations().size());
+
+        assertTrue(
+            SourceAttribute.find(AttributeNames.RuntimeVisibleAnnotations, type.getSourceAttributesInternal()) instanceof AnnotationsAttribute
+        );
+    }
+
+    @Test
+    public void testDeferredAnnotationsMatchEagerlyReadAnnotations() {
+        final MetadataSystem metadataSystem = new MetadataSystem();
+        final TypeDefinition type = metadataSystem.resolveType(ANNOTATED_TYPE, false);
+        final List<String> expected = describe(readEagerly());
+
+        assertEquals(4, expected.size());
+        assertEquals(expected, describe(type));
+    }
+
+    @Test
+    public void testParameterAnnotationsAreLoadedWithoutTheirMethod() {
+        final MetadataSystem metadataSystem = new MetadataSystem();
+        final TypeDefinition type = metadataSystem.resolveType(ANNOTATED_TYPE, false);
+
+        for (final MethodDefinition method : type.getDeclaredMethods()) {
+            if ("method".equals(method.getName())) {
+                assertTrue(method.getParameters().get(0).getAnnotations().isEmpty());
+                assertEquals(1, method.getParameters().get(1).getAnnotations().size());
+                return;
+            }
+        }
+
+        fail("Method not found.");
+    }
+
+    @Test
+    public void testSourceAttributesAreInflatedOnAccess() {
+        final MetadataSystem metadataSystem = new MetadataSystem();
+        final TypeDefinition type = metadataSystem.resolveType(ANNOTATED_TYPE, false);
+
+        final SourceAttribute attribute = SourceAttribute.find(
+            AttributeNames.RuntimeVisibleAnnotations,
+            type.getSourceAttributes()
+        );
+
+        assertTrue(attribute instanceof AnnotationsAttribute);
+        assertEquals(1, ((AnnotationsAttribute) attribute).getAnnotations().length);
+    }
+}
@@ -0,0 +1,74 @@
+package com.strobel.assembler.metadata;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class JrtTypeLoaderTests {
+    private final static File JAVA_HOME = new File(System.getProperty("java.home"));
+
+    private static byte[] loadClassBytes(final ITypeLoader typeLoader, final String internalName) {
+        final Buffer buffer = new Buffer();
+
+        assertTrue(internalName, typeLoader.tryLoadType(internalName, buffer));
+        assertEquals(0, buffer.position());
+
+        final byte[] bytes = new byte[buffer.size()];
+
+        buffer.copyTo(0, bytes, 0, bytes.length);
+
+        return bytes;
+    }
+
+    private static void assertLoadsPlatformClasses(final IIndexedTypeLoader typeLoader) {
+        final ClasspathTypeLoader classpathLoader = new ClasspathTypeLoader();
+
+        for (final String internalName : Arrays.asList("java/lang/String", "java/util/Map$Entry", "java/sql/Date")) {
+            assertTrue(internalName, typeLoader.mayContainType(internalName));
+            assertArrayEquals(internalName, loadClassBytes(classpathLoader, internalName), loadClassBytes(typeLoader, internalName));
+        }
+
+        assertFalse(typeLoader.mayContainType("com/strobel/assembler/metadata/JrtTypeLoaderTests"));
+        assertFalse(typeLoader.tryLoadType("com/strobel/assembler/metadata/JrtTypeLoaderTests", new Buffer()));
+
+        assertTrue(typeLoader.mayContainType("java/lang/DoesNotExist"));
+        assertFalse(typeLoader.tryLoadType("java/lang/DoesNotExist", new Buffer()));
+    }
+
+    @Test
+    public void testRunningJdkImage() throws IOException {
+        assumeTrue(JrtTypeLoader.hasRuntimeImage(JAVA_HOME));
+
+        try (final JrtTypeLoader typeLoader = new JrtTypeLoader()) {
+            assertLoadsPlatformClasses(typeLoader);
+        }
+    }
+
+    @Test
+    public void testJdkImageByPath() throws IOException {
+        assumeTrue(JrtTypeLoader.hasRuntimeImage(JAVA_HOME));
+
+        try (final JrtTypeLoader typeLoader = new JrtTypeLoader(JAVA_HOME)) {
+            assertLoadsPlatformClasses(typeLoader);
+        }
+    }
+
+    @Test
+    public void testJdkModuleFiles() throws IOException {
+        assumeTrue(JmodTypeLoader.hasModuleFiles(JAVA_HOME));
+
+        try (final JmodTypeLoader typeLoader = new JmodTypeLoader(new File(JAVA_HOME, "jmods"))) {
+            assertLoadsPlatformClasses(typeLoader);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testMissingRuntimeImage() throws IOException {
+        new JrtTypeLoader(new File(JAVA_HOME, "does-not-exist")).close();
+    }
+}
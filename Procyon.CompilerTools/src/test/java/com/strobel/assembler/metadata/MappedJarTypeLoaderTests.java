@@ -0,0 +1,153 @@
+package com.strobel.assembler.metadata;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.*;
+
+public class MappedJarTypeLoaderTests {
+    private static byte[] loadClassBytes(final String internalName) {
+        final Buffer buffer = new Buffer();
+
+        assertTrue(internalName, new ClasspathTypeLoader().tryLoadType(internalName, buffer));
+
+        return Arrays.copyOf(buffer.array(), buffer.size());
+    }
+
+    private static void addEntry(final ZipOutputStream output, final String name, final byte[] data, final boolean stored) throws IOException {
+        final ZipEntry entry = new ZipEntry(name);
+
+        if (stored) {
+            final CRC32 crc = new CRC32();
+
+            crc.update(data);
+
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(data.length);
+            entry.setCompressedSize(data.length);
+            entry.setCrc(crc.getValue());
+        }
+
+        output.putNextEntry(entry);
+        output.write(data);
+        output.closeEntry();
+    }
+
+    private static File createJar(final String comment) throws IOException {
+        final File file = File.createTempFile("procyon-mapped", ".jar");
+
+        file.deleteOnExit();
+
+        try (final ZipOutputStream output = new ZipOutputStream(new FileOutputStream(file))) {
+            addEntry(output, "META-INF/MANIFEST.MF", "Manifest-Version: 1.0\n".getBytes("UTF-8"), false);
+            addEntry(output, "java/lang/String.class", loadClassBytes("java/lang/String"), false);
+            addEntry(output, "java/util/ArrayList.class", loadClassBytes("java/util/ArrayList"), true);
+            addEntry(output, "misnamed/Map.class", loadClassBytes("java/util/HashMap"), false);
+
+            if (comment != null) {
+                output.setComment(comment);
+            }
+        }
+
+        return file;
+    }
+
+    private static Buffer assertLoads(final MappedJarTypeLoader typeLoader, final String internalName, final byte[] expected) {
+        final Buffer buffer = new Buffer();
+
+        assertTrue(internalName, typeLoader.tryLoadType(internalName, buffer));
+        assertEquals(internalName, 0, buffer.position());
+
+        final byte[] actual = new byte[buffer.size()];
+
+        buffer.copyTo(0, actual, 0, actual.length);
+        assertArrayEquals(internalName, expected, actual);
+
+        return buffer;
+    }
+
+    @Test
+    public void testLoadsStoredAndDeflatedEntries() throws IOException {
+        try (final MappedJarTypeLoader typeLoader = new MappedJarTypeLoader(createJar(null))) {
+            assertFalse(assertLoads(typeLoader, "java/lang/String", loadClassBytes("java/lang/String")).isWrapped());
+            assertTrue(assertLoads(typeLoader, "java/util/ArrayList", loadClassBytes("java/util/ArrayList")).isWrapped());
+            assertFalse(typeLoader.tryLoadType("java/util/List", new Buffer()));
+            assertFalse(typeLoader.tryLoadType("META-INF/MANIFEST", new Buffer()));
+        }
+    }
+
+    @Test
+    public void testReadsClassFromMappedEntry() throws IOException {
+        try (final MappedJarTypeLoader typeLoader = new MappedJarTypeLoader(createJar(null))) {
+            final MetadataSystem metadataSystem = new MetadataSystem(typeLoader);
+            final TypeDefinition type = metadataSystem.resolveType("java/util/ArrayList", false);
+
+            assertNotNull(type);
+            assertEquals("java.util.ArrayList", type.getFullName());
+            assertFalse(type.getDeclaredMethods().isEmpty());
+        }
+    }
+
+    @Test
+    public void testFindsCentralDirectoryAfterComment() throws IOException {
+        try (final MappedJarTypeLoader typeLoader = new MappedJarTypeLoader(createJar("A comment which is not a PK\u0005\u0006 header."))) {
+            assertLoads(typeLoader, "java/lang/String", loadClassBytes("java/lang/String"));
+        }
+    }
+
+    @Test
+    public void testResolvesMisnamedClassesAfterFirstLoad() throws IOException {
+        try (final MappedJarTypeLoader typeLoader = new MappedJarTypeLoader(createJar(null))) {
+            assertFalse(typeLoader.tryLoadType("java/util/HashMap", new Buffer()));
+            assertLoads(typeLoader, "misnamed/Map", loadClassBytes("java/util/HashMap"));
+            assertLoads(typeLoader, "java/util/HashMap", loadClassBytes("java/util/HashMap"));
+        }
+    }
+
+    @Test
+    public void testConcurrentLoads() throws Throwable {
+        final byte[] expected = loadClassBytes("java/lang/String");
+
+        try (final MappedJarTypeLoader typeLoader = new MappedJarTypeLoader(createJar(null))) {
+            final Thread[] threads = new Thread[8];
+            final Throwable[] errors = new Throwable[threads.length];
+
+            for (int i = 0; i < threads.length; i++) {
+                final int threadIndex = i;
+
+                threads[i] = new Thread(
+                    new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                for (int j = 0; j < 50; j++) {
+                                    assertLoads(typeLoader, "java/lang/String", expected);
+                                }
+                            }
+                            catch (final Throwable t) {
+                                errors[threadIndex] = t;
+                            }
+                        }
+                    }
+                );
+
+                threads[i].start();
+            }
+
+            for (int i = 0; i < threads.length; i++) {
+                threads[i].join();
+
+                if (errors[i] != null) {
+                    throw errors[i];
+                }
+            }
+        }
+    }
+}
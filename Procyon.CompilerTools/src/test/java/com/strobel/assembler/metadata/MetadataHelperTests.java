@@ -3,6 +3,9 @@ package com.strobel.assembler.metadata;
 import com.strobel.compilerservices.RuntimeHelpers;
 import org.junit.Test;
 
+import java.lang.ref.WeakReference;
+import java.util.Map;
+
 import static com.strobel.assembler.metadata.MetadataHelper.isAssignableFrom;
 import static com.strobel.assembler.metadata.ConversionType.*;
 import static com.strobel.core.CollectionUtilities.single;
@@ -274,4 +277,147 @@ public class MetadataHelperTests {
         assertSameType(genericArrayList, t8);
         assertSameType(rawArrayList, t9);
     }
+
+    @Test
+    public void testGenericInstancesAreShared() throws Throwable {
+        final TypeReference listOfString = list().makeGenericType(string());
+
+        assertSame(listOfString, list().makeGenericType(string()));
+        assertSame(listOfString, listOfString.makeGenericType(string()));
+        assertNotSame(listOfString, list().makeGenericType(integer()));
+
+        final TypeReference listOfListOfString = list().makeGenericType(listOfString);
+
+        assertSame(listOfListOfString, list().makeGenericType(list().makeGenericType(string())));
+    }
+
+    @Test
+    public void testTypeEquality() throws Throwable {
+        final TypeReference listOfString = list().makeGenericType(string());
+        final TypeReference arrayListOfString = arrayList().makeGenericType(string());
+
+        assertEquals(listOfString, listOfString);
+        assertEquals(listOfString.hashCode(), list().hashCode());
+        assertFalse(listOfString.equals(arrayListOfString));
+        assertFalse(listOfString.equals(list().makeGenericType(integer())));
+        assertFalse(listOfString.equals(list()));
+        assertEquals(string().makeArrayType(), string().makeArrayType());
+        assertFalse(string().makeArrayType().equals(integer().makeArrayType()));
+    }
+
+    @Test
+    public void testCachedHashCodeFollowsName() throws Throwable {
+        final GenericParameter genericParameter = new GenericParameter(null);
+
+        assertEquals("T0".hashCode(), genericParameter.hashCode());
+
+        genericParameter.setPosition(1);
+
+        assertEquals("T1".hashCode(), genericParameter.hashCode());
+    }
+
+    @Test
+    public void testGenericInstancesDoNotKeepTypeArgumentsAlive() throws Throwable {
+        GenericParameter typeArgument = new GenericParameter("X");
+
+        list().makeGenericType(typeArgument);
+
+        final WeakReference<GenericParameter> reference = new WeakReference<>(typeArgument);
+
+        typeArgument = null;
+
+        for (int i = 0; i < 10 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10L);
+        }
+
+        assertNull(reference.get());
+    }
+
+    @Test
+    public void testTypeRelationsAreCached() throws Throwable {
+        final TypeRelationCache cache = MetadataSystem.instance().getTypeRelationCache();
+        final TypeReference listOfString = list().makeGenericType(string());
+        final TypeReference arrayListOfString = arrayList().makeGenericType(string());
+
+        assertNotNull(cache);
+        assertTrue(MetadataHelper.isSubType(arrayListOfString, listOfString));
+        assertFalse(MetadataHelper.isSubType(listOfString, arrayListOfString));
+
+        final long hitCount = cache.getHitCount();
+
+        assertTrue(MetadataHelper.isSubType(arrayListOfString, listOfString));
+        assertFalse(MetadataHelper.isSubType(listOfString, arrayListOfString));
+        assertEquals(hitCount + 2, cache.getHitCount());
+    }
+
+    @Test
+    public void testSharedCacheDoesNotHoldOtherMetadataSystemsTypes() throws Throwable {
+        final MetadataSystem metadataSystem = new MetadataSystem();
+        final TypeRelationCache sharedCache = MetadataSystem.instance().getTypeRelationCache();
+        final TypeRelationCache ownCache = metadataSystem.getTypeRelationCache();
+        final TypeReference arrayList = metadataSystem.lookupType("java/util/ArrayList");
+
+        assertNotNull(arrayList);
+
+        final long sharedMissCount = sharedCache.getMissCount();
+
+        for (int i = 0; i < 2; i++) {
+            assertTrue(MetadataHelper.isSubType(arrayList, BuiltinTypes.Object));
+            assertFalse(MetadataHelper.isSubType(BuiltinTypes.Object, arrayList));
+        }
+
+        assertEquals(sharedMissCount, sharedCache.getMissCount());
+        assertEquals(2, ownCache.getHitCount());
+    }
+
+    @Test
+    public void testCacheDoesNotHoldOtherMetadataSystemsTypeArguments() throws Throwable {
+        final MetadataSystem metadataSystemA = new MetadataSystem();
+        final TypeReference arrayListA = metadataSystemA.lookupType("java/util/ArrayList");
+
+        assertNotNull(arrayListA);
+
+        final WeakReference<MetadataSystem> metadataSystemB = queryWithTypeArgumentOfNewMetadataSystem(arrayListA);
+
+        for (int i = 0; i < 10 && metadataSystemB.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10L);
+        }
+
+        assertNull(metadataSystemB.get());
+        assertTrue(metadataSystemA.getTypeRelationCache().size() > 0);
+    }
+
+    private static WeakReference<MetadataSystem> queryWithTypeArgumentOfNewMetadataSystem(final TypeReference type) {
+        final MetadataSystem metadataSystem = new MetadataSystem();
+        final TypeReference string = metadataSystem.lookupType("java/lang/String");
+
+        assertNotNull(string);
+
+        final TypeReference listOfString = list().makeGenericType(string);
+
+        assertFalse(MetadataHelper.isSubType(listOfString, type));
+        assertFalse(MetadataHelper.isSubType(type, listOfString));
+
+        return new WeakReference<>(metadataSystem);
+    }
+
+    @Test
+    public void testCachedMappingsAreCopied() throws Throwable {
+        final TypeReference listOfString = list().makeGenericType(string());
+        final TypeReference arrayListOfString = arrayList().makeGenericType(string());
+
+        final Map<TypeReference, TypeReference> mappings = MetadataHelper.getGenericSubTypeMappings(arrayListOfString, listOfString);
+
+        assertEquals(1, mappings.size());
+
+        final Map<TypeReference, TypeReference> cachedMappings = MetadataHelper.getGenericSubTypeMappings(arrayListOfString, listOfString);
+
+        assertEquals(mappings, cachedMappings);
+
+        cachedMappings.clear();
+
+        assertEquals(mappings, MetadataHelper.getGenericSubTypeMappings(arrayListOfString, listOfString));
+    }
 }
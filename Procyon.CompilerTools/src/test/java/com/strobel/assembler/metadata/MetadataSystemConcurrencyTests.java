@@ -0,0 +1,179 @@
+package com.strobel.assembler.metadata;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.lang.String.format;
+import static org.junit.Assert.*;
+
+public class MetadataSystemConcurrencyTests {
+    private final static int THREAD_COUNT = 16;
+    private final static int ITERATIONS = 25;
+
+    private final static String[] TYPE_NAMES = {
+        "java/lang/Object",
+        "java/lang/String",
+        "java/lang/Integer",
+        "java/lang/Thread",
+        "java/lang/Thread$State",
+        "java/util/List",
+        "java/util/ArrayList",
+        "java/util/HashMap",
+        "java/util/Map$Entry",
+        "java/util/TreeMap",
+        "java/util/LinkedHashMap",
+        "java/util/concurrent/ConcurrentHashMap",
+        "java/util/concurrent/TimeUnit",
+        "java/util/regex/Pattern",
+        "java/io/BufferedReader",
+        "java/lang/invoke/MethodHandles$Lookup"
+    };
+
+    private static final class CountingTypeLoader implements ITypeLoader {
+        final ITypeLoader typeLoader = new ClasspathTypeLoader();
+        final ConcurrentHashMap<String, AtomicInteger> loadCounts = new ConcurrentHashMap<>();
+
+        @Override
+        public boolean tryLoadType(final String internalName, final Buffer buffer) {
+            AtomicInteger count = loadCounts.get(internalName);
+
+            if (count == null) {
+                final AtomicInteger newCount = new AtomicInteger();
+                count = loadCounts.putIfAbsent(internalName, newCount);
+
+                if (count == null) {
+                    count = newCount;
+                }
+            }
+
+            count.incrementAndGet();
+
+            return typeLoader.tryLoadType(internalName, buffer);
+        }
+    }
+
+    private interface Worker {
+        void run(final int threadIndex, final int iteration) throws Throwable;
+    }
+
+    private static void runConcurrently(final Worker worker) throws Throwable {
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final Thread[] threads = new Thread[THREAD_COUNT];
+
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            final int threadIndex = i;
+
+            threads[i] = new Thread(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            start.await();
+
+                            for (int j = 0; j < ITERATIONS && error.get() == null; j++) {
+                                worker.run(threadIndex, j);
+                            }
+                        }
+                        catch (final Throwable t) {
+                            error.compareAndSet(null, t);
+                        }
+                    }
+                }
+            );
+
+            threads[i].start();
+        }
+
+        start.countDown();
+
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        if (error.get() != null) {
+            throw error.get();
+        }
+    }
+
+    @Test
+    public void testConcurrentLookupReadsEachTypeOnce() throws Throwable {
+        final CountingTypeLoader typeLoader = new CountingTypeLoader();
+        final MetadataSystem metadataSystem = new MetadataSystem(typeLoader);
+        final ConcurrentHashMap<String, TypeDefinition> firstResults = new ConcurrentHashMap<>();
+
+        runConcurrently(
+            new Worker() {
+                @Override
+                public void run(final int threadIndex, final int iteration) {
+                    for (int i = 0; i < TYPE_NAMES.length; i++) {
+                        //
+                        // Rotate the starting point so threads collide on different types.
+                        //
+                        final String typeName = TYPE_NAMES[(i + threadIndex + iteration) % TYPE_NAMES.length];
+                        final TypeReference reference = metadataSystem.lookupType(typeName);
+
+                        assertNotNull(typeName, reference);
+
+                        final TypeDefinition resolved = metadataSystem.resolve(reference);
+                        final TypeDefinition previous = firstResults.putIfAbsent(typeName, resolved);
+
+                        assertSame(typeName, previous != null ? previous : resolved, resolved);
+                        assertSame(typeName, resolved.makeArrayType(), resolved.makeArrayType());
+                        assertSame(typeName, resolved.getRawType(), resolved.getRawType());
+
+                        final TypeReference baseType = resolved.getBaseType();
+
+                        if (baseType != null) {
+                            assertNotNull(typeName, baseType.resolve());
+                        }
+                    }
+                }
+            }
+        );
+
+        for (final String typeName : TYPE_NAMES) {
+            final AtomicInteger count = typeLoader.loadCounts.get(typeName);
+
+            assertNotNull(typeName, count);
+            assertEquals(format("Type '%s' was loaded more than once.", typeName), 1, count.get());
+        }
+    }
+
+    @Test
+    public void testConcurrentMethodBodyLoading() throws Throwable {
+        final MetadataSystem metadataSystem = new MetadataSystem(new ClasspathTypeLoader());
+
+        runConcurrently(
+            new Worker() {
+                @Override
+                public void run(final int threadIndex, final int iteration) {
+                    final String typeName = TYPE_NAMES[(threadIndex + iteration) % TYPE_NAMES.length];
+                    final TypeDefinition type = metadataSystem.lookupType(typeName).resolve();
+
+                    assertNotNull(typeName, type);
+
+                    final List<MethodDefinition> methods = type.getDeclaredMethods();
+
+                    for (int i = 0; i < methods.size(); i++) {
+                        final MethodDefinition method = methods.get((i + threadIndex) % methods.size());
+
+                        if (method.isAbstract() || Flags.testAny(method.getFlags(), Flags.NATIVE)) {
+                            continue;
+                        }
+
+                        final MethodBody body = method.getBody();
+
+                        assertNotNull(method.getFullName(), body);
+                        assertTrue(method.getFullName(), body.getInstructions().size() > 0);
+                    }
+                }
+            }
+        );
+    }
+}
@@ -0,0 +1,124 @@
+package com.strobel.decompiler;
+
+import org.junit.Test;
+
+import java.util.concurrent.CancellationException;
+
+import static org.junit.Assert.*;
+
+public class MethodBudgetTests extends DecompilerTest {
+    private static class A {
+        public int test(final int x) {
+            return x * x;
+        }
+    }
+
+    @Test
+    public void testGenerousBudgetDoesNotChangeOutput() throws Throwable {
+        final DecompilerSettings settings = defaultSettings();
+
+        settings.setMethodTimeLimit(60000L);
+        settings.setMethodNodeLimit(1000);
+
+        verifyOutput(
+            A.class,
+            settings,
+            "private static class A {\n" +
+            "    public int test(final int x) {\n" +
+            "        return x * x;\n" +
+            "    }\n" +
+            "}\n"
+        );
+    }
+
+    @Test
+    public void testNodesAreCountedPeriodically() {
+        final DecompilerSettings settings = defaultSettings();
+
+        settings.setMethodNodeLimit(1000);
+
+        final MethodBudget budget = MethodBudget.start(settings);
+        int nodeCounts = 0;
+
+        assertTrue(budget.isNodeCountDue());
+
+        for (int i = 0; i < 64; i++) {
+            if (budget.isNodeCountDue()) {
+                ++nodeCounts;
+            }
+        }
+
+        assertTrue(nodeCounts > 0);
+        assertTrue(nodeCounts < 64);
+
+        settings.setMethodNodeLimit(0);
+        settings.setMethodTimeLimit(1000L);
+
+        assertFalse(MethodBudget.start(settings).isNodeCountDue());
+    }
+
+    @Test
+    public void testOnlyTheTimeLimitThrowsMethodTimeLimitException() throws Throwable {
+        final DecompilerSettings settings = defaultSettings();
+
+        settings.setMethodTimeLimit(1L);
+        settings.setMethodNodeLimit(1);
+
+        final MethodBudget budget = MethodBudget.start(settings);
+
+        try {
+            budget.checkNodeCount(2);
+            fail("Expected the node limit to be exceeded.");
+        }
+        catch (final CancellationException e) {
+            assertFalse(e instanceof MethodTimeLimitException);
+        }
+
+        Thread.sleep(5L);
+
+        try {
+            budget.checkTime();
+            fail("Expected the time limit to be exceeded.");
+        }
+        catch (final MethodTimeLimitException ignored) {
+        }
+    }
+
+    @Test
+    public void testMethodOverNodeLimitFallsBackToBytecode() throws Throwable {
+        final DecompilerSettings settings = defaultSettings();
+
+        settings.setMethodNodeLimit(1);
+        settings.setIncludeErrorDiagnostics(false);
+
+        verifyOutput(
+            A.class,
+            settings,
+            "private static class A {\n" +
+            "    private A() {\n" +
+            "        // \n" +
+            "        // This method could not be decompiled.\n" +
+            "        // \n" +
+            "        // Original Bytecode:\n" +
+            "        // \n" +
+            "        //     1: invokespecial java/lang/Object.<init>:()V\n" +
+            "        //     4: return\n" +
+            "        // \n" +
+            "        throw new IllegalStateException(\"An error occurred while decompiling this method.\");\n" +
+            "    }\n" +
+            "    public int test(final int x) {\n" +
+            "        // \n" +
+            "        // This method could not be decompiled.\n" +
+            "        // \n" +
+            "        // Original Bytecode:\n" +
+            "        // \n" +
+            "        //     1: iload_1         /* x */\n" +
+            "        //     2: imul\n" +
+            "        //     3: ireturn\n" +
+            "        // \n" +
+            "        throw new IllegalStateException(\"An error occurred while decompiling this method.\");\n" +
+            "    }\n" +
+            "}\n"
+        );
+    }
+}
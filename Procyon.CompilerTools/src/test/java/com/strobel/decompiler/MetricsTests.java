@@ -0,0 +1,85 @@
+package com.strobel.decompiler;
+
+import org.junit.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+public class MetricsTests extends DecompilerTest {
+    private static class A {
+        public int test(final int[] values) {
+            int sum = 0;
+            for (final int value : values) {
+                sum += value;
+            }
+            return sum;
+        }
+    }
+
+    private static final String A_OUTPUT =
+        "private static class A {\n" +
+        "    public int test(final int[] values) {\n" +
+        "        int sum = 0;\n" +
+        "        for (final int value : values) {\n" +
+        "            sum += value;\n" +
+        "        }\n" +
+        "        return sum;\n" +
+        "    }\n" +
+        "}\n";
+
+    @Test
+    public void testMeasuringDoesNotChangeOutput() throws Throwable {
+        final DecompilerSettings settings = defaultSettings();
+
+        settings.setMetricsListener(new DecompilerMetrics());
+
+        verifyOutput(A.class, settings, A_OUTPUT);
+    }
+
+    @Test
+    public void testStagesAreReportedPerMethod() throws Throwable {
+        final DecompilerSettings settings = defaultSettings();
+        final DecompilerMetrics metrics = new DecompilerMetrics();
+
+        settings.setMetricsListener(metrics);
+
+        verifyOutput(A.class, settings, A_OUTPUT);
+
+        final StringWriter csv = new StringWriter();
+
+        metrics.writeCsv(csv);
+
+        final String report = csv.toString();
+        final String type = "com/strobel/decompiler/MetricsTests$A";
+
+        assertTrue(report.startsWith("stage,name,type,method,count,wallTimeNanos,allocatedBytes,iterations\n"));
+        assertTrue(report.contains("\nBuildBytecodeAst,," + type + ",test([I)I,1,"));
+        assertTrue(report.contains("\nOptimizeBytecodeAst,InlineVariables," + type + ",test([I)I,1,"));
+        assertTrue(report.contains("\nOptimizeBytecodeAst,TypeInference2," + type + ",test([I)I,1,"));
+        assertTrue(report.contains("\nBuildJavaAst,," + type + ",,1,"));
+        assertTrue(report.contains("\nTransformJavaAst,DeclareVariablesTransform," + type + ",,1,"));
+        assertTrue(report.contains("\nWriteJavaOutput,," + type + ",,1,"));
+    }
+
+    @Test
+    public void testJsonReportIncludesStageTotals() throws Throwable {
+        final DecompilerSettings settings = defaultSettings();
+        final DecompilerMetrics metrics = new DecompilerMetrics();
+
+        settings.setMetricsListener(metrics);
+
+        verifyOutput(A.class, settings, A_OUTPUT);
+        verifyOutput(A.class, settings, A_OUTPUT);
+
+        final StringWriter json = new StringWriter();
+
+        metrics.writeJson(json);
+
+        final String report = json.toString();
+
+        assertTrue(report.startsWith("{\n  \"stages\": ["));
+        assertTrue(report.contains("{ \"stage\": \"WriteJavaOutput\", \"name\": null, \"count\": 2, "));
+        assertTrue(report.contains("\"type\": \"com/strobel/decompiler/MetricsTests$A\", \"method\": \"test([I)I\", \"count\": 2, "));
+    }
+}
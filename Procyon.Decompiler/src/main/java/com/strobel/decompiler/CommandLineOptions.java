@@ -114,6 +114,12 @@ public class CommandLineOptions {
         description = "Write decompiled results to specified directory instead of the console.")
     private String _outputDirectory;
 
+    @Parameter(
+        names = { "-oj", "--output-jar" },
+        description = "Write decompiled results to a new jar or zip file (e.g., a sources jar) instead of the console.",
+        arity = 1)
+    private String _outputJar;
+
     @Parameter(
         names = { "-jar", "--jar-file" },
         description = "[DEPRECATED] Decompile all classes in the specified jar file (disables -ent and -s).")
@@ -160,6 +166,46 @@ public class CommandLineOptions {
         description = "Enable eager loading of method bodies (may speed up decompilation of larger archives).")
     private boolean _isEagerMethodLoadingEnabled;
 
+    @Parameter(
+        names = { "-t", "--threads" },
+        description = "Decompile the types in a jar file using the specified number of threads (only in combination with -o or -oj).",
+        arity = 1)
+    private int _threadCount;
+
+    @Parameter(
+        names = { "-pm", "--parallel-methods" },
+        description = "Decompile the method bodies of each type in parallel (may speed up decompilation of very large classes).")
+    private boolean _decompileMethodsInParallel;
+
+    @Parameter(
+        names = { "-inc", "--incremental" },
+        description = "Only decompile the types in a jar file whose classes or decompiler settings changed since the last run (only in combination with -o).")
+    private boolean _isIncremental;
+
+    @Parameter(
+        names = { "--metrics" },
+        description = "Write the time and memory spent in each stage of decompilation, per type and method, to the specified file (CSV if the file name ends in '.csv', otherwise JSON).",
+        arity = 1)
+    private String _metricsFile;
+
+    @Parameter(
+        names = { "--method-time-limit" },
+        description = "Emit the bytecode of any method which takes longer than the specified number of milliseconds to decompile, instead of waiting for it.",
+        arity = 1)
+    private long _methodTimeLimit;
+
+    @Parameter(
+        names = { "--method-node-limit" },
+        description = "Emit the bytecode of any method whose bytecode AST grows past the specified number of nodes, instead of decompiling it.",
+        arity = 1)
+    private int _methodNodeLimit;
+
+    @Parameter(
+        names = { "--jdk" },
+        description = "Resolve JDK classes from the JDK installed at the specified path (its run-time image or jmods directory), instead of the JDK running the decompiler.",
+        arity = 1)
+    private String _jdkHome;
+
     @Parameter(
         names = { "-sm", "--simplify-member-references" },
         description = "Simplify type-qualified member references in Java output [EXPERIMENTAL].")
@@ -295,6 +341,14 @@ public class CommandLineOptions {
         _outputDirectory = outputDirectory;
     }
 
+    public final String getOutputJar() {
+        return _outputJar;
+    }
+
+    public final void setOutputJar(final String outputJar) {
+        _outputJar = outputJar;
+    }
+
     public final String getJarFile() {
         return _jarFile;
     }
@@ -375,6 +429,62 @@ public class CommandLineOptions {
         _isEagerMethodLoadingEnabled = isEagerMethodLoadingEnabled;
     }
 
+    public final int getThreadCount() {
+        return _threadCount;
+    }
+
+    public final void setThreadCount(final int threadCount) {
+        _threadCount = threadCount;
+    }
+
+    public final boolean getDecompileMethodsInParallel() {
+        return _decompileMethodsInParallel;
+    }
+
+    public final void setDecompileMethodsInParallel(final boolean decompileMethodsInParallel) {
+        _decompileMethodsInParallel = decompileMethodsInParallel;
+    }
+
+    public final boolean isIncremental() {
+        return _isIncremental;
+    }
+
+    public final void setIncremental(final boolean isIncremental) {
+        _isIncremental = isIncremental;
+    }
+
+    public final String getMetricsFile() {
+        return _metricsFile;
+    }
+
+    public final void setMetricsFile(final String metricsFile) {
+        _metricsFile = metricsFile;
+    }
+
+    public final long getMethodTimeLimit() {
+        return _methodTimeLimit;
+    }
+
+    public final void setMethodTimeLimit(final long methodTimeLimit) {
+        _methodTimeLimit = methodTimeLimit;
+    }
+
+    public final int getMethodNodeLimit() {
+        return _methodNodeLimit;
+    }
+
+    public final void setMethodNodeLimit(final int methodNodeLimit) {
+        _methodNodeLimit = methodNodeLimit;
+    }
+
+    public final String getJdkHome() {
+        return _jdkHome;
+    }
+
+    public final void setJdkHome(final String jdkHome) {
+        _jdkHome = jdkHome;
+    }
+
     public final boolean getSimplifyMemberReferences() {
         return _simplifyMemberReferences;
     }
@@ -5,13 +5,13 @@ import com.strobel.Procyon;
 import com.strobel.annotations.NotNull;
 import com.strobel.assembler.InputTypeLoader;
 import com.strobel.assembler.metadata.*;
+import com.strobel.core.BooleanBox;
 import com.strobel.core.ExceptionUtilities;
 import com.strobel.core.StringUtilities;
 import com.strobel.decompiler.LineNumberFormatter.LineNumberOption;
 import com.strobel.decompiler.languages.BytecodeOutputOptions;
 import com.strobel.decompiler.languages.BytecodeLanguage;
 import com.strobel.decompiler.languages.Languages;
-import com.strobel.decompiler.languages.LineNumberPosition;
 import com.strobel.decompiler.languages.TypeDecompilationResults;
 import com.strobel.decompiler.languages.java.JavaFormattingOptions;
 import com.strobel.io.PathHelper;
@@ -21,16 +21,24 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.charset.Charset;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.EnumSet;
 import java.util.Enumeration;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.logging.ConsoleHandler;
@@ -41,6 +49,17 @@ import java.util.logging.LogRecord;
 import java.util.logging.Logger;
 
 public class DecompilerDriver {
+    private final static int TYPE_CACHE_SIZE = 16 * 1024 * 1024;
+    private final static int CLASS_FILE_CACHE_SIZE = 8 * 1024 * 1024;
+    private final static int INITIAL_OUTPUT_BUFFER_SIZE = 64 * 1024;
+    private final static int MAX_POOLED_OUTPUT_BUFFER_SIZE = 1024 * 1024;
+
+    //
+    // Each thread renders one type at a time, so each keeps one buffer for the text of the type
+    // being written.  A buffer is taken out while in use, in case a type is written re-entrantly.
+    //
+    private final static ThreadLocal<StringWriter> OUTPUT_BUFFER = new ThreadLocal<>();
+
     public static void main(final String[] args) {
         final CommandLineOptions options = new CommandLineOptions();
         final JCommander jCommander;
@@ -95,7 +114,28 @@ public class DecompilerDriver {
         settings.setSimplifyMemberReferences(options.getSimplifyMemberReferences());
         settings.setForceFullyQualifiedReferences(options.getForceFullyQualifiedReferences());
         settings.setDisableForEachTransforms(options.getDisableForEachTransforms());
-        settings.setTypeLoader(new InputTypeLoader());
+        settings.setDecompileMethodsInParallel(options.getDecompileMethodsInParallel());
+        settings.setMethodTimeLimit(options.getMethodTimeLimit());
+        settings.setMethodNodeLimit(options.getMethodNodeLimit());
+
+        try {
+            settings.setTypeLoader(createInputTypeLoader(options));
+        }
+        catch (final Throwable t) {
+            System.err.println(ExceptionUtilities.getMessage(t));
+            System.exit(-1);
+            return;
+        }
+
+        final DecompilerMetrics metrics;
+
+        if (!StringUtilities.isNullOrWhitespace(options.getMetricsFile())) {
+            metrics = new DecompilerMetrics();
+            settings.setMetricsListener(metrics);
+        }
+        else {
+            metrics = null;
+        }
 
         if (!options.getSuppressBanner()) {
             settings.setOutputFileHeaderText("\nDecompiled by Procyon v" + Procyon.version() + "\n");
@@ -121,9 +161,20 @@ public class DecompilerDriver {
             settings.setJavaFormattingOptions(JavaFormattingOptions.createDefault());
         }
 
+        final OutputSink sink;
+
+        try {
+            sink = createOutputSink(options, settings);
+        }
+        catch (final Throwable t) {
+            System.err.println(ExceptionUtilities.getMessage(t));
+            System.exit(-1);
+            return;
+        }
+
         if (decompileJar) {
             try {
-                decompileJar(jarFile, options, decompilationOptions);
+                decompileJar(jarFile, sink, options, decompilationOptions);
             }
             catch (final Throwable t) {
                 System.err.println(ExceptionUtilities.getMessage(t));
@@ -134,14 +185,15 @@ public class DecompilerDriver {
             final MetadataSystem metadataSystem = new NoRetryMetadataSystem(settings.getTypeLoader());
 
             metadataSystem.setEagerMethodLoadingEnabled(options.isEagerMethodLoadingEnabled());
+            metadataSystem.setClassFileCacheSize(CLASS_FILE_CACHE_SIZE);
 
             for (final String typeName : typeNames) {
                 try {
                     if (typeName.endsWith(".jar")) {
-                        decompileJar(typeName, options, decompilationOptions);
+                        decompileJar(typeName, sink, options, decompilationOptions);
                     }
                     else {
-                        decompileType(metadataSystem, typeName, options, decompilationOptions, true);
+                        decompileType(metadataSystem, typeName, sink, options, decompilationOptions, true, null);
                     }
                 }
                 catch (final Throwable t) {
@@ -149,6 +201,52 @@ public class DecompilerDriver {
                 }
             }
         }
+
+        if (sink != null) {
+            try {
+                sink.close();
+            }
+            catch (final Throwable t) {
+                System.err.println(ExceptionUtilities.getMessage(t));
+                System.exit(-1);
+            }
+        }
+
+        if (metrics != null) {
+            try {
+                writeMetrics(metrics, options.getMetricsFile());
+            }
+            catch (final Throwable t) {
+                System.err.println(ExceptionUtilities.getMessage(t));
+                System.exit(-1);
+            }
+        }
+    }
+
+    private static OutputSink createOutputSink(final CommandLineOptions options, final DecompilerSettings settings) throws IOException {
+        final Charset charset = settings.isUnicodeOutputEnabled() ? Charset.forName("UTF-8")
+                                                                  : Charset.defaultCharset();
+
+        if (!StringUtilities.isNullOrWhitespace(options.getOutputJar())) {
+            return OutputSink.zip(new File(options.getOutputJar()), charset);
+        }
+
+        if (!StringUtilities.isNullOrWhitespace(settings.getOutputDirectory())) {
+            return OutputSink.directory(new File(settings.getOutputDirectory()), charset);
+        }
+
+        return null;
+    }
+
+    private static void writeMetrics(final DecompilerMetrics metrics, final String path) throws IOException {
+        try (final Writer writer = new OutputStreamWriter(new FileOutputStream(path), Charset.forName("UTF-8"))) {
+            if (StringUtilities.endsWithIgnoreCase(path, ".csv")) {
+                metrics.writeCsv(writer);
+            }
+            else {
+                metrics.writeJson(writer);
+            }
+        }
     }
 
     private static BytecodeOutputOptions createBytecodeFormattingOptions(final CommandLineOptions options) {
@@ -211,6 +309,7 @@ public class DecompilerDriver {
 
     private static void decompileJar(
         final String jarFilePath,
+        final OutputSink sink,
         final CommandLineOptions options,
         final DecompilationOptions decompilationOptions) throws IOException {
 
@@ -226,17 +325,99 @@ public class DecompilerDriver {
 
         final boolean oldShowSyntheticMembers = settings.getShowSyntheticMembers();
         final ITypeLoader oldTypeLoader = settings.getTypeLoader();
+        final ITypeLoader jarTypeLoader = createJarTypeLoader(jarFile, jar);
 
         settings.setShowSyntheticMembers(false);
-        settings.setTypeLoader(new CompositeTypeLoader(new JarTypeLoader(jar), oldTypeLoader));
+        settings.setTypeLoader(new CompositeTypeLoader(jarTypeLoader, oldTypeLoader));
 
         try {
-            MetadataSystem metadataSystem = new NoRetryMetadataSystem(settings.getTypeLoader());
+            final int threadCount = options.getThreadCount();
+            final boolean writeToFiles = sink != null;
 
-            metadataSystem.setEagerMethodLoadingEnabled(options.isEagerMethodLoadingEnabled());
+            final IncrementalManifest manifest;
+            final Set<String> upToDateClasses;
 
-            int classesDecompiled = 0;
+            //
+            // Files in an archive are not kept across runs, so only a directory can be updated
+            // incrementally.
+            //
+            if (options.isIncremental() && writeToFiles && sink.isDirectory()) {
+                manifest = IncrementalManifest.open(
+                    new File(settings.getOutputDirectory()),
+                    jar,
+                    jarFile.getName(),
+                    createSettingsKey(options, settings)
+                );
+                upToDateClasses = manifest.retainUpToDateTypes();
+            }
+            else {
+                manifest = null;
+                upToDateClasses = Collections.emptySet();
+            }
+
+            if (threadCount > 1 && writeToFiles) {
+                decompileJarInParallel(entries, threadCount, sink, manifest, upToDateClasses, options, decompilationOptions);
+            }
+            else {
+                final MetadataSystem metadataSystem = createMetadataSystem(options, settings);
+
+                while (entries.hasMoreElements()) {
+                    final JarEntry entry = entries.nextElement();
+                    final String name = entry.getName();
+
+                    if (!name.endsWith(".class")) {
+                        continue;
+                    }
+
+                    final String internalName = StringUtilities.removeRight(name, ".class");
+
+                    if (!upToDateClasses.contains(internalName)) {
+                        decompileJarEntry(metadataSystem, internalName, sink, manifest, options, decompilationOptions);
+                        metadataSystem.trimCache();
+                    }
+                }
+            }
+
+            if (manifest != null) {
+                manifest.save();
+            }
+        }
+        finally {
+            settings.setShowSyntheticMembers(oldShowSyntheticMembers);
+            settings.setTypeLoader(oldTypeLoader);
+
+            if (jarTypeLoader instanceof MappedJarTypeLoader) {
+                ((MappedJarTypeLoader) jarTypeLoader).close();
+            }
+        }
+    }
 
+    private static void decompileJarInParallel(
+        final Enumeration<JarEntry> entries,
+        final int threadCount,
+        final OutputSink sink,
+        final IncrementalManifest manifest,
+        final Set<String> upToDateClasses,
+        final CommandLineOptions options,
+        final DecompilationOptions decompilationOptions) {
+
+        final DecompilerSettings settings = decompilationOptions.getSettings();
+        final ForkJoinPool pool = new ForkJoinPool(threadCount);
+        final List<ForkJoinTask<?>> tasks = new ArrayList<>();
+
+        //
+        // All workers share one metadata system.  Every type is written to its own file, so the
+        // output does not depend on completion order.
+        //
+        final MetadataSystem metadataSystem = createMetadataSystem(options, settings);
+
+        //
+        // The metadata system may only be trimmed while no type is being decompiled, so each type
+        // is decompiled under the read lock, and the cache is trimmed under the write lock.
+        //
+        final ReadWriteLock trimLock = new ReentrantReadWriteLock();
+
+        try {
             while (entries.hasMoreElements()) {
                 final JarEntry entry = entries.nextElement();
                 final String name = entry.getName();
@@ -247,33 +428,213 @@ public class DecompilerDriver {
 
                 final String internalName = StringUtilities.removeRight(name, ".class");
 
-                try {
-                    decompileType(metadataSystem, internalName, options, decompilationOptions, false);
-
-                    if (++classesDecompiled % 100 == 0) {
-                        metadataSystem = new NoRetryMetadataSystem(settings.getTypeLoader());
-                    }
-                }
-                catch (final Throwable t) {
-                    t.printStackTrace();
+                if (upToDateClasses.contains(internalName)) {
+                    continue;
                 }
+
+                tasks.add(
+                    pool.submit(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                trimLock.readLock().lock();
+
+                                try {
+                                    decompileJarEntry(metadataSystem, internalName, sink, manifest, options, decompilationOptions);
+                                }
+                                finally {
+                                    trimLock.readLock().unlock();
+                                }
+
+                                if (metadataSystem.isTrimNeeded()) {
+                                    trimLock.writeLock().lock();
+
+                                    try {
+                                        metadataSystem.trimCache();
+                                    }
+                                    finally {
+                                        trimLock.writeLock().unlock();
+                                    }
+                                }
+                            }
+                        }
+                    )
+                );
+            }
+
+            for (final ForkJoinTask<?> task : tasks) {
+                task.join();
             }
         }
         finally {
-            settings.setShowSyntheticMembers(oldShowSyntheticMembers);
-            settings.setTypeLoader(oldTypeLoader);
+            pool.shutdown();
+        }
+    }
+
+    private static void decompileJarEntry(
+        final MetadataSystem metadataSystem,
+        final String internalName,
+        final OutputSink sink,
+        final IncrementalManifest manifest,
+        final CommandLineOptions options,
+        final DecompilationOptions decompilationOptions) {
+
+        try {
+            final BooleanBox methodTimeLimitExceeded = new BooleanBox();
+            final TypeDefinition type = decompileType(
+                metadataSystem,
+                internalName,
+                sink,
+                options,
+                decompilationOptions,
+                false,
+                methodTimeLimitExceeded
+            );
+
+            //
+            // Whether a method runs past its time limit depends on the load of the machine, so
+            // don't record the type as up to date; the next run will try it again.
+            //
+            if (type != null && manifest != null && !methodTimeLimitExceeded.value) {
+                manifest.recordType(
+                    internalName,
+                    getOutputPath(type, decompilationOptions.getSettings()),
+                    collectClassNames(type, new TreeSet<String>())
+                );
+            }
+        }
+        catch (final Throwable t) {
+            t.printStackTrace();
+        }
+    }
+
+    private static Set<String> collectClassNames(final TypeDefinition type, final Set<String> classNames) {
+        classNames.add(type.getInternalName());
+
+        for (final TypeDefinition nestedType : type.getDeclaredTypes()) {
+            collectClassNames(nestedType, classNames);
+        }
+
+        for (final MethodDefinition method : type.getDeclaredMethods()) {
+            for (final TypeDefinition localType : method.getDeclaredTypes()) {
+                collectClassNames(localType, classNames);
+            }
+        }
+
+        return classNames;
+    }
+
+    private static String createSettingsKey(final CommandLineOptions options, final DecompilerSettings settings) {
+        //
+        // Everything that can change the text of an output file, and nothing that can't (e.g.,
+        // the thread count); a change to any of these invalidates every type.
+        //
+        return StringUtilities.join(
+            ";",
+            "version=" + Procyon.version(),
+            "language=" + settings.getLanguage().getName(),
+            "banner=" + !options.getSuppressBanner(),
+            "flattenSwitchBlocks=" + settings.getFlattenSwitchBlocks(),
+            "forceExplicitImports=" + settings.getForceExplicitImports(),
+            "forceExplicitTypeArguments=" + settings.getForceExplicitTypeArguments(),
+            "retainRedundantCasts=" + settings.getRetainRedundantCasts(),
+            "excludeNestedTypes=" + settings.getExcludeNestedTypes(),
+            "retainPointlessSwitches=" + settings.getRetainPointlessSwitches(),
+            "unicode=" + settings.isUnicodeOutputEnabled(),
+            "mergeVariables=" + settings.getMergeVariables(),
+            "debugLineNumbers=" + settings.getShowDebugLineNumbers(),
+            "simplifyMemberReferences=" + settings.getSimplifyMemberReferences(),
+            "forceFullyQualifiedReferences=" + settings.getForceFullyQualifiedReferences(),
+            "disableForEach=" + settings.getDisableForEachTransforms(),
+            "methodTimeLimit=" + settings.getMethodTimeLimit(),
+            "methodNodeLimit=" + settings.getMethodNodeLimit(),
+            "lineNumbers=" + options.getIncludeLineNumbers(),
+            "stretchLines=" + options.getStretchLines(),
+            "constantPool=" + options.getShowConstantPool(),
+            "localVariables=" + options.getShowLocalVariableDetails(),
+            "typeAttributes=" + options.getShowTypeAttributes(),
+            "verbose=" + options.isVerbose(),
+            "jdk=" + options.getJdkHome()
+        );
+    }
+
+    private static ITypeLoader createInputTypeLoader(final CommandLineOptions options) throws IOException {
+        final String jdkHome = options.getJdkHome();
+
+        if (StringUtilities.isNullOrWhitespace(jdkHome)) {
+            return new InputTypeLoader();
+        }
+
+        //
+        // Platform classes come from the chosen JDK.  Anything it does not contain is still
+        // looked up on the class path, but never a platform class: the class path also reaches
+        // the JDK we are running on, whose version of a class may differ from the chosen one.
+        //
+        final File javaHome = new File(jdkHome);
+        final IIndexedTypeLoader jdkTypeLoader;
+
+        if (JrtTypeLoader.hasRuntimeImage(javaHome)) {
+            jdkTypeLoader = new JrtTypeLoader(javaHome);
+        }
+        else if (JmodTypeLoader.hasModuleFiles(javaHome)) {
+            jdkTypeLoader = new JmodTypeLoader(new File(javaHome, "jmods"));
+        }
+        else {
+            throw new FileNotFoundException("No run-time image or jmods directory found in JDK: " + jdkHome);
+        }
+
+        return new InputTypeLoader(
+            new CompositeTypeLoader(
+                jdkTypeLoader,
+                new NonPlatformTypeLoader(jdkTypeLoader, new ClasspathTypeLoader())
+            )
+        );
+    }
+
+    private static ITypeLoader createJarTypeLoader(final File jarFile, final JarFile jar) {
+        try {
+            return new MappedJarTypeLoader(jarFile);
+        }
+        catch (final IOException e) {
+            //
+            // Some archives (e.g., Zip64 archives) cannot be indexed by the mapped loader;
+            // fall back to reading them through the JarFile.
+            //
+            Logger.getGlobal().fine("Could not map " + jarFile.getPath() + ": " + e.getMessage());
+            return new JarTypeLoader(jar);
         }
     }
 
-    private static void decompileType(
+    private static MetadataSystem createMetadataSystem(final CommandLineOptions options, final DecompilerSettings settings) {
+        //
+        // One metadata system is used for the whole jar, so bound the types it keeps around.
+        // JDK types are pinned by the cache policy, so they are only ever read once.
+        //
+        final MetadataSystem metadataSystem = new NoRetryMetadataSystem(
+            settings.getTypeLoader(),
+            new BoundedTypeCachePolicy(TYPE_CACHE_SIZE)
+        );
+
+        metadataSystem.setEagerMethodLoadingEnabled(options.isEagerMethodLoadingEnabled());
+        metadataSystem.setClassFileCacheSize(CLASS_FILE_CACHE_SIZE);
+
+        return metadataSystem;
+    }
+
+    private static TypeDefinition decompileType(
         final MetadataSystem metadataSystem,
         final String typeName,
+        final OutputSink sink,
         final CommandLineOptions commandLineOptions,
         final DecompilationOptions options,
-        final boolean includeNested) throws IOException {
+        final boolean includeNested,
+        final BooleanBox methodTimeLimitExceeded) throws IOException {
 
         final TypeReference type;
         final DecompilerSettings settings = options.getSettings();
+        final StageTimer timer = StageTimer.create(settings.getMetricsListener(), DecompilerStage.LoadType, null, null);
+
+        timer.start(null);
 
         if (typeName.length() == 1) {
             //
@@ -289,147 +650,141 @@ public class DecompilerDriver {
             type = metadataSystem.lookupType(typeName);
         }
 
-        final TypeDefinition resolvedType;
+        final TypeDefinition resolvedType = type != null ? type.resolve() : null;
 
-        if (type == null || (resolvedType = type.resolve()) == null) {
+        timer.setType(resolvedType);
+        timer.stop();
+
+        if (resolvedType == null) {
             System.err.printf("!!! ERROR: Failed to load class %s.\n", typeName);
-            return;
+            return null;
         }
 
         DeobfuscationUtilities.processType(resolvedType);
 
         if (!includeNested && (resolvedType.isNested() || resolvedType.isAnonymous() || resolvedType.isSynthetic())) {
-            return;
+            return null;
         }
 
-        final Writer writer = createWriter(resolvedType, settings);
-        final boolean writeToFile = writer instanceof FileOutputWriter;
-        final PlainTextOutput output;
+        if (sink == null) {
+            final Writer writer = new OutputStreamWriter(
+                System.out,
+                settings.isUnicodeOutputEnabled() ? Charset.forName("UTF-8")
+                                                  : Charset.defaultCharset()
+            );
 
-        if (writeToFile) {
-            output = new PlainTextOutput(writer);
-        }
-        else {
-            output = new AnsiTextOutput(
+            final PlainTextOutput output = new AnsiTextOutput(
                 writer,
                 commandLineOptions.getUseLightColorScheme() ? AnsiTextOutput.ColorScheme.LIGHT
                                                             : AnsiTextOutput.ColorScheme.DARK
             );
-        }
 
-        output.setUnicodeOutputEnabled(settings.isUnicodeOutputEnabled());
+            configureOutput(output, settings);
 
-        if (settings.getLanguage() instanceof BytecodeLanguage) {
-            output.setIndentToken("  ");
-        }
+            final TypeDecompilationResults results = settings.getLanguage().decompileType(resolvedType, output, options);
+
+            if (methodTimeLimitExceeded != null && results.isMethodTimeLimitExceeded()) {
+                methodTimeLimitExceeded.value = true;
+            }
 
-        if (writeToFile) {
-            System.out.printf("Decompiling %s...\n", typeName);
+            writer.flush();
+
+            return resolvedType;
         }
 
-        final TypeDecompilationResults results = settings.getLanguage().decompileType(resolvedType, output, options);
+        System.out.printf("Decompiling %s...\n", typeName);
 
-        writer.flush();
+        final StringWriter buffer = acquireBuffer();
 
-        if (writeToFile) {
-            writer.close();
-        }
+        try {
+            final PlainTextOutput output = new PlainTextOutput(buffer);
 
-        // If we're writing to a file and we were asked to include line numbers in any way,
-        // then reformat the file to include that line number information.
-        final List<LineNumberPosition> lineNumberPositions = results.getLineNumberPositions();
+            configureOutput(output, settings);
 
-        if ((commandLineOptions.getIncludeLineNumbers() || commandLineOptions.getStretchLines()) && (writer instanceof FileOutputWriter)) {
-            final EnumSet<LineNumberOption> lineNumberOptions = EnumSet.noneOf(LineNumberOption.class);
+            final TypeDecompilationResults results = settings.getLanguage().decompileType(resolvedType, output, options);
 
-            if (commandLineOptions.getIncludeLineNumbers()) {
-                lineNumberOptions.add(LineNumberOption.LEADING_COMMENTS);
+            if (methodTimeLimitExceeded != null && results.isMethodTimeLimitExceeded()) {
+                methodTimeLimitExceeded.value = true;
             }
 
-            if (commandLineOptions.getStretchLines()) {
-                lineNumberOptions.add(LineNumberOption.STRETCHED);
-            }
+            String text = buffer.toString();
 
-            final LineNumberFormatter lineFormatter = new LineNumberFormatter(
-                ((FileOutputWriter) writer).getFile(),
-                lineNumberPositions,
-                lineNumberOptions
-            );
+            //
+            // If we were asked to include line numbers in any way, reformat the text to include
+            // that line number information before it is written.
+            //
+            if (commandLineOptions.getIncludeLineNumbers() || commandLineOptions.getStretchLines()) {
+                final EnumSet<LineNumberOption> lineNumberOptions = EnumSet.noneOf(LineNumberOption.class);
 
-            lineFormatter.reformatFile();
-        }
-    }
+                if (commandLineOptions.getIncludeLineNumbers()) {
+                    lineNumberOptions.add(LineNumberOption.LEADING_COMMENTS);
+                }
 
-    private static Writer createWriter(final TypeDefinition type, final DecompilerSettings settings) throws IOException {
-        final String outputDirectory = settings.getOutputDirectory();
+                if (commandLineOptions.getStretchLines()) {
+                    lineNumberOptions.add(LineNumberOption.STRETCHED);
+                }
 
-        if (StringUtilities.isNullOrWhitespace(outputDirectory)) {
-            return new OutputStreamWriter(
-                System.out,
-                settings.isUnicodeOutputEnabled() ? Charset.forName("UTF-8")
-                                                  : Charset.defaultCharset()
-            );
-        }
+                final LineNumberFormatter lineFormatter = new LineNumberFormatter(
+                    results.getLineNumberPositions(),
+                    lineNumberOptions
+                );
 
-        final String outputPath;
-        final String fileName = type.getName() + settings.getLanguage().getFileExtension();
-        final String packageName = type.getPackageName();
+                text = lineFormatter.reformat(text);
+            }
 
-        if (StringUtilities.isNullOrWhitespace(packageName)) {
-            outputPath = PathHelper.combine(outputDirectory, fileName);
+            sink.write(getOutputPath(resolvedType, settings), text);
         }
-        else {
-            outputPath = PathHelper.combine(
-                outputDirectory,
-                packageName.replace('.', PathHelper.DirectorySeparator),
-                fileName
-            );
+        finally {
+            releaseBuffer(buffer);
         }
 
-        final File outputFile = new File(outputPath);
-        final File parentFile = outputFile.getParentFile();
+        return resolvedType;
+    }
+
+    private static void configureOutput(final PlainTextOutput output, final DecompilerSettings settings) {
+        output.setUnicodeOutputEnabled(settings.isUnicodeOutputEnabled());
 
-        if (parentFile != null && !parentFile.exists() && !parentFile.mkdirs()) {
-            throw new IllegalStateException(
-                String.format(
-                    "Could not create output directory for file \"%s\".",
-                    outputPath
-                )
-            );
+        if (settings.getLanguage() instanceof BytecodeLanguage) {
+            output.setIndentToken("  ");
         }
+    }
 
-        if (!outputFile.exists() && !outputFile.createNewFile()) {
-            throw new IllegalStateException(
-                String.format(
-                    "Could not create output file \"%s\".",
-                    outputPath
-                )
-            );
+    private static StringWriter acquireBuffer() {
+        final StringWriter buffer = OUTPUT_BUFFER.get();
+
+        if (buffer == null) {
+            return new StringWriter(INITIAL_OUTPUT_BUFFER_SIZE);
         }
 
-        return new FileOutputWriter(outputFile, settings);
+        OUTPUT_BUFFER.set(null);
+        return buffer;
     }
-}
 
-final class FileOutputWriter extends OutputStreamWriter {
-    private final File file;
+    private static void releaseBuffer(final StringWriter buffer) {
+        final StringBuffer text = buffer.getBuffer();
 
-    FileOutputWriter(final File file, final DecompilerSettings settings) throws IOException {
-        super(
-            new FileOutputStream(file),
-            settings.isUnicodeOutputEnabled() ? Charset.forName("UTF-8")
-                                              : Charset.defaultCharset()
-        );
-        this.file = file;
+        text.setLength(0);
+
+        //
+        // Don't hold on to the space needed by an unusually large type.
+        //
+        if (text.capacity() > MAX_POOLED_OUTPUT_BUFFER_SIZE) {
+            text.trimToSize();
+            text.ensureCapacity(INITIAL_OUTPUT_BUFFER_SIZE);
+        }
+
+        OUTPUT_BUFFER.set(buffer);
     }
 
-    /**
-     * Returns the file to which 'this' is writing.
-     *
-     * @return the file to which 'this' is writing
-     */
-    public File getFile() {
-        return this.file;
+    private static String getOutputPath(final TypeDefinition type, final DecompilerSettings settings) {
+        final String fileName = type.getName() + settings.getLanguage().getFileExtension();
+        final String packageName = type.getPackageName();
+
+        if (StringUtilities.isNullOrWhitespace(packageName)) {
+            return fileName;
+        }
+
+        return PathHelper.combine(packageName.replace('.', PathHelper.DirectorySeparator), fileName);
     }
 }
 
@@ -454,7 +809,7 @@ final class BriefLogFormatter extends Formatter {
 }
 
 final class NoRetryMetadataSystem extends MetadataSystem {
-    private final Set<String> _failedTypes = new HashSet<>();
+    private final Set<String> _failedTypes = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 
     NoRetryMetadataSystem() {
     }
@@ -467,6 +822,10 @@ final class NoRetryMetadataSystem extends MetadataSystem {
         super(typeLoader);
     }
 
+    NoRetryMetadataSystem(final ITypeLoader typeLoader, final ITypeCachePolicy cachePolicy) {
+        super(typeLoader, cachePolicy);
+    }
+
     @Override
     protected TypeDefinition resolveType(final String descriptor, final boolean mightBePrimitive) {
         if (_failedTypes.contains(descriptor)) {
@@ -481,4 +840,29 @@ final class NoRetryMetadataSystem extends MetadataSystem {
 
         return result;
     }
-}
\ No newline at end of file
+}
+
+final class NonPlatformTypeLoader implements ITypeLoader {
+    private final IIndexedTypeLoader _platformTypeLoader;
+    private final ITypeLoader _typeLoader;
+
+    NonPlatformTypeLoader(final IIndexedTypeLoader platformTypeLoader, final ITypeLoader typeLoader) {
+        _platformTypeLoader = platformTypeLoader;
+        _typeLoader = typeLoader;
+    }
+
+    @Override
+    public boolean tryLoadType(final String internalName, final Buffer buffer) {
+        //
+        // The platform index is by package, so this also refuses a class the chosen JDK lacks
+        // from a package it owns (e.g., one added in a later release).
+        //
+        if (_platformTypeLoader.mayContainType(internalName) ||
+            BoundedTypeCachePolicy.isPlatformType(internalName)) {
+
+            return false;
+        }
+
+        return _typeLoader.tryLoadType(internalName, buffer);
+    }
+}
@@ -0,0 +1,323 @@
+/*
+ * IncrementalManifest.java
+ *
+ * Copyright (c) 2013 Mike Strobel
+ *
+ * This source code is subject to terms and conditions of the Apache License, Version 2.0.
+ * A copy of the license can be found in the License.html file at the root of this distribution.
+ * By using this source code in any fashion, you are agreeing to be bound by the terms of the
+ * Apache License, Version 2.0.
+ *
+ * You must not remove this notice, or any other, from this software.
+ */
+
+package com.strobel.decompiler;
+
+import com.strobel.core.ExceptionUtilities;
+import com.strobel.core.VerifyArgument;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Records which classes of a jar each output file was decompiled from, along with a hash of each
+ * class and the settings used.  A later run against the same output directory can then skip any
+ * type whose classes and settings are unchanged.
+ * <p>
+ * The classes recorded for an output file are its top-level class and every nested, local, or
+ * anonymous class decompiled with it, so a change to any one of them invalidates the whole file.
+ *
+ * @author Mike Strobel
+ */
+final class IncrementalManifest {
+    private final static String HEADER = "# Procyon incremental manifest";
+    private final static String SETTINGS_PREFIX = "settings\t";
+    private final static String TYPE_PREFIX = "type\t";
+    private final static String CLASS_PREFIX = "class\t";
+    private final static String HASH_ALGORITHM = "SHA-1";
+
+    private final File _file;
+    private final File _outputDirectory;
+    private final JarFile _jar;
+    private final String _settingsKey;
+    private final NavigableSet<String> _classNames;
+    private final Map<String, Record> _previousRecords;
+    private final Map<String, Record> _records = new ConcurrentHashMap<>();
+    private final Map<String, String> _classHashes = new ConcurrentHashMap<>();
+
+    private IncrementalManifest(
+        final File file,
+        final File outputDirectory,
+        final JarFile jar,
+        final String settingsKey,
+        final Map<String, Record> previousRecords) {
+
+        _file = file;
+        _outputDirectory = outputDirectory;
+        _jar = jar;
+        _settingsKey = settingsKey;
+        _previousRecords = previousRecords;
+        _classNames = new TreeSet<>();
+
+        final Enumeration<JarEntry> entries = jar.entries();
+
+        while (entries.hasMoreElements()) {
+            final String name = entries.nextElement().getName();
+
+            if (name.endsWith(".class")) {
+                _classNames.add(name.substring(0, name.length() - ".class".length()));
+            }
+        }
+    }
+
+    /**
+     * Opens the manifest of {@code jar} in {@code outputDirectory}.  Records written with
+     * different settings, or in a format this version does not understand, are discarded.
+     */
+    static IncrementalManifest open(
+        final File outputDirectory,
+        final JarFile jar,
+        final String jarName,
+        final String settingsKey) throws IOException {
+
+        VerifyArgument.notNull(outputDirectory, "outputDirectory");
+        VerifyArgument.notNull(jar, "jar");
+        VerifyArgument.notNull(jarName, "jarName");
+        VerifyArgument.notNull(settingsKey, "settingsKey");
+
+        final File file = new File(new File(outputDirectory, ".procyon"), jarName + ".manifest");
+        final Map<String, Record> previousRecords = file.isFile() ? read(file, settingsKey)
+                                                                  : Collections.<String, Record>emptyMap();
+
+        return new IncrementalManifest(file, outputDirectory, jar, settingsKey, previousRecords);
+    }
+
+    /**
+     * Carries over the records of every type whose output file still exists and whose classes
+     * are unchanged, and returns the names of those classes; they need not be decompiled again.
+     */
+    Set<String> retainUpToDateTypes() throws IOException {
+        final Set<String> upToDateClasses = new HashSet<>();
+        final Set<String> staleTypes = new HashSet<>();
+
+        for (final Record record : _previousRecords.values()) {
+            if (isUpToDate(record)) {
+                _records.put(record.typeName, record);
+                upToDateClasses.addAll(record.classHashes.keySet());
+            }
+            else {
+                staleTypes.add(record.typeName);
+            }
+        }
+
+        //
+        // A class may be both recorded with another type and written to its own file (e.g., a
+        // top-level class with a '$' in its name); if its own file is stale, it must be rewritten.
+        //
+        upToDateClasses.removeAll(staleTypes);
+
+        return upToDateClasses;
+    }
+
+    /**
+     * Records that {@code typeName} was decompiled to {@code outputPath} (relative to the output
+     * directory) from the given classes.  Every class in the jar whose name starts with
+     * {@code typeName + '$'} is recorded as well, as the compiler names most nested classes
+     * that way.  Classes which did not come from the jar are ignored.
+     */
+    void recordType(final String typeName, final String outputPath, final Collection<String> classNames) throws IOException {
+        VerifyArgument.notNull(typeName, "typeName");
+        VerifyArgument.notNull(outputPath, "outputPath");
+        VerifyArgument.notNull(classNames, "classNames");
+
+        final Set<String> allClassNames = new TreeSet<>(classNames);
+
+        allClassNames.add(typeName);
+        allClassNames.addAll(_classNames.subSet(typeName + '$', true, typeName + '$' + Character.MAX_VALUE, true));
+
+        final Map<String, String> classHashes = new LinkedHashMap<>();
+
+        for (final String className : allClassNames) {
+            final String hash = getClassHash(className);
+
+            if (hash != null) {
+                classHashes.put(className, hash);
+            }
+        }
+
+        _records.put(typeName, new Record(typeName, outputPath, classHashes));
+    }
+
+    void save() throws IOException {
+        final File directory = _file.getParentFile();
+
+        if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+            throw new IOException("Could not create directory: " + directory.getPath());
+        }
+
+        try (final Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(_file), StandardCharsets.UTF_8))) {
+            writer.write(HEADER);
+            writer.write('\n');
+            writer.write(SETTINGS_PREFIX);
+            writer.write(_settingsKey);
+            writer.write('\n');
+
+            for (final Record record : new TreeMap<>(_records).values()) {
+                writer.write(TYPE_PREFIX + record.typeName + '\t' + record.outputPath + '\n');
+
+                for (final Map.Entry<String, String> classHash : record.classHashes.entrySet()) {
+                    writer.write(CLASS_PREFIX + classHash.getKey() + '\t' + classHash.getValue() + '\n');
+                }
+            }
+        }
+    }
+
+    private boolean isUpToDate(final Record record) throws IOException {
+        if (!record.classHashes.containsKey(record.typeName) ||
+            !new File(_outputDirectory, record.outputPath).isFile()) {
+
+            return false;
+        }
+
+        for (final Map.Entry<String, String> classHash : record.classHashes.entrySet()) {
+            if (!classHash.getValue().equals(getClassHash(classHash.getKey()))) {
+                return false;
+            }
+        }
+
+        //
+        // A nested class added since the last run is caught by the hash of its outer class,
+        // but check for new '$' classes anyway in case the outer class was not recompiled.
+        //
+        final String typeName = record.typeName;
+
+        for (final String className : _classNames.subSet(typeName + '$', true, typeName + '$' + Character.MAX_VALUE, true)) {
+            if (!record.classHashes.containsKey(className)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private String getClassHash(final String className) throws IOException {
+        final String cachedHash = _classHashes.get(className);
+
+        if (cachedHash != null) {
+            return cachedHash;
+        }
+
+        final JarEntry entry = _classNames.contains(className) ? _jar.getJarEntry(className + ".class") : null;
+
+        if (entry == null) {
+            return null;
+        }
+
+        final MessageDigest digest = createDigest();
+        final byte[] buffer = new byte[8192];
+
+        try (final InputStream input = _jar.getInputStream(entry)) {
+            int bytesRead;
+
+            while ((bytesRead = input.read(buffer)) > 0) {
+                digest.update(buffer, 0, bytesRead);
+            }
+        }
+
+        final String hash = toHexString(digest.digest());
+
+        _classHashes.put(className, hash);
+
+        return hash;
+    }
+
+    private static Map<String, Record> read(final File file, final String settingsKey) throws IOException {
+        final Map<String, Record> records = new LinkedHashMap<>();
+
+        try (final BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            if (!HEADER.equals(reader.readLine()) || !(SETTINGS_PREFIX + settingsKey).equals(reader.readLine())) {
+                return Collections.emptyMap();
+            }
+
+            Record record = null;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                final String[] parts = line.split("\t", -1);
+
+                if (parts.length == 3 && line.startsWith(TYPE_PREFIX)) {
+                    record = new Record(parts[1], parts[2], new LinkedHashMap<String, String>());
+                    records.put(record.typeName, record);
+                }
+                else if (parts.length == 3 && line.startsWith(CLASS_PREFIX) && record != null) {
+                    record.classHashes.put(parts[1], parts[2]);
+                }
+                else {
+                    //
+                    // The manifest is damaged; start over rather than trust any of it.
+                    //
+                    return Collections.emptyMap();
+                }
+            }
+        }
+
+        return records;
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        }
+        catch (final NoSuchAlgorithmException e) {
+            throw ExceptionUtilities.asRuntimeException(e);
+        }
+    }
+
+    private static String toHexString(final byte[] bytes) {
+        final char[] digits = "0123456789abcdef".toCharArray();
+        final char[] chars = new char[bytes.length * 2];
+
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = digits[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = digits[bytes[i] & 0xF];
+        }
+
+        return new String(chars);
+    }
+
+    private final static class Record {
+        final String typeName;
+        final String outputPath;
+        final Map<String, String> classHashes;
+
+        Record(final String typeName, final String outputPath, final Map<String, String> classHashes) {
+            this.typeName = typeName;
+            this.outputPath = outputPath;
+            this.classHashes = classHashes;
+        }
+    }
+}
@@ -6,6 +6,9 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumSet;
@@ -15,8 +18,9 @@ import java.util.List;
 import com.strobel.decompiler.languages.LineNumberPosition;
 
 /**
- * A <code>LineNumberFormatter</code> is used to rewrite an existing .java file, introducing
- * line number information.  It can handle either, or both, of the following jobs:
+ * A <code>LineNumberFormatter</code> is used to rewrite an existing .java file, or the text
+ * of one, introducing line number information.  It can handle either, or both, of the
+ * following jobs:
  * 
  * <ul>
  *   <li>Introduce line numbers as leading comments.
@@ -49,92 +53,133 @@ public class LineNumberFormatter {
         _options = (options == null ? EnumSet.noneOf( LineNumberOption.class) : options);
     }
 
+    /**
+     * Constructs an instance which reformats text in memory; see {@link #reformat(String)}.
+     * 
+     * @param lineNumberPositions a recipe for how to fix the line numbers in the text.
+     * @param options controls how 'this' represents line numbers in the resulting text
+     */
+    public LineNumberFormatter(List<LineNumberPosition> lineNumberPositions,
+            EnumSet<LineNumberOption> options) {
+        this( null, lineNumberPositions, options);
+    }
+
     /**
      * Rewrites the file passed to 'this' constructor so that the actual line numbers match
      * the recipe passed to 'this' constructor.
      */
     public void reformatFile() throws IOException {
         List<LineNumberPosition> lineBrokenPositions = new ArrayList<LineNumberPosition>();
-        List<String> brokenLines = breakLines( lineBrokenPositions);
-        emitFormatted( brokenLines, lineBrokenPositions);
+        List<String> brokenLines;
+
+        try( BufferedReader r = new BufferedReader( new FileReader( _file))) {
+            brokenLines = breakLines( r, lineBrokenPositions);
+        }
+
+        File tempFile = new File( _file.getAbsolutePath() + ".fixed");
+
+        try( Writer w = new BufferedWriter( new FileWriter( tempFile))) {
+            emitFormatted( brokenLines, lineBrokenPositions, w);
+        }
+        
+        // Delete the original file and rename the formatted temp file over the original.
+        _file.delete();
+        tempFile.renameTo( _file);
+    }
+
+    /**
+     * Returns a copy of 'text' in which the actual line numbers match the recipe passed to
+     * 'this' constructor.  Nothing is written to disk, so the result can be written out with
+     * the rest of the file.
+     */
+    public String reformat(String text) {
+        List<LineNumberPosition> lineBrokenPositions = new ArrayList<LineNumberPosition>();
+        StringWriter w = new StringWriter( text.length() + text.length() / 4);
+
+        try {
+            List<String> brokenLines = breakLines( new BufferedReader( new StringReader( text)), lineBrokenPositions);
+            emitFormatted( brokenLines, lineBrokenPositions, w);
+        }
+        catch (IOException e) {
+            // Reading and writing strings cannot fail.
+            throw new IllegalStateException( e);
+        }
+
+        return w.toString();
     }
     
     /**
-     * Processes {@link #_file}, breaking apart any lines on which multiple line-number markers
-     * appear in different columns.
+     * Processes the text read from 'r', breaking apart any lines on which multiple line-number
+     * markers appear in different columns.
      * 
      * @return the list of broken lines
      */
-    private List<String> breakLines( List<LineNumberPosition> o_LineBrokenPositions) throws IOException {
+    private List<String> breakLines( BufferedReader r, List<LineNumberPosition> o_LineBrokenPositions) throws IOException {
         int numLinesRead = 0;
         int lineOffset = 0;
         List<String> brokenLines = new ArrayList<>();
 
-        try( BufferedReader r = new BufferedReader( new FileReader( _file))) {
-            for ( int posIndex=0; posIndex<_positions.size(); posIndex++) {
-                LineNumberPosition pos = _positions.get( posIndex);
-                o_LineBrokenPositions.add( new LineNumberPosition(
-                        pos.getOriginalLine(), pos.getEmittedLine()+lineOffset, pos.getEmittedColumn()));
-                
-                // Copy the input file up to but not including the emitted line # in "pos".
-                while ( numLinesRead < pos.getEmittedLine()-1) {
-                    brokenLines.add( r.readLine());
-                    numLinesRead++;
-                }
-                
-                // Read the line that contains the next line number annotations, but don't write it yet.
-                String line = r.readLine();
+        for ( int posIndex=0; posIndex<_positions.size(); posIndex++) {
+            LineNumberPosition pos = _positions.get( posIndex);
+            o_LineBrokenPositions.add( new LineNumberPosition(
+                    pos.getOriginalLine(), pos.getEmittedLine()+lineOffset, pos.getEmittedColumn()));
+            
+            // Copy the input file up to but not including the emitted line # in "pos".
+            while ( numLinesRead < pos.getEmittedLine()-1) {
+                brokenLines.add( r.readLine());
                 numLinesRead++;
-                
-                // See if there are two original line annotations on the same emitted line.
-                LineNumberPosition nextPos;
-                int prevPartLen = 0;
-                char[] indent = {};
-                do {
-                    nextPos = (posIndex < _positions.size()-1) ? _positions.get( posIndex+1) : null;
-                    if ( nextPos != null
-                        && nextPos.getEmittedLine() == pos.getEmittedLine()
-                        && nextPos.getOriginalLine() > pos.getOriginalLine()) {
-                        // Two different source line numbers on the same emitted line!
-                        posIndex++;
-                        lineOffset++;
-                        String firstPart = line.substring( 0, nextPos.getEmittedColumn() - prevPartLen - 1);
-                        brokenLines.add( new String(indent) + firstPart);
-                        prevPartLen += firstPart.length();
-                        indent = new char[prevPartLen];
-                        Arrays.fill( indent, ' ');
-                        line = line.substring( firstPart.length(), line.length());
-                        
-                        // Alter the position while adding it.
-                        o_LineBrokenPositions.add( new LineNumberPosition(
-                                nextPos.getOriginalLine(), nextPos.getEmittedLine()+lineOffset, nextPos.getEmittedColumn()));
-                    } else {
-                        nextPos = null;
-                    }
-                } while ( nextPos != null);
-                
-                // Nothing special here-- just emit the line.
-                brokenLines.add( new String(indent) + line);
             }
             
-            // Copy out the remainder of the file.
-            String line;
-            while ( (line = r.readLine()) != null) {
-                brokenLines.add( line);
-            }
+            // Read the line that contains the next line number annotations, but don't write it yet.
+            String line = r.readLine();
+            numLinesRead++;
+            
+            // See if there are two original line annotations on the same emitted line.
+            LineNumberPosition nextPos;
+            int prevPartLen = 0;
+            char[] indent = {};
+            do {
+                nextPos = (posIndex < _positions.size()-1) ? _positions.get( posIndex+1) : null;
+                if ( nextPos != null
+                    && nextPos.getEmittedLine() == pos.getEmittedLine()
+                    && nextPos.getOriginalLine() > pos.getOriginalLine()) {
+                    // Two different source line numbers on the same emitted line!
+                    posIndex++;
+                    lineOffset++;
+                    String firstPart = line.substring( 0, nextPos.getEmittedColumn() - prevPartLen - 1);
+                    brokenLines.add( new String(indent) + firstPart);
+                    prevPartLen += firstPart.length();
+                    indent = new char[prevPartLen];
+                    Arrays.fill( indent, ' ');
+                    line = line.substring( firstPart.length(), line.length());
+                    
+                    // Alter the position while adding it.
+                    o_LineBrokenPositions.add( new LineNumberPosition(
+                            nextPos.getOriginalLine(), nextPos.getEmittedLine()+lineOffset, nextPos.getEmittedColumn()));
+                } else {
+                    nextPos = null;
+                }
+            } while ( nextPos != null);
+            
+            // Nothing special here-- just emit the line.
+            brokenLines.add( new String(indent) + line);
+        }
+        
+        // Copy out the remainder of the file.
+        String line;
+        while ( (line = r.readLine()) != null) {
+            brokenLines.add( line);
         }
         return brokenLines;
     }
     
-    private void emitFormatted( List<String> brokenLines, List<LineNumberPosition> lineBrokenPositions) throws IOException {
-        File tempFile = new File( _file.getAbsolutePath() + ".fixed");
+    private void emitFormatted( List<String> brokenLines, List<LineNumberPosition> lineBrokenPositions, Writer out) {
         int globalOffset = 0;
         int numLinesRead = 0;
         Iterator<String> lines = brokenLines.iterator();
         
         int maxLineNo = LineNumberPosition.computeMaxLineNumber( lineBrokenPositions);
-        try( LineNumberPrintWriter w = new LineNumberPrintWriter( 
-                maxLineNo, new BufferedWriter( new FileWriter( tempFile)))) {
+        try( LineNumberPrintWriter w = new LineNumberPrintWriter( maxLineNo, out)) {
             
             // Suppress all line numbers if we weren't asked to show them.
             if ( ! _options.contains( LineNumberOption.LEADING_COMMENTS)) {
@@ -218,10 +263,6 @@ public class LineNumberFormatter {
                 w.println( line);
             }
         }
-        
-        // Delete the original file and rename the formatted temp file over the original.
-        _file.delete();
-        tempFile.renameTo( _file);
     }
 
 }
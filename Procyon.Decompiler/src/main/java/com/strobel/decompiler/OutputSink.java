@@ -0,0 +1,173 @@
+/*
+ * OutputSink.java
+ *
+ * Copyright (c) 2013 Mike Strobel
+ *
+ * This source code is subject to terms and conditions of the Apache License, Version 2.0.
+ * A copy of the license can be found in the License.html file at the root of this distribution.
+ * By using this source code in any fashion, you are agreeing to be bound by the terms of the
+ * Apache License, Version 2.0.
+ *
+ * You must not remove this notice, or any other, from this software.
+ */
+
+package com.strobel.decompiler;
+
+import com.strobel.core.VerifyArgument;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Receives the source files produced by a decompilation run.  Each file is generated (and, if
+ * requested, reformatted with line numbers) in memory first, then handed to the sink whole, so
+ * it is written with a single call.
+ * <p>
+ * Sinks are safe to use from multiple threads.  A sink must be closed once the run is complete.
+ *
+ * @author Mike Strobel
+ */
+abstract class OutputSink implements Closeable {
+    private final Charset _charset;
+
+    OutputSink(final Charset charset) {
+        _charset = VerifyArgument.notNull(charset, "charset");
+    }
+
+    /**
+     * Creates a sink which writes each file into {@code directory}, creating subdirectories as
+     * needed.
+     */
+    static OutputSink directory(final File directory, final Charset charset) {
+        return new DirectorySink(directory, charset);
+    }
+
+    /**
+     * Creates a sink which writes every file as an entry of a new zip (or jar) archive at
+     * {@code file}, e.g., a sources jar.  Entries appear in the order in which their types finish
+     * decompiling.
+     */
+    static OutputSink zip(final File file, final Charset charset) throws IOException {
+        return new ZipSink(file, charset);
+    }
+
+    /**
+     * Writes the file at {@code path}, relative to the root of the output, replacing any file
+     * already there.
+     */
+    final void write(final String path, final String text) throws IOException {
+        VerifyArgument.notNull(path, "path");
+        VerifyArgument.notNull(text, "text");
+
+        write(path, text.getBytes(_charset));
+    }
+
+    abstract void write(final String path, final byte[] contents) throws IOException;
+
+    /**
+     * Returns whether files are written to a directory, where they may be left in place across
+     * runs (see {@link IncrementalManifest}).
+     */
+    abstract boolean isDirectory();
+
+    private final static class DirectorySink extends OutputSink {
+        private final File _directory;
+        private final Set<File> _createdDirectories = Collections.newSetFromMap(new ConcurrentHashMap<File, Boolean>());
+
+        DirectorySink(final File directory, final Charset charset) {
+            super(charset);
+            _directory = VerifyArgument.notNull(directory, "directory");
+        }
+
+        @Override
+        void write(final String path, final byte[] contents) throws IOException {
+            final File outputFile = new File(_directory, path);
+            final File parentFile = outputFile.getParentFile();
+
+            //
+            // Most types share their package directory with others, so remember which directories
+            // already exist rather than checking for every file.  Another thread may create the
+            // same directory concurrently, in which case mkdirs() fails.
+            //
+            if (parentFile != null && !_createdDirectories.contains(parentFile)) {
+                if (!parentFile.exists() && !parentFile.mkdirs() && !parentFile.isDirectory()) {
+                    throw new IllegalStateException(
+                        String.format(
+                            "Could not create output directory for file \"%s\".",
+                            outputFile.getPath()
+                        )
+                    );
+                }
+
+                _createdDirectories.add(parentFile);
+            }
+
+            try (final OutputStream out = new FileOutputStream(outputFile)) {
+                out.write(contents);
+            }
+        }
+
+        @Override
+        boolean isDirectory() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private final static class ZipSink extends OutputSink {
+        private final ZipOutputStream _zip;
+
+        ZipSink(final File file, final Charset charset) throws IOException {
+            super(charset);
+
+            final File parentFile = file.getAbsoluteFile().getParentFile();
+
+            if (parentFile != null && !parentFile.exists() && !parentFile.mkdirs()) {
+                throw new IllegalStateException(
+                    String.format(
+                        "Could not create output directory for file \"%s\".",
+                        file.getPath()
+                    )
+                );
+            }
+
+            _zip = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        }
+
+        @Override
+        void write(final String path, final byte[] contents) throws IOException {
+            final String entryName = path.replace(File.separatorChar, '/');
+
+            synchronized (_zip) {
+                _zip.putNextEntry(new ZipEntry(entryName));
+                _zip.write(contents);
+                _zip.closeEntry();
+            }
+        }
+
+        @Override
+        boolean isDirectory() {
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            synchronized (_zip) {
+                _zip.close();
+            }
+        }
+    }
+}